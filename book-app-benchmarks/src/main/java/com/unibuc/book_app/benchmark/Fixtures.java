@@ -0,0 +1,74 @@
+package com.unibuc.book_app.benchmark;
+
+import com.unibuc.book_app.dto.BookResponseDto;
+import com.unibuc.book_app.dto.TranslatorSummaryDto;
+import com.unibuc.book_app.model.*;
+
+import java.time.LocalDate;
+
+// Rows shaped like the ones the API serves, so field sizes match what the mappers and Jackson see in production
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static Translator translator() {
+        return Translator.builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+    }
+
+    static Book book(int id) {
+        return Book.builder()
+                .id(id)
+                .name("Intre iadul deznadejdii si iadul smereniei " + id)
+                .isbn("973-9344-56-" + id)
+                .noPages(350)
+                .price(100)
+                .language("romanian")
+                .publishDate(LocalDate.of(2024, 3, 10))
+                .translator(translator())
+                .build();
+    }
+
+    static Author author(int id) {
+        return Author.builder()
+                .id(id)
+                .firstName("Emil")
+                .lastName("Cioran")
+                .debutDate(LocalDate.of(1934, 1, 1))
+                .build();
+    }
+
+    static Editor editor(int id) {
+        return Editor.builder()
+                .id(id)
+                .firstName("Simona")
+                .lastName("Boerescu")
+                .debutDate(LocalDate.of(1995, 1, 1))
+                .build();
+    }
+
+    static BookAuthorEditor bookAuthorEditor(int id) {
+        return BookAuthorEditor.builder()
+                .bookAuthorEditorId(new BookAuthorEditor.BookAuthorEditorId(id, id, id))
+                .book(book(id))
+                .author(author(id))
+                .editor(editor(id))
+                .build();
+    }
+
+    static BookResponseDto bookResponseDto(int id) {
+        return BookResponseDto.builder()
+                .id(id)
+                .name("Intre iadul deznadejdii si iadul smereniei " + id)
+                .isbn("973-9344-56-" + id)
+                .noPages(350)
+                .price(100)
+                .language("romanian")
+                .publishDate(LocalDate.of(2024, 3, 10))
+                .translator(new TranslatorSummaryDto(1, "John", "Doe"))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.unibuc.book_app.benchmark;
+
+import com.unibuc.book_app.dto.AuthorSummaryDto;
+import com.unibuc.book_app.dto.BookAuthorEditorResponseDto;
+import com.unibuc.book_app.dto.BookResponseDto;
+import com.unibuc.book_app.mapper.AuthorMapper;
+import com.unibuc.book_app.mapper.BookAuthorEditorMapper;
+import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.model.Author;
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.model.BookAuthorEditor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one entity into its response DTO.
+ * <p>
+ * The mappers go through Lombok builders, so besides ns/op the interesting figure is
+ * gc.alloc.rate.norm: BookAuthorEditorMapper builds three nested summaries per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmarks {
+    private final BookMapper bookMapper = new BookMapper();
+    private final AuthorMapper authorMapper = new AuthorMapper();
+    private final BookAuthorEditorMapper bookAuthorEditorMapper = new BookAuthorEditorMapper();
+
+    private Book book;
+    private Author author;
+    private BookAuthorEditor bookAuthorEditor;
+
+    @Setup
+    public void setUp() {
+        book = Fixtures.book(1);
+        author = Fixtures.author(1);
+        bookAuthorEditor = Fixtures.bookAuthorEditor(1);
+    }
+
+    @Benchmark
+    public BookResponseDto bookToResponseDto() {
+        return bookMapper.toResponseDto(book);
+    }
+
+    @Benchmark
+    public AuthorSummaryDto authorToSummaryDto() {
+        return authorMapper.toSummaryDto(author);
+    }
+
+    @Benchmark
+    public BookAuthorEditorResponseDto bookAuthorEditorToResponseDto() {
+        return bookAuthorEditorMapper.toResponseDto(bookAuthorEditor);
+    }
+}
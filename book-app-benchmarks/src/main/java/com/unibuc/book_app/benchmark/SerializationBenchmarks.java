@@ -0,0 +1,57 @@
+package com.unibuc.book_app.benchmark;
+
+import com.unibuc.book_app.dto.BookResponseDto;
+import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.model.Book;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end cost of a GET /books body: mapping the entities and writing the JSON.
+ * <p>
+ * serialize measures Jackson alone on ready DTOs, mapAndSerialize adds the mapper pass
+ * the controllers run first. Results are per call, so divide by size for a per-row figure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmarks {
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final BookMapper bookMapper = new BookMapper();
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private List<Book> books;
+    private List<BookResponseDto> bookResponseDtos;
+
+    @Setup
+    public void setUp() {
+        books = new ArrayList<>(size);
+        bookResponseDtos = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            books.add(Fixtures.book(i));
+            bookResponseDtos.add(Fixtures.bookResponseDto(i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return objectMapper.writeValueAsBytes(bookResponseDtos);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() {
+        return objectMapper.writeValueAsBytes(books.stream()
+                .map(bookMapper::toResponseDto)
+                .toList());
+    }
+}
@@ -0,0 +1,54 @@
+package com.unibuc.book_app.configuration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the book id sequence past the ids already in the table.
+ * <p>
+ * Book ids come from a pooled sequence: each read of {@code book_seq} hands out the block of
+ * 50 ids that ends at the value read. Books inserted while the id was still auto-increment
+ * left the sequence behind their ids, so {@code ddl-auto=update} alone would hand out ids
+ * that are taken. On MySQL, which has no sequences, {@code book_seq} is a one-row table.
+ * Taking the entity manager factory makes this run after the schema update, and it runs
+ * before the application serves requests. Once the sequence is past every id it is left as it is.
+ */
+@Slf4j
+@Component
+public class BookSequenceInitializer {
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceSupport sequenceSupport;
+
+    public BookSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceSupport = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport();
+    }
+
+    @PostConstruct
+    public void seed() {
+        // The first block read after this starts right after the highest id
+        long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM book", Long.class) + ALLOCATION_SIZE;
+        if (!sequenceSupport.supportsSequences()) {
+            int updated = jdbcTemplate.update("UPDATE book_seq SET next_val = ? WHERE next_val < ?", next, next);
+            if (updated > 0) {
+                log.info("Moved book_seq to {}", next);
+            }
+            return;
+        }
+        long current = jdbcTemplate.queryForObject(sequenceSupport.getSequenceNextValString("book_seq"), Long.class);
+        if (current < next) {
+            jdbcTemplate.execute(sequenceSupport.getRestartSequenceString("book_seq", next));
+            log.info("Moved book_seq to {}", next);
+        }
+    }
+}
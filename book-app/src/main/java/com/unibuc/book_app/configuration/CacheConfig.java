@@ -0,0 +1,42 @@
+package com.unibuc.book_app.configuration;
+
+import org.springframework.boot.cache.autoconfigure.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+// Outside the transaction advice: a hit never opens a transaction, and evictions run after the write has committed
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+    public static final String BOOKS = "books";
+    public static final String AUTHORS = "authors";
+    public static final String EDITORS = "editors";
+    public static final String PUBLISHERS = "publishers";
+    public static final String CATEGORIES = "categories";
+    public static final String TRANSLATORS = "translators";
+
+    public static final String BOOK_AUTHORS = "bookAuthors";
+    public static final String BOOK_EDITORS = "bookEditors";
+    public static final String BOOK_CATEGORIES = "bookCategories";
+    public static final String BOOK_PUBLISHERS = "bookPublishers";
+    public static final String AUTHOR_BOOKS = "authorBooks";
+    public static final String EDITOR_BOOKS = "editorBooks";
+    public static final String CATEGORY_BOOKS = "categoryBooks";
+    public static final String PUBLISHER_BOOKS = "publisherBooks";
+
+    // Registering every cache up front lets the actuator bind hit, miss and eviction meters at startup
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cacheNamesCustomizer() {
+        return cacheManager -> cacheManager.setCacheNames(List.of(
+                BOOKS, AUTHORS, EDITORS, PUBLISHERS, CATEGORIES, TRANSLATORS,
+                BOOK_AUTHORS, BOOK_EDITORS, BOOK_CATEGORIES, BOOK_PUBLISHERS,
+                AUTHOR_BOOKS, EDITOR_BOOKS,
+                CATEGORY_BOOKS, PUBLISHER_BOOKS
+        ));
+    }
+}
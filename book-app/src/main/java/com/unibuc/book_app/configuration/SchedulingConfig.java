@@ -0,0 +1,10 @@
+package com.unibuc.book_app.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Runs the periodic refreshes, like the existence filter reloads
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,51 @@
+package com.unibuc.book_app.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Only active with spring.threads.virtual.enabled=true, which also moves Tomcat and the task executors onto virtual threads
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // A pinned virtual thread blocks its carrier, so a JDBC call made while pinned caps concurrency at the carrier count again
+    @Bean(destroyMethod = "close")
+    public RecordingStream virtualThreadPinningStream(
+            MeterRegistry meterRegistry,
+            @Value("${book-app.virtual-threads.pinned-threshold:20ms}") Duration threshold
+    ) {
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that stayed pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            pinned.increment();
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), topFrame(event));
+        });
+        stream.startAsync();
+        return stream;
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame frame = event.getStackTrace().getFrames().getFirst();
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
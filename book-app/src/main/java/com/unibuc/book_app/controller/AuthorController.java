@@ -2,6 +2,8 @@ package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.*;
 import com.unibuc.book_app.service.AuthorService;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,12 +24,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AuthorController {
     private final AuthorService authorService;
+    private final CollectionVersions collectionVersions;
 
     @GetMapping("")
     @ResponseBody
     @Operation(
             summary = "Get all authors",
-            description = "Retrieve a list of all authors in the system"
+            description = "Retrieve a list of all authors in the system, or a single page of authors ordered by ID " +
+                    "when after or limit is given; the cursor of the next page is returned in the X-Next-Cursor header. " +
+                    "Giving fields, a comma-separated list of author properties, selects and returns only those " +
+                    "properties of each author; the id is always included"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -35,10 +42,37 @@ public class AuthorController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = AuthorResponseDto.class)
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid pagination or fields parameters",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"limit must be between 1 and 1000\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing in the listing changed since the ETag given in If-None-Match"
+            )
     })
-    public ResponseEntity<List<AuthorResponseDto>> findAllAuthors() {
-        return ResponseEntity.ok(authorService.findAllAuthors());
+    public ResponseEntity<? extends List<?>> findAllAuthors(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = collectionVersions.etag(Table.AUTHOR);
+        if (fields != null) {
+            return ETags.conditional(ifNoneMatch, etag, () -> after == null && limit == null
+                    ? ResponseEntity.ok(authorService.findAllAuthors(fields))
+                    : CursorPageResponses.of(authorService.findAuthorsPage(fields, after, limit)));
+        }
+        return ETags.conditional(ifNoneMatch, etag, () -> {
+            if (after == null && limit == null) {
+                return ResponseEntity.ok(authorService.findAllAuthors());
+            }
+            return CursorPageResponses.of(authorService.findAuthorsPage(after, limit));
+        });
     }
 
     @GetMapping("/books/{authorId}")
@@ -83,6 +117,57 @@ public class AuthorController {
         return ResponseEntity.ok(authorService.findAllEditorsByAuthorId(authorId));
     }
 
+    @GetMapping("/coauthors/{authorId}")
+    @ResponseBody
+    @Operation(
+            summary = "Get all co-authors of an author",
+            description = "Retrieve a list of all authors that share at least one book with a specific author by ID"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved list of co-authors",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AuthorSummaryDto.class)
+                    ))
+    })
+    public ResponseEntity<List<AuthorSummaryDto>> findAllCoAuthorsByAuthorId(
+            @PathVariable Integer authorId
+    ) {
+        return ResponseEntity.ok(authorService.findAllCoAuthorsByAuthorId(authorId));
+    }
+
+    @GetMapping("/path")
+    @ResponseBody
+    @Operation(
+            summary = "Get the collaboration path between two authors",
+            description = "Retrieve the shortest chain of authors linking two authors, where every author shares a book " +
+                    "with the next one; the chain starts with the from author and ends with the to author"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved collaboration path",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AuthorSummaryDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Author not found or no collaboration path between the authors",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"No collaboration path between authors 1 and 2\" }")
+                    ))
+    })
+    public ResponseEntity<List<AuthorSummaryDto>> findCollaborationPath(
+            @RequestParam("from") Integer fromAuthorId,
+            @RequestParam("to") Integer toAuthorId
+    ) {
+        return ResponseEntity.ok(authorService.findCollaborationPath(fromAuthorId, toAuthorId));
+    }
+
     @GetMapping("/{authorId}")
     @ResponseBody
     @Operation(
@@ -103,12 +188,21 @@ public class AuthorController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Author with id 1 not found\" }")
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Author unchanged since the ETag given in If-None-Match"
+            )
     })
     public ResponseEntity<AuthorResponseDto> findAuthorById(
-            @PathVariable("authorId") Integer authorId
+            @PathVariable("authorId") Integer authorId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(authorService.findAuthorById(authorId));
+        return ETags.conditional(
+                ifNoneMatch,
+                () -> authorService.findAuthorVersion(authorId),
+                () -> authorService.findAuthorById(authorId)
+        );
     }
 
     @PostMapping("")
@@ -166,13 +260,21 @@ public class AuthorController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Author with id 1 not found\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Author changed since the ETag given in If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Author with id 1 is at version 3, not 2\" }")
                     ))
     })
     public ResponseEntity<AuthorResponseDto> updateAuthor(
             @PathVariable("authorId") Integer authorId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid AuthorUpdateDto authorUpdateDto
     ) {
-        return ResponseEntity.ok(authorService.updateAuthor(authorId, authorUpdateDto));
+        return ETags.ok(authorService.updateAuthor(authorId, authorUpdateDto, ETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{authorId}")
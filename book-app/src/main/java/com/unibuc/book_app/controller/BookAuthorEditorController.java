@@ -2,7 +2,10 @@ package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.BookAuthorEditorDto;
 import com.unibuc.book_app.dto.BookAuthorEditorResponseDto;
+import com.unibuc.book_app.dto.BulkItemResultDto;
 import com.unibuc.book_app.service.BookAuthorEditorService;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -11,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +26,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookAuthorEditorController {
     private final BookAuthorEditorService bookAuthorEditorService;
+    private final CollectionVersions collectionVersions;
 
     @GetMapping("")
     @ResponseBody
@@ -36,10 +41,20 @@ public class BookAuthorEditorController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = BookAuthorEditorResponseDto.class)
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing in the listing changed since the ETag given in If-None-Match"
+            )
     })
-    public ResponseEntity<List<BookAuthorEditorResponseDto>> findAllBookAuthorEditors() {
-        return ResponseEntity.ok(bookAuthorEditorService.findAllBookAuthorEditors());
+    public ResponseEntity<List<BookAuthorEditorResponseDto>> findAllBookAuthorEditors(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return ETags.conditional(
+                ifNoneMatch,
+                collectionVersions.etag(Table.BOOK_AUTHOR_EDITOR, Table.BOOK, Table.AUTHOR, Table.EDITOR),
+                () -> ResponseEntity.ok(bookAuthorEditorService.findAllBookAuthorEditors())
+        );
     }
 
     @GetMapping("/{bookId}/{authorId}/{editorId}")
@@ -113,6 +128,35 @@ public class BookAuthorEditorController {
         return ResponseEntity.status(HttpStatus.CREATED).body(bookAuthorEditorService.createBookAuthorEditor(bookAuthorEditorDto));
     }
 
+    @PostMapping("/bulk")
+    @ResponseBody
+    @Operation(
+            summary = "Create many book author editors",
+            description = "Create many book-author-editor relationships in a single request; links that already exist are reported " +
+                    "with status 200 and left untouched"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Bulk request processed, see the status of every item",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkItemResultDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many links in a single request",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"A bulk request cannot contain more than 5000 links\" }")
+                    ))
+    })
+    public ResponseEntity<List<BulkItemResultDto<BookAuthorEditorDto>>> createBookAuthorEditors(
+            @RequestBody List<BookAuthorEditorDto> bookAuthorEditorDtos
+    ) {
+        return ResponseEntity.ok(bookAuthorEditorService.createBookAuthorEditors(bookAuthorEditorDtos));
+    }
+
     @DeleteMapping("/{bookId}/{authorId}/{editorId}")
     @ResponseBody
     @Operation(
@@ -2,7 +2,10 @@ package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.BookCategoryDto;
 import com.unibuc.book_app.dto.BookCategoryResponseDto;
+import com.unibuc.book_app.dto.BulkItemResultDto;
 import com.unibuc.book_app.service.BookCategoryService;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -11,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +26,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookCategoryController {
     private final BookCategoryService bookCategoryService;
+    private final CollectionVersions collectionVersions;
 
     @GetMapping("")
     @ResponseBody
@@ -36,10 +41,20 @@ public class BookCategoryController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = BookCategoryResponseDto.class)
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing in the listing changed since the ETag given in If-None-Match"
+            )
     })
-    public ResponseEntity<List<BookCategoryResponseDto>> findAllBookCategories() {
-        return ResponseEntity.ok(bookCategoryService.findAllBookCategories());
+    public ResponseEntity<List<BookCategoryResponseDto>> findAllBookCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return ETags.conditional(
+                ifNoneMatch,
+                collectionVersions.etag(Table.BOOK_CATEGORY, Table.BOOK, Table.CATEGORY),
+                () -> ResponseEntity.ok(bookCategoryService.findAllBookCategories())
+        );
     }
 
     @GetMapping("/{bookId}/{categoryId}")
@@ -112,6 +127,35 @@ public class BookCategoryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(bookCategoryService.createBookCategory(bookCategoryDto));
     }
 
+    @PostMapping("/bulk")
+    @ResponseBody
+    @Operation(
+            summary = "Create many book categories",
+            description = "Create many book-category relationships in a single request; links that already exist are reported " +
+                    "with status 200 and left untouched"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Bulk request processed, see the status of every item",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkItemResultDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many links in a single request",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"A bulk request cannot contain more than 5000 links\" }")
+                    ))
+    })
+    public ResponseEntity<List<BulkItemResultDto<BookCategoryDto>>> createBookCategories(
+            @RequestBody List<BookCategoryDto> bookCategoryDtos
+    ) {
+        return ResponseEntity.ok(bookCategoryService.createBookCategories(bookCategoryDtos));
+    }
+
     @DeleteMapping("/{bookId}/{categoryId}")
     @ResponseBody
     @Operation(
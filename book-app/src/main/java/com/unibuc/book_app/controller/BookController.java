@@ -1,32 +1,59 @@
 package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.*;
+import com.unibuc.book_app.service.BookDetailService;
+import com.unibuc.book_app.service.BookListSnapshotService;
 import com.unibuc.book_app.service.BookService;
+import com.unibuc.book_app.service.GzipSnapshot;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("books")
 @RequiredArgsConstructor
 public class BookController {
     private final BookService bookService;
+    private final BookDetailService bookDetailService;
+    private final BookListSnapshotService bookListSnapshotService;
+    private final CollectionVersions collectionVersions;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("")
     @ResponseBody
     @Operation(
             summary = "Get all books",
-            description = "Retrieve a list of all books in the system"
+            description = "Retrieve a list of all books in the system, or a single page of books ordered by ID " +
+                    "when after or limit is given; the cursor of the next page is returned in the X-Next-Cursor header. " +
+                    "Giving language, minPrice, maxPrice, publishedFrom, publishedTo, translatorId or sort always " +
+                    "returns a page of the matching books, ordered by sort (id, price, noPages or publishDate, " +
+                    "prefixed with - for descending) and then by ID; the cursor of such a page also carries the sort value, " +
+                    "so it is only valid for the same sort. " +
+                    "Giving fields, a comma-separated list of book properties, selects and returns only those " +
+                    "properties of each book; the id is always included, and the translator is only joined when asked for. " +
+                    "The full list is served from a precomputed gzip snapshot to clients that accept gzip"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -35,10 +62,89 @@ public class BookController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = BookResponseDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid pagination, filter, sort or fields parameters",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"limit must be between 1 and 1000\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing in the listing changed since the ETag given in If-None-Match"
+            )
+    })
+    public ResponseEntity<? extends List<?>> findAllBooks(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "language", required = false) String language,
+            @RequestParam(value = "minPrice", required = false) Integer minPrice,
+            @RequestParam(value = "maxPrice", required = false) Integer maxPrice,
+            @RequestParam(value = "publishedFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+            @RequestParam(value = "publishedTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo,
+            @RequestParam(value = "translatorId", required = false) Integer translatorId,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) {
+        String etag = collectionVersions.etag(Table.BOOK, Table.TRANSLATOR);
+        BookFilterDto filter = new BookFilterDto(language, minPrice, maxPrice, publishedFrom, publishedTo, translatorId, sort);
+        boolean filtered = !filter.equals(new BookFilterDto());
+        if (fields != null) {
+            return ETags.conditional(ifNoneMatch, etag, () -> !filtered && after == null && limit == null
+                    ? ResponseEntity.ok(bookService.findAllBooks(fields))
+                    : CursorPageResponses.of(bookService.findBooksPage(filter, fields, after, limit)));
+        }
+        return ETags.conditional(ifNoneMatch, etag, () -> {
+            if (filtered) {
+                return CursorPageResponses.of(bookService.findBooksPage(filter, after, limit));
+            }
+            if (after != null || limit != null) {
+                return CursorPageResponses.of(bookService.findBooksPage(after, limit));
+            }
+            Optional<GzipSnapshot> snapshot = GzipSnapshotResponses.acceptsGzip(acceptEncoding)
+                    ? bookListSnapshotService.current(etag)
+                    : Optional.empty();
+            if (snapshot.isPresent()) {
+                GzipSnapshotResponses.write(snapshot.get(), response);
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .body(bookService.findAllBooks());
+        });
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Export all books",
+            description = "Stream every book in the system as newline-delimited JSON, one book per line"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully started streaming the books",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = BookResponseDto.class)
                     ))
     })
-    public ResponseEntity<List<BookResponseDto>> findAllBooks() {
-        return ResponseEntity.ok(bookService.findAllBooks());
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        StreamingResponseBody body = outputStream -> bookService.exportBooks(book -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(book));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/authors/{bookId}")
@@ -125,6 +231,42 @@ public class BookController {
         return ResponseEntity.ok(bookService.findAllPublishersByBookId(bookId));
     }
 
+    @GetMapping("/{bookId}/detail")
+    @ResponseBody
+    @Operation(
+            summary = "Get book detail by ID",
+            description = "Retrieve a book together with its translator, authors, editors, categories and publishers " +
+                    "in a single document; the lookups run in parallel under a per-request deadline"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved book detail",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BookDetailDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Book not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Book with id 1 not found\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "504",
+                    description = "The lookups did not finish before the deadline",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Book detail with id 1 took longer than 2000 ms\" }")
+                    ))
+    })
+    public ResponseEntity<BookDetailDto> findBookDetailById(
+            @PathVariable("bookId") Integer bookId
+    ) {
+        return ResponseEntity.ok(bookDetailService.findBookDetailById(bookId));
+    }
+
     @GetMapping("/{bookId}")
     @ResponseBody
     @Operation(
@@ -145,12 +287,21 @@ public class BookController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Book with id 1 not found\" }")
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Book unchanged since the ETag given in If-None-Match"
+            )
     })
     public ResponseEntity<BookResponseDto> findBookById(
-            @PathVariable("bookId") Integer bookId
+            @PathVariable("bookId") Integer bookId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(bookService.findBookById(bookId));
+        return ETags.conditional(
+                ifNoneMatch,
+                () -> bookService.findBookVersionTag(bookId),
+                () -> bookService.findBookById(bookId)
+        );
     }
 
     @PostMapping("")
@@ -173,6 +324,13 @@ public class BookController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Invalid book data\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "A book with the same isbn already exists",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Book with isbn 973-9344-56-9 already exists\" }")
                     ))
     })
     public ResponseEntity<BookResponseDto> createBook(
@@ -181,6 +339,35 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(bookService.createBook(bookCreateDto));
     }
 
+    @PostMapping("/bulk")
+    @ResponseBody
+    @Operation(
+            summary = "Create many books",
+            description = "Create many books in a single request; every item gets its own result with the " +
+                    "status it would have received from POST /books"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Bulk request processed, see the status of every item",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkItemResultDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many books in a single request",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"A bulk request cannot contain more than 5000 books\" }")
+                    ))
+    })
+    public ResponseEntity<List<BulkItemResultDto<BookResponseDto>>> createBooks(
+            @RequestBody List<BookCreateDto> bookCreateDtos
+    ) {
+        return ResponseEntity.ok(bookService.createBooks(bookCreateDtos));
+    }
+
     @PutMapping("/{bookId}")
     @ResponseBody
     @Operation(
@@ -208,13 +395,21 @@ public class BookController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Book with id 1 not found\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Book changed since the ETag given in If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Book with id 1 is at version 3, not 2\" }")
                     ))
     })
     public ResponseEntity<BookResponseDto> updateBook(
             @PathVariable("bookId") Integer bookId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody BookUpdateDto bookUpdateDto
     ) {
-        return ResponseEntity.ok(bookService.updateBook(bookId, bookUpdateDto));
+        return ETags.ok(bookService.updateBook(bookId, bookUpdateDto, ETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{bookId}")
@@ -4,6 +4,8 @@ import com.unibuc.book_app.dto.BookSummaryDto;
 import com.unibuc.book_app.dto.CategoryDto;
 import com.unibuc.book_app.dto.CategorySummaryDto;
 import com.unibuc.book_app.service.CategoryService;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,9 +26,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryController {
     private final CategoryService categoryService;
+    private final CollectionVersions collectionVersions;
 
     @GetMapping("")
     @ResponseBody
+    @Operation(
+            summary = "Get all categories",
+            description = "Retrieve a list of all categories in the system, or a single page of categories ordered by ID " +
+                    "when after or limit is given; the cursor of the next page is returned in the X-Next-Cursor header"
+    )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
@@ -33,10 +42,64 @@ public class CategoryController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = CategorySummaryDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid pagination parameters",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"limit must be between 1 and 1000\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing in the listing changed since the ETag given in If-None-Match"
+            )
+    })
+    public ResponseEntity<List<CategorySummaryDto>> getAllCategories(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return ETags.conditional(ifNoneMatch, collectionVersions.etag(Table.CATEGORY), () -> {
+            if (after == null && limit == null) {
+                return ResponseEntity.ok(categoryService.findAllCategories());
+            }
+            return CursorPageResponses.of(categoryService.findCategoriesPage(after, limit));
+        });
+    }
+
+    @GetMapping("/books")
+    @ResponseBody
+    @Operation(
+            summary = "Get books by a combination of categories",
+            description = "Retrieve the books that belong to every category in all, to at least one category in any " +
+                    "and to no category in none, one page at a time ordered by ID; at least one of all and any is " +
+                    "required and the cursor of the next page is returned in the X-Next-Cursor header"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved list of books",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BookSummaryDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "No category given or invalid pagination parameters",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"all or any must list at least one category\" }")
                     ))
     })
-    public ResponseEntity<List<CategorySummaryDto>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.findAllCategories());
+    public ResponseEntity<List<BookSummaryDto>> findBooksByCategories(
+            @RequestParam(value = "all", required = false) List<Integer> all,
+            @RequestParam(value = "any", required = false) List<Integer> any,
+            @RequestParam(value = "none", required = false) List<Integer> none,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return CursorPageResponses.of(categoryService.findBooksByCategories(all, any, none, after, limit));
     }
 
     @GetMapping("/books/{categoryId}")
@@ -80,12 +143,21 @@ public class CategoryController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Category with id 1 not found\" }")
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Category unchanged since the ETag given in If-None-Match"
+            )
     })
     public ResponseEntity<CategorySummaryDto> getCategoryById(
-            @PathVariable("categoryId") Integer categoryId
+            @PathVariable("categoryId") Integer categoryId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(categoryService.findCategoryById(categoryId));
+        return ETags.conditional(
+                ifNoneMatch,
+                () -> categoryService.findCategoryVersion(categoryId),
+                () -> categoryService.findCategoryById(categoryId)
+        );
     }
 
     @PostMapping("")
@@ -143,13 +215,21 @@ public class CategoryController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Category with id 1 not found\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Category changed since the ETag given in If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Category with id 1 is at version 3, not 2\" }")
                     ))
     })
     public ResponseEntity<CategorySummaryDto> updateCategory(
             @PathVariable("categoryId") Integer categoryId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid CategoryDto categoryDto
     ) {
-        return ResponseEntity.ok(categoryService.updateCategory(categoryId, categoryDto));
+        return ETags.ok(categoryService.updateCategory(categoryId, categoryDto, ETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{categoryId}")
@@ -0,0 +1,21 @@
+package com.unibuc.book_app.controller;
+
+import com.unibuc.book_app.dto.CursorPageDto;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+final class CursorPageResponses {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorPageResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(CursorPageDto<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
@@ -0,0 +1,102 @@
+package com.unibuc.book_app.controller;
+
+import com.unibuc.book_app.dto.VersionedDto;
+import com.unibuc.book_app.exception.PreconditionFailedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * ETags of single resources are the quoted row version, so a conditional GET can be
+ * answered from a version-only query and an If-Match header names the version a PUT
+ * expects. A resource that embeds another row appends that row's version after a dot,
+ * see {@link VersionedDto#getVersionTag()}; a PUT only writes its own row, so If-Match
+ * is checked against the part before the dot. Updates flush before mapping their
+ * response, so the tag a PUT returns is the version it committed. Listings carry the
+ * weak tag of the tables they read, see {@link com.unibuc.book_app.versioning.CollectionVersions}.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    static String of(Object versionTag) {
+        return "\"" + versionTag + "\"";
+    }
+
+    // The body is only loaded and mapped when the client's copy is stale
+    static <T extends VersionedDto> ResponseEntity<T> conditional(
+            String ifNoneMatch,
+            Supplier<?> versionTag,
+            Supplier<T> body
+    ) {
+        if (ifNoneMatch != null) {
+            String current = of(versionTag.get());
+            if (matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        return ok(body.get());
+    }
+
+    // The tag is computed by the caller before the listing is built; a null response was written directly
+    static <T> ResponseEntity<T> conditional(
+            String ifNoneMatch,
+            String etag,
+            Supplier<ResponseEntity<T>> response
+    ) {
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ResponseEntity<T> full = response.get();
+        if (full == null) {
+            return null;
+        }
+        return ResponseEntity.status(full.getStatusCode())
+                .headers(full.getHeaders())
+                .eTag(etag)
+                .body(full.getBody());
+    }
+
+    static <T extends VersionedDto> ResponseEntity<T> ok(T body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (body.getVersion() != null) {
+            response.eTag(of(body.getVersionTag()));
+        }
+        return response.body(body);
+    }
+
+    // Null when the update is unconditional; a weak or malformed tag can never match
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String versionTag = tag.substring(1, tag.length() - 1);
+            int dot = versionTag.indexOf('.');
+            try {
+                return Long.valueOf(dot < 0 ? versionTag : versionTag.substring(0, dot));
+            } catch (NumberFormatException ignored) {
+                // falls through to the precondition failure
+            }
+        }
+        throw new PreconditionFailedException(String.format("If-Match %s does not match the current version", tag));
+    }
+
+    // If-None-Match uses the weak comparison, so W/ prefixes are ignored
+    private static boolean matches(String ifNoneMatch, String etag) {
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaque(candidate.trim());
+            if (tag.equals("*") || tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -2,6 +2,8 @@ package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.*;
 import com.unibuc.book_app.service.EditorService;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,12 +24,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class EditorController {
     private final EditorService editorService;
+    private final CollectionVersions collectionVersions;
 
     @GetMapping("")
     @ResponseBody
     @Operation(
             summary = "Get all editors",
-            description = "Retrieve a list of all editors in the system"
+            description = "Retrieve a list of all editors in the system, or a single page of editors ordered by ID " +
+                    "when after or limit is given; the cursor of the next page is returned in the X-Next-Cursor header. " +
+                    "Giving fields, a comma-separated list of editor properties, selects and returns only those " +
+                    "properties of each editor; the id is always included"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -35,10 +42,37 @@ public class EditorController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = EditorResponseDto.class)
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid pagination or fields parameters",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"limit must be between 1 and 1000\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing in the listing changed since the ETag given in If-None-Match"
+            )
     })
-    public ResponseEntity<List<EditorResponseDto>> findAllEditors() {
-        return ResponseEntity.ok(editorService.findAllEditors());
+    public ResponseEntity<? extends List<?>> findAllEditors(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = collectionVersions.etag(Table.EDITOR);
+        if (fields != null) {
+            return ETags.conditional(ifNoneMatch, etag, () -> after == null && limit == null
+                    ? ResponseEntity.ok(editorService.findAllEditors(fields))
+                    : CursorPageResponses.of(editorService.findEditorsPage(fields, after, limit)));
+        }
+        return ETags.conditional(ifNoneMatch, etag, () -> {
+            if (after == null && limit == null) {
+                return ResponseEntity.ok(editorService.findAllEditors());
+            }
+            return CursorPageResponses.of(editorService.findEditorsPage(after, limit));
+        });
     }
 
     @GetMapping("/books/{editorId}")
@@ -103,12 +137,21 @@ public class EditorController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Editor with id 1 not found\" }")
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Editor unchanged since the ETag given in If-None-Match"
+            )
     })
     public ResponseEntity<EditorResponseDto> findEditorById(
-            @PathVariable("editorId") Integer editorId
+            @PathVariable("editorId") Integer editorId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(editorService.findEditorById(editorId));
+        return ETags.conditional(
+                ifNoneMatch,
+                () -> editorService.findEditorVersion(editorId),
+                () -> editorService.findEditorById(editorId)
+        );
     }
 
     @PostMapping("")
@@ -166,13 +209,21 @@ public class EditorController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Editor with id 1 not found\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Editor changed since the ETag given in If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Editor with id 1 is at version 3, not 2\" }")
                     ))
     })
     public ResponseEntity<EditorResponseDto> updateEditor(
             @PathVariable("editorId") Integer editorId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody EditorUpdateDto editorUpdateDto
     ) {
-        return ResponseEntity.ok(editorService.updateEditor(editorId, editorUpdateDto));
+        return ETags.ok(editorService.updateEditor(editorId, editorUpdateDto, ETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{editorId}")
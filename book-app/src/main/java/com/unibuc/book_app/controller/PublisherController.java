@@ -5,6 +5,8 @@ import com.unibuc.book_app.dto.PublisherCreateDto;
 import com.unibuc.book_app.dto.PublisherResponseDto;
 import com.unibuc.book_app.dto.PublisherUpdateDto;
 import com.unibuc.book_app.service.PublisherService;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -13,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,12 +27,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PublisherController {
     private final PublisherService publisherService;
+    private final CollectionVersions collectionVersions;
 
     @GetMapping("")
     @ResponseBody
     @Operation(
             summary = "Get all publishers",
-            description = "Retrieve a list of all publishers in the system"
+            description = "Retrieve a list of all publishers in the system, or a single page of publishers ordered by ID " +
+                    "when after or limit is given; the cursor of the next page is returned in the X-Next-Cursor header. " +
+                    "Giving fields, a comma-separated list of publisher properties, selects and returns only those " +
+                    "properties of each publisher; the id is always included"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -38,10 +45,37 @@ public class PublisherController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = PublisherResponseDto.class)
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid pagination or fields parameters",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"limit must be between 1 and 1000\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing in the listing changed since the ETag given in If-None-Match"
+            )
     })
-    public ResponseEntity<List<PublisherResponseDto>> getAllPublishers() {
-        return ResponseEntity.ok(publisherService.findAllPublishers());
+    public ResponseEntity<? extends List<?>> getAllPublishers(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = collectionVersions.etag(Table.PUBLISHER);
+        if (fields != null) {
+            return ETags.conditional(ifNoneMatch, etag, () -> after == null && limit == null
+                    ? ResponseEntity.ok(publisherService.findAllPublishers(fields))
+                    : CursorPageResponses.of(publisherService.findPublishersPage(fields, after, limit)));
+        }
+        return ETags.conditional(ifNoneMatch, etag, () -> {
+            if (after == null && limit == null) {
+                return ResponseEntity.ok(publisherService.findAllPublishers());
+            }
+            return CursorPageResponses.of(publisherService.findPublishersPage(after, limit));
+        });
     }
 
     @GetMapping("/books/{publisherId}")
@@ -85,12 +119,21 @@ public class PublisherController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Publisher with id 1 not found\" }")
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Publisher unchanged since the ETag given in If-None-Match"
+            )
     })
     public ResponseEntity<PublisherResponseDto> getPublisherById(
-            @PathVariable("publisherId") Integer publisherId
+            @PathVariable("publisherId") Integer publisherId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(publisherService.findPublisherById(publisherId));
+        return ETags.conditional(
+                ifNoneMatch,
+                () -> publisherService.findPublisherVersion(publisherId),
+                () -> publisherService.findPublisherById(publisherId)
+        );
     }
 
     @PostMapping("")
@@ -148,13 +191,21 @@ public class PublisherController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Publisher with id 1 not found\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Publisher changed since the ETag given in If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Publisher with id 1 is at version 3, not 2\" }")
                     ))
     })
     public ResponseEntity<PublisherResponseDto> updatePublisher(
             @PathVariable("publisherId") Integer publisherId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid PublisherUpdateDto publisherUpdateDto
     ) {
-        return ResponseEntity.ok(publisherService.updatePublisher(publisherId, publisherUpdateDto));
+        return ETags.ok(publisherService.updatePublisher(publisherId, publisherUpdateDto, ETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{publisherId}")
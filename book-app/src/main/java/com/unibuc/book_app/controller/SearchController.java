@@ -0,0 +1,52 @@
+package com.unibuc.book_app.controller;
+
+import com.unibuc.book_app.dto.SearchResultDto;
+import com.unibuc.book_app.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("search")
+@RequiredArgsConstructor
+public class SearchController {
+    private final SearchService searchService;
+
+    @GetMapping("")
+    @ResponseBody
+    @Operation(
+            summary = "Search books",
+            description = "Full-text search over book names and isbns and the names of their authors, editors, " +
+                    "publishers and categories, ranked by relevance"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved matching books",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SearchResultDto.class)
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing query or invalid limit",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"q cannot be blank\" }")
+                    ))
+    })
+    public ResponseEntity<List<SearchResultDto>> search(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(searchService.search(query, limit));
+    }
+}
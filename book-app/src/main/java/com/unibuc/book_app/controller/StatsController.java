@@ -0,0 +1,81 @@
+package com.unibuc.book_app.controller;
+
+import com.unibuc.book_app.dto.LanguageStatsDto;
+import com.unibuc.book_app.dto.PublisherStatsDto;
+import com.unibuc.book_app.dto.YearStatsDto;
+import com.unibuc.book_app.service.BookStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("stats")
+@RequiredArgsConstructor
+public class StatsController {
+    private final BookStatsService bookStatsService;
+
+    @GetMapping("/languages")
+    @ResponseBody
+    @Operation(
+            summary = "Get book prices per language",
+            description = "Retrieve the number of books and their average, minimum and maximum price for every language"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved language statistics",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = LanguageStatsDto.class)
+                    ))
+    })
+    public ResponseEntity<List<LanguageStatsDto>> findLanguageStats() {
+        return ResponseEntity.ok(bookStatsService.findLanguageStats());
+    }
+
+    @GetMapping("/publishers")
+    @ResponseBody
+    @Operation(
+            summary = "Get page counts per publisher",
+            description = "Retrieve the number of books and their average, minimum and maximum page count for every " +
+                    "publisher, along with how many of the books fall into each page range"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved publisher statistics",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PublisherStatsDto.class)
+                    ))
+    })
+    public ResponseEntity<List<PublisherStatsDto>> findPublisherStats() {
+        return ResponseEntity.ok(bookStatsService.findPublisherStats());
+    }
+
+    @GetMapping("/years")
+    @ResponseBody
+    @Operation(
+            summary = "Get books per publish year",
+            description = "Retrieve the number of books published in every year that has at least one"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved year statistics",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = YearStatsDto.class)
+                    ))
+    })
+    public ResponseEntity<List<YearStatsDto>> findYearStats() {
+        return ResponseEntity.ok(bookStatsService.findYearStats());
+    }
+}
@@ -5,6 +5,8 @@ import com.unibuc.book_app.dto.TranslatorCreateDto;
 import com.unibuc.book_app.dto.TranslatorResponseDto;
 import com.unibuc.book_app.dto.TranslatorUpdateDto;
 import com.unibuc.book_app.service.TranslatorService;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -13,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,12 +27,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TranslatorController {
     private final TranslatorService translatorService;
+    private final CollectionVersions collectionVersions;
 
     @GetMapping("")
     @ResponseBody
     @Operation(
             summary = "Get all translators",
-            description = "Retrieve a list of all translators in the system"
+            description = "Retrieve a list of all translators in the system, or a single page of translators ordered by ID " +
+                    "when after or limit is given; the cursor of the next page is returned in the X-Next-Cursor header. " +
+                    "Giving fields, a comma-separated list of translator properties, selects and returns only those " +
+                    "properties of each translator; the id is always included"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -38,10 +45,37 @@ public class TranslatorController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = TranslatorResponseDto.class)
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid pagination or fields parameters",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"limit must be between 1 and 1000\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing in the listing changed since the ETag given in If-None-Match"
+            )
     })
-    public ResponseEntity<List<TranslatorResponseDto>> getAllTranslators() {
-        return ResponseEntity.ok(translatorService.findAllTranslators());
+    public ResponseEntity<? extends List<?>> getAllTranslators(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = collectionVersions.etag(Table.TRANSLATOR);
+        if (fields != null) {
+            return ETags.conditional(ifNoneMatch, etag, () -> after == null && limit == null
+                    ? ResponseEntity.ok(translatorService.findAllTranslators(fields))
+                    : CursorPageResponses.of(translatorService.findTranslatorsPage(fields, after, limit)));
+        }
+        return ETags.conditional(ifNoneMatch, etag, () -> {
+            if (after == null && limit == null) {
+                return ResponseEntity.ok(translatorService.findAllTranslators());
+            }
+            return CursorPageResponses.of(translatorService.findTranslatorsPage(after, limit));
+        });
     }
 
     @GetMapping("/books/{translatorId}")
@@ -85,12 +119,21 @@ public class TranslatorController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Translator with id 1 not found\" }")
-                    ))
+                    )),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Translator unchanged since the ETag given in If-None-Match"
+            )
     })
     public ResponseEntity<TranslatorResponseDto> getTranslatorById(
-            @PathVariable("translatorId") Integer translatorId
+            @PathVariable("translatorId") Integer translatorId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ResponseEntity.ok(translatorService.findTranslatorById(translatorId));
+        return ETags.conditional(
+                ifNoneMatch,
+                () -> translatorService.findTranslatorVersion(translatorId),
+                () -> translatorService.findTranslatorById(translatorId)
+        );
     }
 
     @PostMapping("")
@@ -148,13 +191,21 @@ public class TranslatorController {
                     content = @Content(
                             mediaType = "application/json",
                             examples = @ExampleObject(value = "{ \"error\": \"Translator with id 1 not found\" }")
+                    )),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Translator changed since the ETag given in If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(value = "{ \"error\": \"Translator with id 1 is at version 3, not 2\" }")
                     ))
     })
     public ResponseEntity<TranslatorResponseDto> updateTranslator(
             @PathVariable("translatorId") Integer translatorId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid TranslatorUpdateDto translatorUpdateDto
     ) {
-        return ResponseEntity.ok(translatorService.updateTranslator(translatorId, translatorUpdateDto));
+        return ETags.ok(translatorService.updateTranslator(translatorId, translatorUpdateDto, ETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{translatorId}")
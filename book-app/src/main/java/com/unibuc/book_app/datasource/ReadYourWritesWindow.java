@@ -0,0 +1,34 @@
+package com.unibuc.book_app.datasource;
+
+import com.unibuc.book_app.versioning.TableModifiedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+
+/**
+ * Keeps read-only transactions on the primary for a while after any write, so a client
+ * that has just created or updated a row reads it back even while the replicas lag.
+ * <p>
+ * Writes are seen through the {@link TableModifiedEvent} every modifying service call
+ * publishes. The window is shared by all clients: a steady stream of writes keeps every
+ * read on the primary, which costs throughput but never consistency. It has to be longer
+ * than the replication lag the replicas are allowed to build up, and it starts open so
+ * writes made just before a restart are covered too.
+ */
+public class ReadYourWritesWindow {
+    private final long windowNanos;
+    private volatile long lastWrite = System.nanoTime();
+
+    public ReadYourWritesWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    @EventListener
+    public void onTableModified(TableModifiedEvent event) {
+        lastWrite = System.nanoTime();
+    }
+
+    public boolean isOpen() {
+        return System.nanoTime() - lastWrite < windowNanos;
+    }
+}
@@ -0,0 +1,19 @@
+package com.unibuc.book_app.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@SuperBuilder
+@NoArgsConstructor
+public class BookDetailDto extends BookResponseDto {
+    private List<AuthorSummaryDto> authors;
+    private List<EditorSummaryDto> editors;
+    private List<CategorySummaryDto> categories;
+    private List<PublisherSummaryDto> publishers;
+}
@@ -0,0 +1,22 @@
+package com.unibuc.book_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDate;
+
+@Data
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookFilterDto {
+    private String language;
+    private Integer minPrice;
+    private Integer maxPrice;
+    private LocalDate publishedFrom;
+    private LocalDate publishedTo;
+    private Integer translatorId;
+    private String sort;
+}
@@ -0,0 +1,17 @@
+package com.unibuc.book_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResultDto<T> {
+    private Integer index;
+    private Integer status;
+    private T data;
+    private String error;
+}
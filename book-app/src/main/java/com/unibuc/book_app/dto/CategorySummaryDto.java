@@ -2,14 +2,16 @@ package com.unibuc.book_app.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Data
+@EqualsAndHashCode(callSuper = true)
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
-public class CategorySummaryDto {
+public class CategorySummaryDto extends VersionedDto {
     private Integer id;
     private String name;
 }
\ No newline at end of file
@@ -2,16 +2,18 @@ package com.unibuc.book_app.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.time.LocalDate;
 
 @Data
+@EqualsAndHashCode(callSuper = true)
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
-public class EditorResponseDto {
+public class EditorResponseDto extends VersionedDto {
     private Integer id;
     private String firstName;
     private String lastName;
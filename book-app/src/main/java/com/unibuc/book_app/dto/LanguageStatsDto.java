@@ -0,0 +1,18 @@
+package com.unibuc.book_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LanguageStatsDto {
+    private String language;
+    private Integer books;
+    private Double averagePrice;
+    private Integer minPrice;
+    private Integer maxPrice;
+}
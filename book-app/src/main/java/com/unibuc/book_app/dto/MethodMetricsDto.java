@@ -0,0 +1,26 @@
+package com.unibuc.book_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MethodMetricsDto {
+    private String layer;
+    private String method;
+    private Long calls;
+    private Long errors;
+    private Double totalMillis;
+    private Double meanMicros;
+    private Double p50Micros;
+    private Double p90Micros;
+    private Double p99Micros;
+    private Double maxMicros;
+    private Long sqlStatements;
+    private Double sqlStatementsMean;
+    private Long sqlStatementsMax;
+}
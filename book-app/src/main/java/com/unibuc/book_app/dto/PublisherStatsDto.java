@@ -0,0 +1,22 @@
+package com.unibuc.book_app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@SuperBuilder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PublisherStatsDto {
+    private Integer publisherId;
+    private String publisherName;
+    private Integer books;
+    private Double averagePages;
+    private Integer minPages;
+    private Integer maxPages;
+    private List<PageRangeDto> pageRanges;
+}
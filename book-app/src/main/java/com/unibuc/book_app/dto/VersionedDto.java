@@ -0,0 +1,31 @@
+package com.unibuc.book_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Response carrying the row version it was built from. The version travels in the ETag
+ * header, not in the body. A response that also shows fields of another row, like the
+ * translator of a book, carries that row's version as well, so the tag changes with either.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+public abstract class VersionedDto {
+    @JsonIgnore
+    private Long version;
+
+    @JsonIgnore
+    private Long embeddedVersion;
+
+    public static String versionTag(Long version, Long embeddedVersion) {
+        return embeddedVersion == null ? String.valueOf(version) : version + "." + embeddedVersion;
+    }
+
+    @JsonIgnore
+    public String getVersionTag() {
+        return versionTag(version, embeddedVersion);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.unibuc.book_app.exception;
+
+public class GatewayTimeoutException extends RuntimeException {
+    public GatewayTimeoutException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
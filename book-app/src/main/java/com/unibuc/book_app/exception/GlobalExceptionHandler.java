@@ -1,6 +1,7 @@
 package com.unibuc.book_app.exception;
 
 import com.unibuc.book_app.dto.ErrorResponseDto;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -16,6 +17,36 @@ public class GlobalExceptionHandler {
         return new ErrorResponseDto(ex.getMessage());
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponseDto handleBadRequestException(BadRequestException ex) {
+        return new ErrorResponseDto(ex.getMessage());
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponseDto handleConflictException(ConflictException ex) {
+        return new ErrorResponseDto(ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponseDto handlePreconditionFailedException(PreconditionFailedException ex) {
+        return new ErrorResponseDto(ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponseDto handleConcurrentUpdate() {
+        return new ErrorResponseDto("The resource was modified by another request, fetch it again and retry");
+    }
+
+    @ExceptionHandler(GatewayTimeoutException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ErrorResponseDto handleGatewayTimeoutException(GatewayTimeoutException ex) {
+        return new ErrorResponseDto(ex.getMessage());
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponseDto handleMalformedJson() {
@@ -0,0 +1,7 @@
+package com.unibuc.book_app.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -38,6 +38,7 @@ public class AuthorMapper {
     public AuthorResponseDto toResponseDto(Author author) {
         return AuthorResponseDto.builder()
                 .id(author.getId())
+                .version(author.getVersion())
                 .firstName(author.getFirstName())
                 .lastName(author.getLastName())
                 .debutDate(author.getDebutDate())
@@ -39,7 +39,9 @@ public class BookMapper {
 
     public BookResponseDto toResponseDto(Book book) {
         TranslatorSummaryDto translatorDto = null;
+        Long translatorVersion = null;
         if (book.getTranslator() != null) {
+            translatorVersion = book.getTranslator().getVersion();
             translatorDto = new TranslatorSummaryDto(
                     book.getTranslator().getId(),
                     book.getTranslator().getFirstName(),
@@ -49,6 +51,8 @@ public class BookMapper {
 
         return BookResponseDto.builder()
                 .id(book.getId())
+                .version(book.getVersion())
+                .embeddedVersion(translatorVersion)
                 .name(book.getName())
                 .isbn(book.getIsbn())
                 .noPages(book.getNoPages())
@@ -24,6 +24,7 @@ public class CategoryMapper {
     public CategorySummaryDto toResponseDto(Category category) {
         return CategorySummaryDto.builder()
                 .id(category.getId())
+                .version(category.getVersion())
                 .name(category.getName())
                 .build();
     }
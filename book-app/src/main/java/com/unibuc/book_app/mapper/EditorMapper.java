@@ -38,6 +38,7 @@ public class EditorMapper {
     public EditorResponseDto toResponseDto(Editor editor) {
         return EditorResponseDto.builder()
                 .id(editor.getId())
+                .version(editor.getVersion())
                 .firstName(editor.getFirstName())
                 .lastName(editor.getLastName())
                 .debutDate(editor.getDebutDate())
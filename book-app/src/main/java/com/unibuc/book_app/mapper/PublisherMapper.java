@@ -35,6 +35,7 @@ public class PublisherMapper {
     public PublisherResponseDto toResponseDto(Publisher publisher) {
         return PublisherResponseDto.builder()
                 .id(publisher.getId())
+                .version(publisher.getVersion())
                 .name(publisher.getName())
                 .foundedDate(publisher.getFoundedDate())
                 .build();
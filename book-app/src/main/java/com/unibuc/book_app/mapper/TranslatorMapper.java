@@ -29,6 +29,7 @@ public class TranslatorMapper {
     public TranslatorResponseDto toResponseDto(Translator translator) {
         return TranslatorResponseDto.builder()
                 .id(translator.getId())
+                .version(translator.getVersion())
                 .firstName(translator.getFirstName())
                 .lastName(translator.getLastName())
                 .build();
@@ -0,0 +1,100 @@
+package com.unibuc.book_app.metrics;
+
+import com.unibuc.book_app.dto.MethodMetricsDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, error and SQL statement figures for one service or repository method.
+ * <p>
+ * Callers record into HDR {@link Recorder}s, which never block; a snapshot swaps out the
+ * interval histograms and folds them into the running totals. The same figures are
+ * published to Micrometer so they reach whatever registry the actuator exports to.
+ */
+final class MethodMetrics {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String layer;
+    private final String type;
+    private final String method;
+    private final MeterRegistry meterRegistry;
+    private final Timer successTimer;
+    private final DistributionSummary sqlSummary;
+
+    private final Recorder latencyRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder sqlRecorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram latency = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram sql = new Histogram(SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder totalStatements = new LongAdder();
+    private Histogram latencyInterval;
+    private Histogram sqlInterval;
+
+    MethodMetrics(String layer, String type, String method, MeterRegistry meterRegistry) {
+        this.layer = layer;
+        this.type = type;
+        this.method = method;
+        this.meterRegistry = meterRegistry;
+        this.successTimer = timer("none");
+        this.sqlSummary = DistributionSummary.builder("app.method.sql.statements")
+                .description("SQL statements prepared during one call, including nested calls")
+                .tags("layer", layer, "class", type, "method", method)
+                .register(meterRegistry);
+    }
+
+    void record(long nanos, long statements, Throwable failure) {
+        latencyRecorder.recordValue(nanos);
+        sqlRecorder.recordValue(statements);
+        totalNanos.add(nanos);
+        totalStatements.add(statements);
+        sqlSummary.record(statements);
+        if (failure == null) {
+            successTimer.record(nanos, TimeUnit.NANOSECONDS);
+        } else {
+            errors.increment();
+            timer(failure.getClass().getSimpleName()).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    synchronized MethodMetricsDto snapshot() {
+        latencyInterval = latencyRecorder.getIntervalHistogram(latencyInterval);
+        sqlInterval = sqlRecorder.getIntervalHistogram(sqlInterval);
+        latency.add(latencyInterval);
+        sql.add(sqlInterval);
+
+        long calls = latency.getTotalCount();
+        return MethodMetricsDto.builder()
+                .layer(layer)
+                .method(type + "." + method)
+                .calls(calls)
+                .errors(errors.sum())
+                .totalMillis(totalNanos.sum() / 1_000_000.0)
+                .meanMicros(micros(latency.getMean()))
+                .p50Micros(micros(latency.getValueAtPercentile(50)))
+                .p90Micros(micros(latency.getValueAtPercentile(90)))
+                .p99Micros(micros(latency.getValueAtPercentile(99)))
+                .maxMicros(micros(latency.getMaxValue()))
+                .sqlStatements(totalStatements.sum())
+                .sqlStatementsMean(sql.getMean())
+                .sqlStatementsMax(sql.getMaxValue())
+                .build();
+    }
+
+    private Timer timer(String exception) {
+        return Timer.builder("app.method.duration")
+                .description("Time spent in service and repository methods")
+                .tags("layer", layer, "class", type, "method", method, "exception", exception)
+                .register(meterRegistry);
+    }
+
+    private static double micros(double nanos) {
+        return nanos / 1_000;
+    }
+}
@@ -0,0 +1,90 @@
+package com.unibuc.book_app.metrics;
+
+import com.unibuc.book_app.dto.MethodMetricsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public service and repository method and counts the SQL it causes.
+ * <p>
+ * The aspect runs outside the cache and transaction advice, so a service timing covers
+ * cache lookups and the commit. Timings and statement counts include nested calls: the
+ * gap between a service method and the repository methods it calls is mapping work.
+ * Statements are counted per thread, so work a method hands to other threads (the book
+ * detail lookups) shows up under the methods that run there.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MethodMetricsAspect {
+    static final String SERVICE = "service";
+    static final String REPOSITORY = "repository";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementCounter sqlStatementCounter;
+    private final Map<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.unibuc.book_app.service..*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE, joinPoint);
+    }
+
+    // Matched on the Repository type because findById and friends are declared by Spring Data, not by our interfaces
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY, joinPoint);
+    }
+
+    public List<MethodMetricsDto> snapshot() {
+        return metrics.values()
+                .stream()
+                .map(MethodMetrics::snapshot)
+                .sorted(Comparator.comparing(MethodMetricsDto::getTotalMillis).reversed())
+                .toList();
+    }
+
+    private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMetrics methodMetrics = metrics(layer, joinPoint);
+        long statements = sqlStatementCounter.current();
+        long startedAt = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            methodMetrics.record(System.nanoTime() - startedAt, sqlStatementCounter.current() - statements, failure);
+        }
+    }
+
+    private MethodMetrics metrics(String layer, ProceedingJoinPoint joinPoint) {
+        String type = typeNames.computeIfAbsent(joinPoint.getTarget().getClass(), MethodMetricsAspect::typeName);
+        String method = joinPoint.getSignature().getName();
+        return metrics.computeIfAbsent(type + "." + method, key -> new MethodMetrics(layer, type, method, meterRegistry));
+    }
+
+    // Spring Data repositories are JDK proxies, so they are named after the repository interface they implement
+    private static String typeName(Class<?> targetClass) {
+        if (Proxy.isProxyClass(targetClass)) {
+            Class<?>[] interfaces = targetClass.getInterfaces();
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : targetClass.getSimpleName();
+        }
+        return ClassUtils.getUserClass(targetClass).getSimpleName();
+    }
+}
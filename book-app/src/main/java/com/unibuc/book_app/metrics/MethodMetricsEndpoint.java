@@ -0,0 +1,22 @@
+package com.unibuc.book_app.metrics;
+
+import com.unibuc.book_app.dto.MethodMetricsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Served at /actuator/methods, sorted by total time so the most expensive methods come first
+@Component
+@Endpoint(id = "methods")
+@RequiredArgsConstructor
+public class MethodMetricsEndpoint {
+    private final MethodMetricsAspect methodMetricsAspect;
+
+    @ReadOperation
+    public List<MethodMetricsDto> methods() {
+        return methodMetricsAspect.snapshot();
+    }
+}
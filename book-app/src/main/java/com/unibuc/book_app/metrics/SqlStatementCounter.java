@@ -0,0 +1,25 @@
+package com.unibuc.book_app.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * <p>
+ * The count only ever grows, so a caller reads it before and after a piece of work and
+ * takes the difference. A JDBC batch is prepared once and counts as one statement.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+    private final ThreadLocal<long[]> count = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+
+    public long current() {
+        return count.get()[0];
+    }
+}
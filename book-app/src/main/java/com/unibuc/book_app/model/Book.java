@@ -2,6 +2,7 @@ package com.unibuc.book_app.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -12,12 +13,27 @@ import java.util.List;
 @EqualsAndHashCode()
 @Builder
 @Entity
-@Table(name = "book")
+// The indexes back the filtered listing: an equality filter first, then the range or sort column.
+// InnoDB appends the primary key to every secondary index, so each one also orders ties by id.
+@Table(name = "book", indexes = {
+        @Index(name = "idx_book_language_price", columnList = "language, price"),
+        @Index(name = "idx_book_language_publish_date", columnList = "language, publish_date"),
+        @Index(name = "idx_book_translator_publish_date", columnList = "translator_id, publish_date"),
+        @Index(name = "idx_book_price", columnList = "price"),
+        @Index(name = "idx_book_no_pages", columnList = "no_pages"),
+        @Index(name = "idx_book_publish_date", columnList = "publish_date")
+})
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Integer id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false)
     private String name;
 
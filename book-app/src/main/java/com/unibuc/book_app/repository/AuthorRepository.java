@@ -1,9 +1,38 @@
 package com.unibuc.book_app.repository;
 
 import com.unibuc.book_app.model.Author;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Integer> {
+    List<Author> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    @Query("""
+                SELECT a.id
+                FROM Author a
+                WHERE a.id IN :ids
+            """)
+    Set<Integer> findAllIdsIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("""
+                SELECT a.id
+                FROM Author a
+            """)
+    List<Integer> findAllIds();
+
+    @Query("""
+                SELECT a.version
+                FROM Author a
+                WHERE a.id = :id
+            """)
+    Optional<Long> findVersionById(@Param("id") Integer id);
 }
@@ -1,58 +1,67 @@
 package com.unibuc.book_app.repository;
 
-import com.unibuc.book_app.model.Author;
-import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.dto.AuthorSummaryDto;
+import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.EditorSummaryDto;
 import com.unibuc.book_app.model.BookAuthorEditor;
 import com.unibuc.book_app.model.BookAuthorEditor.BookAuthorEditorId;
-import com.unibuc.book_app.model.Editor;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookAuthorEditorRepository extends JpaRepository<BookAuthorEditor, BookAuthorEditorId> {
+    @Override
+    @EntityGraph(attributePaths = {"book", "book.translator", "author", "editor"})
+    List<BookAuthorEditor> findAll();
+
     @Query("""
-                SELECT DISTINCT bae.author
+                SELECT DISTINCT new com.unibuc.book_app.dto.AuthorSummaryDto(a.id, a.firstName, a.lastName)
                 FROM BookAuthorEditor bae
+                JOIN bae.author a
                 WHERE bae.book.id = :bookId
             """)
-    List<Author> findAllAuthorsByBookId(@Param("bookId") Integer bookId);
+    List<AuthorSummaryDto> findAllAuthorsByBookId(@Param("bookId") Integer bookId);
 
     @Query("""
-                SELECT DISTINCT bae.editor
+                SELECT DISTINCT new com.unibuc.book_app.dto.EditorSummaryDto(e.id, e.firstName, e.lastName)
                 FROM BookAuthorEditor bae
+                JOIN bae.editor e
                 WHERE bae.book.id = :bookId
             """)
-    List<Editor> findAllEditorsByBookId(@Param("bookId") Integer bookId);
+    List<EditorSummaryDto> findAllEditorsByBookId(@Param("bookId") Integer bookId);
 
     @Query("""
-                SELECT DISTINCT bae.book
+                SELECT DISTINCT new com.unibuc.book_app.dto.BookSummaryDto(b.id, b.name)
                 FROM BookAuthorEditor bae
+                JOIN bae.book b
                 WHERE bae.author.id = :authorId
             """)
-    List<Book> findAllBooksByAuthorId(@Param("authorId") Integer authorId);
+    List<BookSummaryDto> findAllBooksByAuthorId(@Param("authorId") Integer authorId);
 
     @Query("""
-                SELECT DISTINCT bae.editor
+                SELECT DISTINCT new com.unibuc.book_app.dto.BookSummaryDto(b.id, b.name)
                 FROM BookAuthorEditor bae
-                WHERE bae.author.id = :authorId
+                JOIN bae.book b
+                WHERE bae.editor.id = :editorId
             """)
-    List<Editor> findAllEditorsByAuthorId(@Param("authorId") Integer authorId);
+    List<BookSummaryDto> findAllBooksByEditorId(@Param("editorId") Integer editorId);
 
     @Query("""
-                SELECT DISTINCT bae.book
+                SELECT bae.bookAuthorEditorId
                 FROM BookAuthorEditor bae
-                WHERE bae.editor.id = :editorId
+                WHERE bae.book.id IN :bookIds AND bae.author.id IN :authorIds AND bae.editor.id IN :editorIds
             """)
-    List<Book> findAllBooksByEditorId(@Param("editorId") Integer editorId);
+    List<BookAuthorEditorId> findAllIdsIn(@Param("bookIds") Collection<Integer> bookIds, @Param("authorIds") Collection<Integer> authorIds, @Param("editorIds") Collection<Integer> editorIds);
 
     @Query("""
-                SELECT DISTINCT bae.author
+                SELECT bae.bookAuthorEditorId
                 FROM BookAuthorEditor bae
-                WHERE bae.editor.id = :editorId
             """)
-    List<Author> findAllAuthorsByEditorId(@Param("editorId") Integer editorId);
+    List<BookAuthorEditorId> findAllIds();
 }
@@ -1,29 +1,50 @@
 package com.unibuc.book_app.repository;
 
-import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.CategorySummaryDto;
 import com.unibuc.book_app.model.BookCategory;
 import com.unibuc.book_app.model.BookCategory.BookCategoryId;
-import com.unibuc.book_app.model.Category;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookCategoryRepository extends JpaRepository<BookCategory, BookCategoryId> {
+    @Override
+    @EntityGraph(attributePaths = {"book", "book.translator", "category"})
+    List<BookCategory> findAll();
+
     @Query("""
-                SELECT DISTINCT bc.book
+                SELECT DISTINCT new com.unibuc.book_app.dto.BookSummaryDto(b.id, b.name)
                 FROM BookCategory bc
+                JOIN bc.book b
                 WHERE bc.category.id = :categoryId
             """)
-    List<Book> findAllBooksByCategoryId(@Param("categoryId") Integer categoryId);
+    List<BookSummaryDto> findAllBooksByCategoryId(@Param("categoryId") Integer categoryId);
 
     @Query("""
-                SELECT DISTINCT bc.category
+                SELECT DISTINCT new com.unibuc.book_app.dto.CategorySummaryDto(c.id, c.name)
                 FROM BookCategory bc
+                JOIN bc.category c
                 WHERE bc.book.id = :bookId
             """)
-    List<Category> findAllCategoriesByBookId(@Param("bookId") Integer bookId);
+    List<CategorySummaryDto> findAllCategoriesByBookId(@Param("bookId") Integer bookId);
+
+    @Query("""
+                SELECT bc.bookCategoryId
+                FROM BookCategory bc
+                WHERE bc.book.id IN :bookIds AND bc.category.id IN :categoryIds
+            """)
+    List<BookCategoryId> findAllIdsIn(@Param("bookIds") Collection<Integer> bookIds, @Param("categoryIds") Collection<Integer> categoryIds);
+
+    @Query("""
+                SELECT bc.bookCategoryId
+                FROM BookCategory bc
+            """)
+    List<BookCategoryId> findAllIds();
 }
@@ -1,29 +1,50 @@
 package com.unibuc.book_app.repository;
 
-import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.PublisherSummaryDto;
 import com.unibuc.book_app.model.BookPublisher;
 import com.unibuc.book_app.model.BookPublisher.BookPublisherId;
-import com.unibuc.book_app.model.Publisher;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookPublisherRepository extends JpaRepository<BookPublisher, BookPublisherId> {
+    @Override
+    @EntityGraph(attributePaths = {"book", "book.translator", "publisher"})
+    List<BookPublisher> findAll();
+
     @Query("""
-                SELECT DISTINCT bp.book
+                SELECT DISTINCT new com.unibuc.book_app.dto.BookSummaryDto(b.id, b.name)
                 FROM BookPublisher bp
+                JOIN bp.book b
                 WHERE bp.publisher.id = :publisherId
             """)
-    List<Book> findAllBooksByPublisherId(@Param("publisherId") Integer publisherId);
+    List<BookSummaryDto> findAllBooksByPublisherId(@Param("publisherId") Integer publisherId);
 
     @Query("""
-                SELECT DISTINCT bp.publisher
+                SELECT DISTINCT new com.unibuc.book_app.dto.PublisherSummaryDto(p.id, p.name)
                 FROM BookPublisher bp
+                JOIN bp.publisher p
                 WHERE bp.book.id = :bookId
             """)
-    List<Publisher> findAllPublishersByBookId(@Param("bookId") Integer bookId);
+    List<PublisherSummaryDto> findAllPublishersByBookId(@Param("bookId") Integer bookId);
+
+    @Query("""
+                SELECT bp.bookPublisherId
+                FROM BookPublisher bp
+                WHERE bp.book.id IN :bookIds AND bp.publisher.id IN :publisherIds
+            """)
+    List<BookPublisherId> findAllIdsIn(@Param("bookIds") Collection<Integer> bookIds, @Param("publisherIds") Collection<Integer> publisherIds);
+
+    @Query("""
+                SELECT bp.bookPublisherId
+                FROM BookPublisher bp
+            """)
+    List<BookPublisherId> findAllIds();
 }
@@ -1,9 +1,106 @@
 package com.unibuc.book_app.repository;
 
+import com.unibuc.book_app.dto.BookSummaryDto;
 import com.unibuc.book_app.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Repository
-public interface BookRepository extends JpaRepository<Book, Integer> {
+public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book> {
+    @Override
+    @EntityGraph(attributePaths = "translator")
+    List<Book> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "translator")
+    Optional<Book> findById(Integer id);
+
+    @EntityGraph(attributePaths = "translator")
+    List<Book> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    @Query("""
+                SELECT new com.unibuc.book_app.dto.BookSummaryDto(b.id, b.name)
+                FROM Book b
+                WHERE b.translator.id = :translatorId
+            """)
+    List<BookSummaryDto> findAllBooksByTranslatorId(@Param("translatorId") Integer translatorId);
+
+    @Query("""
+                SELECT new com.unibuc.book_app.dto.BookSummaryDto(b.id, b.name)
+                FROM Book b
+                WHERE b.id IN :ids
+                ORDER BY b.id
+            """)
+    List<BookSummaryDto> findAllBookSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("""
+                SELECT b.isbn
+                FROM Book b
+                WHERE b.isbn IN :isbns
+            """)
+    List<String> findAllIsbnsIn(@Param("isbns") Collection<String> isbns);
+
+    @Query("""
+                SELECT b.id
+                FROM Book b
+                WHERE b.id IN :ids
+            """)
+    Set<Integer> findAllIdsIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("""
+                SELECT b.id
+                FROM Book b
+            """)
+    List<Integer> findAllIds();
+
+    @Query("""
+                SELECT b.isbn
+                FROM Book b
+            """)
+    List<String> findAllIsbns();
+
+    boolean existsByIsbn(String isbn);
+
+    // Rows are fetched 500 at a time instead of buffering the whole result set. MySQL Connector/J only does so
+    // with useCursorFetch=true in the URL, and every other driver takes a positive fetch size as it is
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("""
+                SELECT b
+                FROM Book b
+                LEFT JOIN FETCH b.translator
+                ORDER BY b.id
+            """)
+    Stream<Book> streamAllBooks();
+
+    @Query("""
+                SELECT b.version AS version, t.version AS translatorVersion
+                FROM Book b
+                LEFT JOIN b.translator t
+                WHERE b.id = :id
+            """)
+    Optional<Versions> findVersionsById(@Param("id") Integer id);
+
+    interface Versions {
+        Long getVersion();
+
+        Long getTranslatorVersion();
+    }
 }
@@ -0,0 +1,65 @@
+package com.unibuc.book_app.repository;
+
+import com.unibuc.book_app.model.Book;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Criteria predicates of the filtered book listing.
+ * <p>
+ * Only the filters a request gives are turned into predicates, so every combination renders
+ * to a plain parameterized statement with no {@code :param IS NULL OR ...} branches, and the
+ * optimizer can pick the composite index on {@code book} that matches it.
+ */
+public final class BookSpecifications {
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> languageIs(String language) {
+        return (root, query, builder) -> builder.equal(root.get("language"), language);
+    }
+
+    public static Specification<Book> priceAtLeast(Integer minPrice) {
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Book> priceAtMost(Integer maxPrice) {
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Book> publishedFrom(LocalDate publishedFrom) {
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("publishDate"), publishedFrom);
+    }
+
+    public static Specification<Book> publishedTo(LocalDate publishedTo) {
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("publishDate"), publishedTo);
+    }
+
+    public static Specification<Book> translatedBy(Integer translatorId) {
+        return (root, query, builder) -> builder.equal(root.get("translator").get("id"), translatorId);
+    }
+
+    // Books that come after the position (value, bookId) when ordered by attribute and then id, both in the
+    // same direction. The row comparison (attribute, id) > (value, bookId) is spelled out as a greater value,
+    // or an equal value and a greater id, which the database reads as a range of the index on the attribute.
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static Specification<Book> after(String attribute, boolean descending, Comparable value, Integer bookId) {
+        return (root, query, builder) -> {
+            Path<Integer> id = root.get("id");
+            Predicate idAfter = descending ? builder.lessThan(id, bookId) : builder.greaterThan(id, bookId);
+            if (attribute.equals("id")) {
+                return idAfter;
+            }
+
+            Expression<Comparable> sortValue = root.get(attribute);
+            return builder.or(
+                    descending ? builder.lessThan(sortValue, value) : builder.greaterThan(sortValue, value),
+                    builder.and(builder.equal(sortValue, value), idAfter)
+            );
+        };
+    }
+}
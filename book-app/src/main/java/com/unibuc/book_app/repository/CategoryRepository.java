@@ -1,9 +1,38 @@
 package com.unibuc.book_app.repository;
 
 import com.unibuc.book_app.model.Category;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
+    List<Category> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    @Query("""
+                SELECT c.id
+                FROM Category c
+                WHERE c.id IN :ids
+            """)
+    Set<Integer> findAllIdsIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("""
+                SELECT c.id
+                FROM Category c
+            """)
+    List<Integer> findAllIds();
+
+    @Query("""
+                SELECT c.version
+                FROM Category c
+                WHERE c.id = :id
+            """)
+    Optional<Long> findVersionById(@Param("id") Integer id);
 }
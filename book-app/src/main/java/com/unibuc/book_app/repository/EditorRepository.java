@@ -1,9 +1,38 @@
 package com.unibuc.book_app.repository;
 
 import com.unibuc.book_app.model.Editor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface EditorRepository extends JpaRepository<Editor, Integer> {
+    List<Editor> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    @Query("""
+                SELECT e.id
+                FROM Editor e
+                WHERE e.id IN :ids
+            """)
+    Set<Integer> findAllIdsIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("""
+                SELECT e.id
+                FROM Editor e
+            """)
+    List<Integer> findAllIds();
+
+    @Query("""
+                SELECT e.version
+                FROM Editor e
+                WHERE e.id = :id
+            """)
+    Optional<Long> findVersionById(@Param("id") Integer id);
 }
@@ -1,9 +1,38 @@
 package com.unibuc.book_app.repository;
 
 import com.unibuc.book_app.model.Publisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface PublisherRepository extends JpaRepository<Publisher, Integer> {
+    List<Publisher> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    @Query("""
+                SELECT p.id
+                FROM Publisher p
+                WHERE p.id IN :ids
+            """)
+    Set<Integer> findAllIdsIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("""
+                SELECT p.id
+                FROM Publisher p
+            """)
+    List<Integer> findAllIds();
+
+    @Query("""
+                SELECT p.version
+                FROM Publisher p
+                WHERE p.id = :id
+            """)
+    Optional<Long> findVersionById(@Param("id") Integer id);
 }
\ No newline at end of file
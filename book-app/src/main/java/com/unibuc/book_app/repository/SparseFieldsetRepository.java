@@ -0,0 +1,90 @@
+package com.unibuc.book_app.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Reads a chosen set of columns of any entity as rows of name-value maps.
+ * <p>
+ * A field is an attribute of the entity, or {@code association.attribute} for an attribute of
+ * an entity it refers to. Each association named by a field is left joined once, so it costs
+ * nothing unless one of its attributes is asked for. Its attributes come back as a nested map,
+ * which is null when the first of them (the id) is, as the row has no such association then.
+ * Rows keep the order of the fields.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SparseFieldsetRepository {
+    private final EntityManager entityManager;
+
+    public <E> List<Map<String, Object>> findAll(
+            Class<E> entityType,
+            List<String> fields,
+            Specification<E> specification,
+            Sort sort,
+            Limit limit
+    ) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<E> root = query.from(entityType);
+
+        Map<String, Join<E, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            int dot = field.indexOf('.');
+            Path<?> path = dot < 0
+                    ? root.get(field)
+                    : joins.computeIfAbsent(field.substring(0, dot), association -> root.join(association, JoinType.LEFT))
+                    .get(field.substring(dot + 1));
+            selections.add(path.alias(field));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList()
+                .stream()
+                .map(tuple -> toRow(fields, tuple))
+                .toList();
+    }
+
+    private static Map<String, Object> toRow(List<String> fields, Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            int dot = field.indexOf('.');
+            if (dot < 0) {
+                row.put(field, tuple.get(field));
+                continue;
+            }
+            String association = field.substring(0, dot);
+            Object value = tuple.get(field);
+            if (!row.containsKey(association)) {
+                row.put(association, value == null ? null : new LinkedHashMap<String, Object>());
+            }
+            if (row.get(association) instanceof Map<?, ?> nested) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> attributes = (Map<String, Object>) nested;
+                attributes.put(field.substring(dot + 1), value);
+            }
+        }
+        return row;
+    }
+}
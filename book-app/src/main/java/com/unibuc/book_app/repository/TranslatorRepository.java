@@ -1,9 +1,29 @@
 package com.unibuc.book_app.repository;
 
 import com.unibuc.book_app.model.Translator;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface TranslatorRepository extends JpaRepository<Translator, Integer> {
+    List<Translator> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    @Query("""
+                SELECT t.id
+                FROM Translator t
+            """)
+    List<Integer> findAllIds();
+
+    @Query("""
+                SELECT t.version
+                FROM Translator t
+                WHERE t.id = :id
+            """)
+    Optional<Long> findVersionById(@Param("id") Integer id);
 }
\ No newline at end of file
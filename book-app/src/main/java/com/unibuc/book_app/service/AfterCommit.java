@@ -0,0 +1,30 @@
+package com.unibuc.book_app.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers changes to the in-memory indexes until the write they mirror has committed.
+ * <p>
+ * Inside a transaction the change is held back until the commit and dropped on a
+ * rollback, so a failed write never shows up in an index. Outside one, like the builds at
+ * startup, it is applied at once. Callers read what they need from the entities before
+ * deferring, as the entities can still change before the commit.
+ */
+final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    static void run(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -1,27 +1,46 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.*;
 import com.unibuc.book_app.exception.NotFoundException;
+import com.unibuc.book_app.exception.PreconditionFailedException;
 import com.unibuc.book_app.mapper.AuthorMapper;
-import com.unibuc.book_app.mapper.BookMapper;
-import com.unibuc.book_app.mapper.EditorMapper;
 import com.unibuc.book_app.model.Author;
 import com.unibuc.book_app.repository.AuthorRepository;
 import com.unibuc.book_app.repository.BookAuthorEditorRepository;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import com.unibuc.book_app.singleflight.SingleFlight;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.AUTHOR)
 public class AuthorService {
     private final AuthorRepository authorRepository;
     private final AuthorMapper authorMapper;
     private final BookAuthorEditorRepository bookAuthorEditorRepository;
-    private final BookMapper bookMapper;
-    private final EditorMapper editorMapper;
+    private final SearchService searchService;
+    private final ExistenceFilterService existenceFilterService;
+    private final CollaborationService collaborationService;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
 
+    @SingleFlight
+    @Transactional(readOnly = true)
     public List<AuthorResponseDto> findAllAuthors() {
         return authorRepository
                 .findAll()
@@ -30,46 +49,154 @@ public class AuthorService {
                 .toList();
     }
 
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public CursorPageDto<AuthorResponseDto> findAuthorsPage(Integer after, Integer limit) {
+        int pageLimit = CursorPagination.limit(limit);
+        return CursorPagination.page(
+                authorRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(after),
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit,
+                Author::getId,
+                authorMapper::toResponseDto
+        );
+    }
+
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllAuthors(String fields) {
+        return sparseFieldsetRepository.findAll(
+                Author.class,
+                Fieldsets.parse(fields, AuthorResponseDto.class),
+                Specification.unrestricted(),
+                Fieldsets.BY_ID,
+                Limit.unlimited()
+        );
+    }
+
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public CursorPageDto<Map<String, Object>> findAuthorsPage(String fields, Integer after, Integer limit) {
+        List<String> columns = Fieldsets.parse(fields, AuthorResponseDto.class);
+        int pageLimit = CursorPagination.limit(limit);
+        return Fieldsets.page(
+                sparseFieldsetRepository.findAll(
+                        Author.class,
+                        columns,
+                        Fieldsets.idAfter(CursorPagination.after(after)),
+                        Fieldsets.BY_ID,
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit
+        );
+    }
+
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.AUTHOR_BOOKS, key = "#authorId")
+    @Transactional(readOnly = true)
     public List<BookSummaryDto> findAllBooksByAuthorId(Integer authorId) {
-        return bookAuthorEditorRepository.findAllBooksByAuthorId(authorId)
-                .stream()
-                .map(bookMapper::toSummaryDto)
-                .toList();
+        return bookAuthorEditorRepository.findAllBooksByAuthorId(authorId);
     }
 
     public List<EditorSummaryDto> findAllEditorsByAuthorId(Integer authorId) {
-        return bookAuthorEditorRepository.findAllEditorsByAuthorId(authorId)
-                .stream()
-                .map(editorMapper::toSummaryDto)
-                .toList();
+        return collaborationService.findAllEditorsByAuthorId(authorId);
     }
 
+    public List<AuthorSummaryDto> findAllCoAuthorsByAuthorId(Integer authorId) {
+        return collaborationService.findAllCoAuthorsByAuthorId(authorId);
+    }
+
+    public List<AuthorSummaryDto> findCollaborationPath(Integer fromAuthorId, Integer toAuthorId) {
+        return collaborationService.findCollaborationPath(fromAuthorId, toAuthorId);
+    }
+
+    @Transactional(readOnly = true)
     public Author findAuthorEntityById(Integer authorId) {
-        return authorRepository.findById(authorId).orElseThrow(
+        return findAuthor(authorId).orElseThrow(
                 () -> new NotFoundException(String.format("Author with id %d not found", authorId))
         );
     }
 
+    @Transactional(readOnly = true)
+    public Set<Integer> findExistingAuthorIds(Collection<Integer> authorIds) {
+        if (authorIds.isEmpty()) {
+            return Set.of();
+        }
+        return authorRepository.findAllIdsIn(authorIds);
+    }
+
+    public Author getAuthorReference(Integer authorId) {
+        return authorRepository.getReferenceById(authorId);
+    }
+
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.AUTHORS, key = "#authorId")
+    @Transactional(readOnly = true)
     public AuthorResponseDto findAuthorById(Integer authorId) {
-        return authorMapper.toResponseDto(authorRepository.findById(authorId).orElseThrow(
+        return authorMapper.toResponseDto(findAuthor(authorId).orElseThrow(
                 () -> new NotFoundException(String.format("Author with id %d not found", authorId))
         ));
     }
 
+    @Transactional(readOnly = true)
+    public Long findAuthorVersion(Integer authorId) {
+        Optional<Long> version = existenceFilterService.isAuthorMissing(authorId)
+                ? Optional.empty()
+                : authorRepository.findVersionById(authorId);
+        return version.orElseThrow(
+                () -> new NotFoundException(String.format("Author with id %d not found", authorId))
+        );
+    }
+
+    @Transactional
     public AuthorResponseDto createAuthor(AuthorCreateDto authorCreateDto) {
         Author author = authorMapper.toEntity(authorCreateDto);
-        return authorMapper.toResponseDto(authorRepository.save(author));
+        Author savedAuthor = authorRepository.save(author);
+        existenceFilterService.addAuthor(savedAuthor.getId());
+        searchService.indexAuthor(savedAuthor);
+        collaborationService.indexAuthor(savedAuthor);
+        return authorMapper.toResponseDto(savedAuthor);
     }
 
-    public AuthorResponseDto updateAuthor(Integer authorId, AuthorUpdateDto authorUpdateDto) {
-        Author author = authorRepository.findById(authorId).orElseThrow(
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS, key = "#authorId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_AUTHORS, allEntries = true)
+    })
+    @Transactional
+    public AuthorResponseDto updateAuthor(Integer authorId, AuthorUpdateDto authorUpdateDto, Long expectedVersion) {
+        Author author = findAuthor(authorId).orElseThrow(
                 () -> new NotFoundException(String.format("Author with id %d not found", authorId))
         );
+        if (expectedVersion != null && !expectedVersion.equals(author.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("Author with id %d is at version %d, not %d", authorId, author.getVersion(), expectedVersion)
+            );
+        }
         authorMapper.updateEntityFromDto(authorUpdateDto, author);
-        return authorMapper.toResponseDto(authorRepository.save(author));
+        Author savedAuthor = authorRepository.saveAndFlush(author);
+        searchService.indexAuthor(savedAuthor);
+        collaborationService.indexAuthor(savedAuthor);
+        return authorMapper.toResponseDto(savedAuthor);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.AUTHORS, CacheConfig.AUTHOR_BOOKS}, key = "#authorId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_AUTHORS, allEntries = true)
+    })
+    @Transactional
     public void deleteAuthor(Integer authorId) {
         authorRepository.deleteById(authorId);
+        existenceFilterService.removeAuthor(authorId);
+        searchService.removeAuthor(authorId);
+        collaborationService.removeAuthor(authorId);
+    }
+
+    private Optional<Author> findAuthor(Integer authorId) {
+        if (existenceFilterService.isAuthorMissing(authorId)) {
+            return Optional.empty();
+        }
+        return authorRepository.findById(authorId);
     }
 }
@@ -1,29 +1,50 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.BookAuthorEditorDto;
 import com.unibuc.book_app.dto.BookAuthorEditorResponseDto;
+import com.unibuc.book_app.dto.BulkItemResultDto;
+import com.unibuc.book_app.exception.BadRequestException;
 import com.unibuc.book_app.exception.NotFoundException;
 import com.unibuc.book_app.mapper.BookAuthorEditorMapper;
 import com.unibuc.book_app.model.Author;
 import com.unibuc.book_app.model.Book;
-import com.unibuc.book_app.model.BookAuthorEditor;
 import com.unibuc.book_app.model.BookAuthorEditor.BookAuthorEditorId;
+import com.unibuc.book_app.model.BookAuthorEditor;
 import com.unibuc.book_app.model.Editor;
 import com.unibuc.book_app.repository.BookAuthorEditorRepository;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.BOOK_AUTHOR_EDITOR)
 public class BookAuthorEditorService {
     private final BookAuthorEditorRepository bookAuthorEditorRepository;
     private final BookAuthorEditorMapper bookAuthorEditorMapper;
     private final BookService bookService;
     private final AuthorService authorService;
     private final EditorService editorService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final SearchService searchService;
+    private final CollaborationService collaborationService;
 
+    @Transactional(readOnly = true)
     public List<BookAuthorEditorResponseDto> findAllBookAuthorEditors() {
         return bookAuthorEditorRepository
                 .findAll()
@@ -32,6 +53,7 @@ public class BookAuthorEditorService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public BookAuthorEditorResponseDto findBookAuthorEditorById(Integer bookId, Integer authorId, Integer editorId) {
         BookAuthorEditorId id = new BookAuthorEditorId(bookId, authorId, editorId);
         BookAuthorEditor bookAuthorEditor = bookAuthorEditorRepository.findById(id)
@@ -41,16 +63,112 @@ public class BookAuthorEditorService {
         return bookAuthorEditorMapper.toResponseDto(bookAuthorEditor);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.BOOK_AUTHORS, CacheConfig.BOOK_EDITORS}, key = "#dto.bookId"),
+            @CacheEvict(cacheNames = CacheConfig.AUTHOR_BOOKS, key = "#dto.authorId"),
+            @CacheEvict(cacheNames = CacheConfig.EDITOR_BOOKS, key = "#dto.editorId")
+    })
+    @Transactional
     public BookAuthorEditorResponseDto createBookAuthorEditor(BookAuthorEditorDto dto) {
         Book book = bookService.findBookEntityById(dto.getBookId());
         Author author = authorService.findAuthorEntityById(dto.getAuthorId());
         Editor editor = editorService.findEditorEntityById(dto.getEditorId());
         BookAuthorEditor bookAuthorEditor = bookAuthorEditorMapper.toEntity(book, author, editor);
 
-        return bookAuthorEditorMapper.toResponseDto(bookAuthorEditorRepository.save(bookAuthorEditor));
+        BookAuthorEditor savedBookAuthorEditor = bookAuthorEditorRepository.save(bookAuthorEditor);
+        searchService.linkBookAuthorEditor(dto.getBookId(), dto.getAuthorId(), dto.getEditorId());
+        collaborationService.linkBookAuthorEditor(dto.getBookId(), dto.getAuthorId(), dto.getEditorId());
+        return bookAuthorEditorMapper.toResponseDto(savedBookAuthorEditor);
+    }
+
+    @Transactional
+    @Caching(evict = @CacheEvict(cacheNames = {
+            CacheConfig.BOOK_AUTHORS, CacheConfig.BOOK_EDITORS,
+            CacheConfig.AUTHOR_BOOKS, CacheConfig.EDITOR_BOOKS
+    }, allEntries = true))
+    public List<BulkItemResultDto<BookAuthorEditorDto>> createBookAuthorEditors(List<BookAuthorEditorDto> dtos) {
+        if (dtos.size() > BookService.MAX_BULK_SIZE) {
+            throw new BadRequestException(String.format("A bulk request cannot contain more than %d links", BookService.MAX_BULK_SIZE));
+        }
+
+        List<String> violations = dtos.stream()
+                .map(dto -> BulkResults.firstViolation(validator, dto))
+                .toList();
+        List<BookAuthorEditorDto> valid = new ArrayList<>(dtos.size());
+        for (int index = 0; index < dtos.size(); index++) {
+            if (violations.get(index) == null) {
+                valid.add(dtos.get(index));
+            }
+        }
+        Set<Integer> bookIds = valid.stream().map(BookAuthorEditorDto::getBookId).collect(Collectors.toSet());
+        Set<Integer> authorIds = valid.stream().map(BookAuthorEditorDto::getAuthorId).collect(Collectors.toSet());
+        Set<Integer> editorIds = valid.stream().map(BookAuthorEditorDto::getEditorId).collect(Collectors.toSet());
+        Set<Integer> existingBookIds = bookService.findExistingBookIds(bookIds);
+        Set<Integer> existingAuthorIds = authorService.findExistingAuthorIds(authorIds);
+        Set<Integer> existingEditorIds = editorService.findExistingEditorIds(editorIds);
+        Set<BookAuthorEditorId> linked = valid.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(bookAuthorEditorRepository.findAllIdsIn(bookIds, authorIds, editorIds));
+
+        List<BulkItemResultDto<BookAuthorEditorDto>> results = new ArrayList<>(dtos.size());
+        int pending = 0;
+        for (int index = 0; index < dtos.size(); index++) {
+            BookAuthorEditorDto dto = dtos.get(index);
+
+            String violation = violations.get(index);
+            if (violation != null) {
+                results.add(BulkResults.failed(index, HttpStatus.BAD_REQUEST, violation));
+                continue;
+            }
+            if (!existingBookIds.contains(dto.getBookId())) {
+                results.add(BulkResults.failed(index, HttpStatus.NOT_FOUND,
+                        String.format("Book with id %d not found", dto.getBookId())));
+                continue;
+            }
+            if (!existingAuthorIds.contains(dto.getAuthorId())) {
+                results.add(BulkResults.failed(index, HttpStatus.NOT_FOUND,
+                        String.format("Author with id %d not found", dto.getAuthorId())));
+                continue;
+            }
+            if (!existingEditorIds.contains(dto.getEditorId())) {
+                results.add(BulkResults.failed(index, HttpStatus.NOT_FOUND,
+                        String.format("Editor with id %d not found", dto.getEditorId())));
+                continue;
+            }
+            if (!linked.add(new BookAuthorEditorId(dto.getBookId(), dto.getAuthorId(), dto.getEditorId()))) {
+                results.add(BulkResults.unchanged(index, dto));
+                continue;
+            }
+
+            entityManager.persist(bookAuthorEditorMapper.toEntity(
+                    bookService.getBookReference(dto.getBookId()),
+                    authorService.getAuthorReference(dto.getAuthorId()),
+                    editorService.getEditorReference(dto.getEditorId())
+            ));
+            searchService.linkBookAuthorEditor(dto.getBookId(), dto.getAuthorId(), dto.getEditorId());
+            collaborationService.linkBookAuthorEditor(dto.getBookId(), dto.getAuthorId(), dto.getEditorId());
+            results.add(BulkResults.created(index, dto));
+
+            if (++pending == BookService.BULK_BATCH_SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+
+        return results;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.BOOK_AUTHORS, CacheConfig.BOOK_EDITORS}, key = "#bookId"),
+            @CacheEvict(cacheNames = CacheConfig.AUTHOR_BOOKS, key = "#authorId"),
+            @CacheEvict(cacheNames = CacheConfig.EDITOR_BOOKS, key = "#editorId")
+    })
+    @Transactional
     public void deleteBookAuthorEditor(Integer bookId, Integer authorId, Integer editorId) {
         bookAuthorEditorRepository.deleteById(new BookAuthorEditorId(bookId, authorId, editorId));
+        searchService.unlinkBookAuthorEditor(bookId, authorId, editorId);
+        collaborationService.unlinkBookAuthorEditor(bookId, authorId, editorId);
     }
 }
@@ -1,27 +1,48 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.BookCategoryDto;
 import com.unibuc.book_app.dto.BookCategoryResponseDto;
+import com.unibuc.book_app.dto.BulkItemResultDto;
+import com.unibuc.book_app.exception.BadRequestException;
 import com.unibuc.book_app.exception.NotFoundException;
 import com.unibuc.book_app.mapper.BookCategoryMapper;
 import com.unibuc.book_app.model.Book;
-import com.unibuc.book_app.model.BookCategory;
 import com.unibuc.book_app.model.BookCategory.BookCategoryId;
+import com.unibuc.book_app.model.BookCategory;
 import com.unibuc.book_app.model.Category;
 import com.unibuc.book_app.repository.BookCategoryRepository;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.BOOK_CATEGORY)
 public class BookCategoryService {
     private final BookCategoryRepository bookCategoryRepository;
     private final BookCategoryMapper bookCategoryMapper;
     private final BookService bookService;
     private final CategoryService categoryService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final SearchService searchService;
+    private final CategoryMembershipService categoryMembershipService;
 
+    @Transactional(readOnly = true)
     public List<BookCategoryResponseDto> findAllBookCategories() {
         return bookCategoryRepository
                 .findAll()
@@ -30,6 +51,7 @@ public class BookCategoryService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public BookCategoryResponseDto findBookCategoryById(Integer bookId, Integer categoryId) {
         BookCategoryId id = new BookCategoryId(bookId, categoryId);
         BookCategory bookCategory = bookCategoryRepository.findById(id)
@@ -39,15 +61,98 @@ public class BookCategoryService {
         return bookCategoryMapper.toResponseDto(bookCategory);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOK_CATEGORIES, key = "#dto.bookId"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BOOKS, key = "#dto.categoryId")
+    })
+    @Transactional
     public BookCategoryResponseDto createBookCategory(BookCategoryDto dto) {
         Book book = bookService.findBookEntityById(dto.getBookId());
         Category category = categoryService.findCategoryEntityById(dto.getCategoryId());
         BookCategory bookCategory = bookCategoryMapper.toEntity(book, category);
 
-        return bookCategoryMapper.toResponseDto(bookCategoryRepository.save(bookCategory));
+        BookCategory savedBookCategory = bookCategoryRepository.save(bookCategory);
+        searchService.linkBookCategory(dto.getBookId(), dto.getCategoryId());
+        categoryMembershipService.linkBookCategory(dto.getBookId(), dto.getCategoryId());
+        return bookCategoryMapper.toResponseDto(savedBookCategory);
+    }
+
+    @Transactional
+    @Caching(evict = @CacheEvict(cacheNames = {CacheConfig.BOOK_CATEGORIES, CacheConfig.CATEGORY_BOOKS}, allEntries = true))
+    public List<BulkItemResultDto<BookCategoryDto>> createBookCategories(List<BookCategoryDto> dtos) {
+        if (dtos.size() > BookService.MAX_BULK_SIZE) {
+            throw new BadRequestException(String.format("A bulk request cannot contain more than %d links", BookService.MAX_BULK_SIZE));
+        }
+
+        List<String> violations = dtos.stream()
+                .map(dto -> BulkResults.firstViolation(validator, dto))
+                .toList();
+        List<BookCategoryDto> valid = new ArrayList<>(dtos.size());
+        for (int index = 0; index < dtos.size(); index++) {
+            if (violations.get(index) == null) {
+                valid.add(dtos.get(index));
+            }
+        }
+        Set<Integer> bookIds = valid.stream().map(BookCategoryDto::getBookId).collect(Collectors.toSet());
+        Set<Integer> categoryIds = valid.stream().map(BookCategoryDto::getCategoryId).collect(Collectors.toSet());
+        Set<Integer> existingBookIds = bookService.findExistingBookIds(bookIds);
+        Set<Integer> existingCategoryIds = categoryService.findExistingCategoryIds(categoryIds);
+        Set<BookCategoryId> linked = valid.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(bookCategoryRepository.findAllIdsIn(bookIds, categoryIds));
+
+        List<BulkItemResultDto<BookCategoryDto>> results = new ArrayList<>(dtos.size());
+        int pending = 0;
+        for (int index = 0; index < dtos.size(); index++) {
+            BookCategoryDto dto = dtos.get(index);
+
+            String violation = violations.get(index);
+            if (violation != null) {
+                results.add(BulkResults.failed(index, HttpStatus.BAD_REQUEST, violation));
+                continue;
+            }
+            if (!existingBookIds.contains(dto.getBookId())) {
+                results.add(BulkResults.failed(index, HttpStatus.NOT_FOUND,
+                        String.format("Book with id %d not found", dto.getBookId())));
+                continue;
+            }
+            if (!existingCategoryIds.contains(dto.getCategoryId())) {
+                results.add(BulkResults.failed(index, HttpStatus.NOT_FOUND,
+                        String.format("Category with id %d not found", dto.getCategoryId())));
+                continue;
+            }
+            if (!linked.add(new BookCategoryId(dto.getBookId(), dto.getCategoryId()))) {
+                results.add(BulkResults.unchanged(index, dto));
+                continue;
+            }
+
+            entityManager.persist(bookCategoryMapper.toEntity(
+                    bookService.getBookReference(dto.getBookId()),
+                    categoryService.getCategoryReference(dto.getCategoryId())
+            ));
+            searchService.linkBookCategory(dto.getBookId(), dto.getCategoryId());
+            categoryMembershipService.linkBookCategory(dto.getBookId(), dto.getCategoryId());
+            results.add(BulkResults.created(index, dto));
+
+            if (++pending == BookService.BULK_BATCH_SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+
+        return results;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOK_CATEGORIES, key = "#bookId"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_BOOKS, key = "#categoryId")
+    })
+    @Transactional
     public void deleteBookCategory(Integer bookId, Integer categoryId) {
         bookCategoryRepository.deleteById(new BookCategoryId(bookId, categoryId));
+        searchService.unlinkBookCategory(bookId, categoryId);
+        categoryMembershipService.unlinkBookCategory(bookId, categoryId);
     }
 }
@@ -0,0 +1,298 @@
+package com.unibuc.book_app.service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column store of the book fields the statistics group and aggregate.
+ * <p>
+ * Every book is one row across primitive int columns: price, page count, publish date as an
+ * epoch day and language as a code into a dictionary of the distinct languages. The
+ * book-publisher links are two more columns, the row of the book and the code of the
+ * publisher. An aggregate is then one pass over a few dense arrays that accumulates into
+ * small arrays indexed by group code, with no boxing or pointer chasing. A deleted book's row
+ * is filled with the last row so the columns stay dense, and its links are dropped.
+ */
+final class BookColumns {
+    record LanguageStats(String language, int books, long totalPrice, int minPrice, int maxPrice) {
+    }
+
+    record PublisherStats(int publisherId, int books, long totalPages, int minPages, int maxPages, int[] pageRanges) {
+    }
+
+    record YearStats(int year, int books) {
+    }
+
+    // Lower bounds of the page ranges after the first one, which starts at 0
+    static final int[] PAGE_RANGE_BOUNDS = {100, 200, 300, 500, 1000};
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Integer> rows = new HashMap<>();
+    private int[] bookIds = new int[64];
+    private int[] prices = new int[64];
+    private int[] pages = new int[64];
+    private int[] publishDays = new int[64];
+    private int[] languages = new int[64];
+    private int size;
+
+    private final Map<String, Integer> languageCodes = new HashMap<>();
+    private final List<String> languageNames = new ArrayList<>();
+
+    private final Map<Long, Integer> linkPositions = new HashMap<>();
+    private int[] linkRows = new int[64];
+    private int[] linkPublishers = new int[64];
+    private int linkCount;
+
+    private final Map<Integer, Integer> publisherCodes = new HashMap<>();
+    private int[] publisherIds = new int[16];
+
+    void putBook(int bookId, int price, int noPages, int publishDay, String language) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rows.get(bookId);
+            if (row == null) {
+                if (size == bookIds.length) {
+                    int capacity = size * 2;
+                    bookIds = Arrays.copyOf(bookIds, capacity);
+                    prices = Arrays.copyOf(prices, capacity);
+                    pages = Arrays.copyOf(pages, capacity);
+                    publishDays = Arrays.copyOf(publishDays, capacity);
+                    languages = Arrays.copyOf(languages, capacity);
+                }
+                row = size++;
+                rows.put(bookId, row);
+                bookIds[row] = bookId;
+            }
+            prices[row] = price;
+            pages[row] = noPages;
+            publishDays[row] = publishDay;
+            languages[row] = languageCodes.computeIfAbsent(language, key -> {
+                languageNames.add(key);
+                return languageNames.size() - 1;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeBook(int bookId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rows.remove(bookId);
+            if (row == null) {
+                return;
+            }
+            for (int i = linkCount - 1; i >= 0; i--) {
+                if (linkRows[i] == row) {
+                    removeLinkAt(i);
+                }
+            }
+            int last = --size;
+            if (row != last) {
+                bookIds[row] = bookIds[last];
+                prices[row] = prices[last];
+                pages[row] = pages[last];
+                publishDays[row] = publishDays[last];
+                languages[row] = languages[last];
+                rows.put(bookIds[row], row);
+                for (int i = 0; i < linkCount; i++) {
+                    if (linkRows[i] == last) {
+                        linkRows[i] = row;
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void link(int bookId, int publisherId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rows.get(bookId);
+            long key = pair(bookId, publisherId);
+            if (row == null || linkPositions.containsKey(key)) {
+                return;
+            }
+            if (linkCount == linkRows.length) {
+                linkRows = Arrays.copyOf(linkRows, linkCount * 2);
+                linkPublishers = Arrays.copyOf(linkPublishers, linkCount * 2);
+            }
+            linkRows[linkCount] = row;
+            linkPublishers[linkCount] = publisherCode(publisherId);
+            linkPositions.put(key, linkCount++);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void unlink(int bookId, int publisherId) {
+        lock.writeLock().lock();
+        try {
+            Integer position = linkPositions.get(pair(bookId, publisherId));
+            if (position != null) {
+                removeLinkAt(position);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<LanguageStats> languageStats() {
+        lock.readLock().lock();
+        try {
+            int groups = languageNames.size();
+            int[] books = new int[groups];
+            long[] totals = new long[groups];
+            int[] mins = new int[groups];
+            int[] maxes = new int[groups];
+            Arrays.fill(mins, Integer.MAX_VALUE);
+            Arrays.fill(maxes, Integer.MIN_VALUE);
+
+            for (int row = 0; row < size; row++) {
+                int group = languages[row];
+                int price = prices[row];
+                books[group]++;
+                totals[group] += price;
+                mins[group] = Math.min(mins[group], price);
+                maxes[group] = Math.max(maxes[group], price);
+            }
+
+            List<LanguageStats> stats = new ArrayList<>();
+            for (int group = 0; group < groups; group++) {
+                if (books[group] > 0) {
+                    stats.add(new LanguageStats(languageNames.get(group), books[group], totals[group], mins[group], maxes[group]));
+                }
+            }
+            stats.sort(Comparator.comparing(LanguageStats::language));
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<PublisherStats> publisherStats() {
+        lock.readLock().lock();
+        try {
+            int groups = publisherCodes.size();
+            int ranges = PAGE_RANGE_BOUNDS.length + 1;
+            int[] books = new int[groups];
+            long[] totals = new long[groups];
+            int[] mins = new int[groups];
+            int[] maxes = new int[groups];
+            int[] rangeBooks = new int[groups * ranges];
+            Arrays.fill(mins, Integer.MAX_VALUE);
+            Arrays.fill(maxes, Integer.MIN_VALUE);
+
+            for (int i = 0; i < linkCount; i++) {
+                int group = linkPublishers[i];
+                int noPages = pages[linkRows[i]];
+                books[group]++;
+                totals[group] += noPages;
+                mins[group] = Math.min(mins[group], noPages);
+                maxes[group] = Math.max(maxes[group], noPages);
+                rangeBooks[group * ranges + pageRange(noPages)]++;
+            }
+
+            List<PublisherStats> stats = new ArrayList<>();
+            for (int group = 0; group < groups; group++) {
+                if (books[group] > 0) {
+                    stats.add(new PublisherStats(
+                            publisherIds[group],
+                            books[group],
+                            totals[group],
+                            mins[group],
+                            maxes[group],
+                            Arrays.copyOfRange(rangeBooks, group * ranges, (group + 1) * ranges)
+                    ));
+                }
+            }
+            stats.sort(Comparator.comparingInt(PublisherStats::publisherId));
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<YearStats> yearStats() {
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                return List.of();
+            }
+            int firstDay = Integer.MAX_VALUE;
+            int lastDay = Integer.MIN_VALUE;
+            for (int row = 0; row < size; row++) {
+                firstDay = Math.min(firstDay, publishDays[row]);
+                lastDay = Math.max(lastDay, publishDays[row]);
+            }
+            int firstYear = yearOf(firstDay);
+            int[] books = new int[yearOf(lastDay) - firstYear + 1];
+            for (int row = 0; row < size; row++) {
+                books[yearOf(publishDays[row]) - firstYear]++;
+            }
+
+            List<YearStats> stats = new ArrayList<>();
+            for (int i = 0; i < books.length; i++) {
+                if (books[i] > 0) {
+                    stats.add(new YearStats(firstYear + i, books[i]));
+                }
+            }
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int pageRange(int noPages) {
+        int range = 0;
+        while (range < PAGE_RANGE_BOUNDS.length && noPages >= PAGE_RANGE_BOUNDS[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    // Proleptic Gregorian year of an epoch day in integer arithmetic only (Howard Hinnant's
+    // civil_from_days), so the year loop does not build a LocalDate per row
+    static int yearOf(int epochDay) {
+        int days = epochDay + 719_468;
+        int era = Math.floorDiv(days, 146_097);
+        int dayOfEra = days - era * 146_097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        return yearOfEra + era * 400 + (shiftedMonth >= 10 ? 1 : 0);
+    }
+
+    // Fills the link's slot with the last link
+    private void removeLinkAt(int position) {
+        linkPositions.remove(linkKey(position));
+        int last = --linkCount;
+        if (position != last) {
+            linkRows[position] = linkRows[last];
+            linkPublishers[position] = linkPublishers[last];
+            linkPositions.put(linkKey(position), position);
+        }
+    }
+
+    private long linkKey(int position) {
+        return pair(bookIds[linkRows[position]], publisherIds[linkPublishers[position]]);
+    }
+
+    private int publisherCode(int publisherId) {
+        return publisherCodes.computeIfAbsent(publisherId, key -> {
+            int code = publisherCodes.size();
+            if (code == publisherIds.length) {
+                publisherIds = Arrays.copyOf(publisherIds, code * 2);
+            }
+            publisherIds[code] = key;
+            return code;
+        });
+    }
+
+    private static long pair(int bookId, int publisherId) {
+        return ((long) bookId << 32) | (publisherId & 0xFFFFFFFFL);
+    }
+}
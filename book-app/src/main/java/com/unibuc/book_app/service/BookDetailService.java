@@ -0,0 +1,147 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.configuration.CacheConfig;
+import com.unibuc.book_app.dto.*;
+import com.unibuc.book_app.exception.GatewayTimeoutException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Builds the book page document from the {@link BookService} lookups.
+ * <p>
+ * The book is read first, so a missing book fails without starting anything else. The four
+ * relationship lookups then fork onto their own virtual threads, and the request waits for all
+ * of them or the deadline, whichever comes first. A lookup whose result is cached is answered
+ * from the cache before any transaction is opened, so a page that is fully cached takes no
+ * connection; every other lookup holds its own pooled connection while it runs.
+ * A lookup still running when the request gives up is not interrupted, as an interrupt during
+ * socket I/O closes the connection under the pool. Instead every lookup runs in a read-only
+ * transaction whose timeout is the time left until the deadline, which Spring hands to JDBC as
+ * the query timeout, so the database cancels the statement and the connection goes back intact.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookDetailService {
+    private final BookService bookService;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("book-detail-", 0).factory()
+    );
+
+    @Value("${book-app.book-detail.timeout:2s}")
+    private Duration timeout;
+
+    public BookDetailDto findBookDetailById(Integer bookId) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        BookResponseDto bookResponseDto = lookup(bookId, deadline, CacheConfig.BOOKS, () -> bookService.findBookById(bookId));
+
+        CompletableFuture<List<AuthorSummaryDto>> authors = fork(bookId, deadline, CacheConfig.BOOK_AUTHORS,
+                () -> bookService.findAllAuthorsByBookId(bookId));
+        CompletableFuture<List<EditorSummaryDto>> editors = fork(bookId, deadline, CacheConfig.BOOK_EDITORS,
+                () -> bookService.findAllEditorsByBookId(bookId));
+        CompletableFuture<List<CategorySummaryDto>> categories = fork(bookId, deadline, CacheConfig.BOOK_CATEGORIES,
+                () -> bookService.findAllCategoriesByBookId(bookId));
+        CompletableFuture<List<PublisherSummaryDto>> publishers = fork(bookId, deadline, CacheConfig.BOOK_PUBLISHERS,
+                () -> bookService.findAllPublishersByBookId(bookId));
+        List<CompletableFuture<?>> subtasks = List.of(authors, editors, categories, publishers);
+
+        try {
+            join(bookId, deadline, subtasks);
+        } finally {
+            // Only keeps lookups that have not started from starting, the query timeout ends the running ones
+            subtasks.forEach(subtask -> subtask.cancel(false));
+        }
+
+        return BookDetailDto.builder()
+                .id(bookResponseDto.getId())
+                .version(bookResponseDto.getVersion())
+                .embeddedVersion(bookResponseDto.getEmbeddedVersion())
+                .name(bookResponseDto.getName())
+                .isbn(bookResponseDto.getIsbn())
+                .noPages(bookResponseDto.getNoPages())
+                .price(bookResponseDto.getPrice())
+                .language(bookResponseDto.getLanguage())
+                .publishDate(bookResponseDto.getPublishDate())
+                .translator(bookResponseDto.getTranslator())
+                .authors(authors.resultNow())
+                .editors(editors.resultNow())
+                .categories(categories.resultNow())
+                .publishers(publishers.resultNow())
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> fork(Integer bookId, long deadline, String cacheName, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> lookup(bookId, deadline, cacheName, query), executor);
+    }
+
+    // The cache holds what the BookService method caches under the book id. JDBC query timeouts are whole
+    // seconds, so the time left is rounded up
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(Integer bookId, long deadline, String cacheName, Supplier<T> query) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Cache.ValueWrapper cached = cache != null ? cache.get(bookId) : null;
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw timedOut(bookId);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.ceil(remaining / 1e9));
+        try {
+            return transaction.execute(status -> query.get());
+        } catch (QueryTimeoutException | TransactionTimedOutException ex) {
+            throw timedOut(bookId);
+        }
+    }
+
+    // Completes as soon as every subtask succeeded or any of them failed
+    private void join(Integer bookId, long deadline, List<CompletableFuture<?>> subtasks) {
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        subtasks.forEach(subtask -> subtask.exceptionally(ex -> {
+            firstFailure.completeExceptionally(ex);
+            return null;
+        }));
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(subtasks.toArray(CompletableFuture[]::new)), firstFailure)
+                    .get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw timedOut(bookId);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause() instanceof CompletionException ? ex.getCause().getCause() : ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private GatewayTimeoutException timedOut(Integer bookId) {
+        return new GatewayTimeoutException(String.format("Book detail with id %d took longer than %d ms", bookId, timeout.toMillis()));
+    }
+}
@@ -0,0 +1,152 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
+import com.unibuc.book_app.versioning.TableModifiedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the full GET /books response as a gzipped JSON snapshot, rebuilt in the background
+ * whenever books or translators change.
+ * <p>
+ * The snapshot is tagged with the collection version read before the books are, the same
+ * rule the listing ETags follow, and is only handed out while that version is current.
+ * A write during a rebuild leaves the new snapshot stale on arrival and queues another
+ * rebuild; requests in between fall back to building the list themselves. The file of a
+ * replaced snapshot is kept for one more generation, since a request may still be sending it.
+ */
+@Slf4j
+@Service
+public class BookListSnapshotService {
+    private static final Table[] TABLES = {Table.BOOK, Table.TRANSLATOR};
+
+    private final BookService bookService;
+    private final CollectionVersions collectionVersions;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long inMemoryLimit;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile GzipSnapshot snapshot;
+    private GzipSnapshot previous;
+
+    public BookListSnapshotService(
+            BookService bookService,
+            CollectionVersions collectionVersions,
+            ObjectMapper objectMapper,
+            @Value("${book-app.books-snapshot.enabled:true}") boolean enabled,
+            @Value("${book-app.books-snapshot.in-memory-limit:1MB}") DataSize inMemoryLimit
+    ) {
+        this.bookService = bookService;
+        this.collectionVersions = collectionVersions;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.inMemoryLimit = inMemoryLimit.toBytes();
+    }
+
+    public Optional<GzipSnapshot> current(String etag) {
+        GzipSnapshot current = snapshot;
+        return current != null && current.etag().equals(etag) ? Optional.of(current) : Optional.empty();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        requestRebuild();
+    }
+
+    @EventListener
+    public void onTableModified(TableModifiedEvent event) {
+        if (event.table() == Table.BOOK || event.table() == Table.TRANSLATOR) {
+            requestRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void deleteFiles() {
+        delete(previous);
+        delete(snapshot);
+    }
+
+    // Writes arriving while a rebuild runs only mark the snapshot dirty, so a burst costs one or two rebuilds
+    void requestRebuild() {
+        if (!enabled) {
+            return;
+        }
+        dirty.set(true);
+        if (rebuilding.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("books-snapshot").start(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            try {
+                while (dirty.getAndSet(false)) {
+                    rebuild();
+                }
+            } finally {
+                rebuilding.set(false);
+            }
+        } while (dirty.get() && rebuilding.compareAndSet(false, true));
+    }
+
+    void rebuild() {
+        String etag = collectionVersions.etag(TABLES);
+        Path file = null;
+        try {
+            file = Files.createTempFile("books-snapshot-", ".json.gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file));
+                 JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.writeStartArray();
+                bookService.exportBooks(book -> objectMapper.writeValue(generator, book));
+                generator.writeEndArray();
+            }
+            GzipSnapshot next;
+            if (Files.size(file) <= inMemoryLimit) {
+                next = GzipSnapshot.inMemory(etag, Files.readAllBytes(file));
+                Files.delete(file);
+            } else {
+                next = GzipSnapshot.inFile(etag, file);
+            }
+            delete(previous);
+            previous = snapshot;
+            snapshot = next;
+            log.info("Built the books snapshot: {} gzipped bytes {}", next.length(), next.file() == null ? "in memory" : "in " + next.file());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not build the books snapshot, GET /books falls back to building the list", ex);
+            if (file != null) {
+                deleteFile(file);
+            }
+        }
+    }
+
+    private static void delete(GzipSnapshot snapshot) {
+        if (snapshot != null && snapshot.file() != null) {
+            deleteFile(snapshot.file());
+        }
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete the books snapshot file {}", file, ex);
+        }
+    }
+}
@@ -1,27 +1,48 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.BookPublisherDto;
 import com.unibuc.book_app.dto.BookPublisherResponseDto;
+import com.unibuc.book_app.dto.BulkItemResultDto;
+import com.unibuc.book_app.exception.BadRequestException;
 import com.unibuc.book_app.exception.NotFoundException;
 import com.unibuc.book_app.mapper.BookPublisherMapper;
 import com.unibuc.book_app.model.Book;
-import com.unibuc.book_app.model.BookPublisher;
 import com.unibuc.book_app.model.BookPublisher.BookPublisherId;
+import com.unibuc.book_app.model.BookPublisher;
 import com.unibuc.book_app.model.Publisher;
 import com.unibuc.book_app.repository.BookPublisherRepository;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.BOOK_PUBLISHER)
 public class BookPublisherService {
     private final BookPublisherRepository bookPublisherRepository;
     private final BookPublisherMapper bookPublisherMapper;
     private final BookService bookService;
     private final PublisherService publisherService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final SearchService searchService;
+    private final BookStatsService bookStatsService;
 
+    @Transactional(readOnly = true)
     public List<BookPublisherResponseDto> findAllBookPublishers() {
         return bookPublisherRepository
                 .findAll()
@@ -30,6 +51,7 @@ public class BookPublisherService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public BookPublisherResponseDto findBookPublisherById(Integer bookId, Integer publisherId) {
         BookPublisherId id = new BookPublisherId(bookId, publisherId);
         BookPublisher bookPublisher = bookPublisherRepository.findById(id)
@@ -39,15 +61,98 @@ public class BookPublisherService {
         return bookPublisherMapper.toResponseDto(bookPublisher);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOK_PUBLISHERS, key = "#dto.bookId"),
+            @CacheEvict(cacheNames = CacheConfig.PUBLISHER_BOOKS, key = "#dto.publisherId")
+    })
+    @Transactional
     public BookPublisherResponseDto createBookPublisher(BookPublisherDto dto) {
         Book book = bookService.findBookEntityById(dto.getBookId());
         Publisher publisher = publisherService.findPublisherEntityById(dto.getPublisherId());
         BookPublisher bookPublisher = bookPublisherMapper.toEntity(book, publisher);
 
-        return bookPublisherMapper.toResponseDto(bookPublisherRepository.save(bookPublisher));
+        BookPublisher savedBookPublisher = bookPublisherRepository.save(bookPublisher);
+        searchService.linkBookPublisher(dto.getBookId(), dto.getPublisherId());
+        bookStatsService.linkBookPublisher(dto.getBookId(), dto.getPublisherId());
+        return bookPublisherMapper.toResponseDto(savedBookPublisher);
+    }
+
+    @Transactional
+    @Caching(evict = @CacheEvict(cacheNames = {CacheConfig.BOOK_PUBLISHERS, CacheConfig.PUBLISHER_BOOKS}, allEntries = true))
+    public List<BulkItemResultDto<BookPublisherDto>> createBookPublishers(List<BookPublisherDto> dtos) {
+        if (dtos.size() > BookService.MAX_BULK_SIZE) {
+            throw new BadRequestException(String.format("A bulk request cannot contain more than %d links", BookService.MAX_BULK_SIZE));
+        }
+
+        List<String> violations = dtos.stream()
+                .map(dto -> BulkResults.firstViolation(validator, dto))
+                .toList();
+        List<BookPublisherDto> valid = new ArrayList<>(dtos.size());
+        for (int index = 0; index < dtos.size(); index++) {
+            if (violations.get(index) == null) {
+                valid.add(dtos.get(index));
+            }
+        }
+        Set<Integer> bookIds = valid.stream().map(BookPublisherDto::getBookId).collect(Collectors.toSet());
+        Set<Integer> publisherIds = valid.stream().map(BookPublisherDto::getPublisherId).collect(Collectors.toSet());
+        Set<Integer> existingBookIds = bookService.findExistingBookIds(bookIds);
+        Set<Integer> existingPublisherIds = publisherService.findExistingPublisherIds(publisherIds);
+        Set<BookPublisherId> linked = valid.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(bookPublisherRepository.findAllIdsIn(bookIds, publisherIds));
+
+        List<BulkItemResultDto<BookPublisherDto>> results = new ArrayList<>(dtos.size());
+        int pending = 0;
+        for (int index = 0; index < dtos.size(); index++) {
+            BookPublisherDto dto = dtos.get(index);
+
+            String violation = violations.get(index);
+            if (violation != null) {
+                results.add(BulkResults.failed(index, HttpStatus.BAD_REQUEST, violation));
+                continue;
+            }
+            if (!existingBookIds.contains(dto.getBookId())) {
+                results.add(BulkResults.failed(index, HttpStatus.NOT_FOUND,
+                        String.format("Book with id %d not found", dto.getBookId())));
+                continue;
+            }
+            if (!existingPublisherIds.contains(dto.getPublisherId())) {
+                results.add(BulkResults.failed(index, HttpStatus.NOT_FOUND,
+                        String.format("Publisher with id %d not found", dto.getPublisherId())));
+                continue;
+            }
+            if (!linked.add(new BookPublisherId(dto.getBookId(), dto.getPublisherId()))) {
+                results.add(BulkResults.unchanged(index, dto));
+                continue;
+            }
+
+            entityManager.persist(bookPublisherMapper.toEntity(
+                    bookService.getBookReference(dto.getBookId()),
+                    publisherService.getPublisherReference(dto.getPublisherId())
+            ));
+            searchService.linkBookPublisher(dto.getBookId(), dto.getPublisherId());
+            bookStatsService.linkBookPublisher(dto.getBookId(), dto.getPublisherId());
+            results.add(BulkResults.created(index, dto));
+
+            if (++pending == BookService.BULK_BATCH_SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+
+        return results;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOK_PUBLISHERS, key = "#bookId"),
+            @CacheEvict(cacheNames = CacheConfig.PUBLISHER_BOOKS, key = "#publisherId")
+    })
+    @Transactional
     public void deleteBookPublisher(Integer bookId, Integer publisherId) {
         bookPublisherRepository.deleteById(new BookPublisherId(bookId, publisherId));
+        searchService.unlinkBookPublisher(bookId, publisherId);
+        bookStatsService.unlinkBookPublisher(bookId, publisherId);
     }
 }
@@ -1,33 +1,63 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.*;
+import com.unibuc.book_app.exception.BadRequestException;
+import com.unibuc.book_app.exception.ConflictException;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.*;
+import com.unibuc.book_app.exception.PreconditionFailedException;
+import com.unibuc.book_app.mapper.BookMapper;
 import com.unibuc.book_app.model.Book;
 import com.unibuc.book_app.model.Translator;
 import com.unibuc.book_app.repository.BookAuthorEditorRepository;
 import com.unibuc.book_app.repository.BookCategoryRepository;
 import com.unibuc.book_app.repository.BookPublisherRepository;
 import com.unibuc.book_app.repository.BookRepository;
+import com.unibuc.book_app.repository.BookSpecifications;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import com.unibuc.book_app.singleflight.SingleFlight;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.BOOK)
 public class BookService {
+    static final int EXPORT_BATCH_SIZE = 500;
+    static final int BULK_BATCH_SIZE = 50;
+    static final int MAX_BULK_SIZE = 5000;
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final TranslatorService translatorService;
     private final BookAuthorEditorRepository bookAuthorEditorRepository;
     private final BookCategoryRepository bookCategoryRepository;
     private final BookPublisherRepository bookPublisherRepository;
-    private final AuthorMapper authorMapper;
-    private final EditorMapper editorMapper;
-    private final CategoryMapper categoryMapper;
-    private final PublisherMapper publisherMapper;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final SearchService searchService;
+    private final ExistenceFilterService existenceFilterService;
+    private final BookStatsService bookStatsService;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
 
+    @SingleFlight
+    @Transactional(readOnly = true)
     public List<BookResponseDto> findAllBooks() {
         return bookRepository
                 .findAll()
@@ -36,47 +66,175 @@ public class BookService {
                 .toList();
     }
 
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookResponseDto> findBooksPage(String after, Integer limit) {
+        BookSort.Cursor cursor = BookSort.ID.parseCursor(after);
+        int pageLimit = CursorPagination.limit(limit);
+        return CursorPagination.page(
+                bookRepository.findByIdGreaterThanOrderByIdAsc(
+                        cursor != null ? cursor.id() : 0,
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit,
+                Book::getId,
+                bookMapper::toResponseDto
+        );
+    }
+
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllBooks(String fields) {
+        return sparseFieldsetRepository.findAll(
+                Book.class,
+                Fieldsets.parse(fields, BookResponseDto.class),
+                Specification.unrestricted(),
+                Fieldsets.BY_ID,
+                Limit.unlimited()
+        );
+    }
+
+    // Every given filter becomes one predicate of a single statement, and the page continues after the
+    // position the cursor names in the requested order
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookResponseDto> findBooksPage(BookFilterDto filter, String after, Integer limit) {
+        BookSort sort = BookSort.parse(filter.getSort());
+        Specification<Book> specification = matching(filter, sort, sort.parseCursor(after));
+        int pageLimit = CursorPagination.limit(limit);
+
+        return CursorPagination.page(
+                bookRepository.findBy(specification, query -> query
+                        .project("translator")
+                        .sortBy(sort.toSort())
+                        .limit(CursorPagination.lookahead(pageLimit).max())
+                        .all()),
+                pageLimit,
+                sort::cursor,
+                bookMapper::toResponseDto
+        );
+    }
+
+    // The sort attribute is read for the cursor even when it is not one of the fields, and left out of the rows
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public CursorPageDto<Map<String, Object>> findBooksPage(BookFilterDto filter, String fields, String after, Integer limit) {
+        List<String> columns = Fieldsets.parse(fields, BookResponseDto.class);
+        BookSort sort = BookSort.parse(filter.getSort());
+        Specification<Book> specification = matching(filter, sort, sort.parseCursor(after));
+        int pageLimit = CursorPagination.limit(limit);
+        boolean sortSelected = columns.contains(sort.attribute());
+        List<String> selected = sortSelected
+                ? columns
+                : Stream.concat(columns.stream(), Stream.of(sort.attribute())).toList();
+
+        return CursorPagination.page(
+                sparseFieldsetRepository.findAll(
+                        Book.class,
+                        selected,
+                        specification,
+                        sort.toSort(),
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit,
+                row -> sort.cursor(row.get(sort.attribute()), row.get("id")),
+                row -> {
+                    if (!sortSelected) {
+                        row.remove(sort.attribute());
+                    }
+                    return row;
+                }
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<BookResponseDto> consumer) {
+        try (Stream<Book> books = bookRepository.streamAllBooks()) {
+            int exported = 0;
+            for (Book book : (Iterable<Book>) books::iterator) {
+                consumer.accept(bookMapper.toResponseDto(book));
+                if (++exported % EXPORT_BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.BOOK_AUTHORS, key = "#bookId")
+    @Transactional(readOnly = true)
     public List<AuthorSummaryDto> findAllAuthorsByBookId(Integer bookId) {
-        return bookAuthorEditorRepository.findAllAuthorsByBookId(bookId)
-                .stream()
-                .map(authorMapper::toSummaryDto)
-                .toList();
+        return bookAuthorEditorRepository.findAllAuthorsByBookId(bookId);
     }
 
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.BOOK_EDITORS, key = "#bookId")
+    @Transactional(readOnly = true)
     public List<EditorSummaryDto> findAllEditorsByBookId(Integer bookId) {
-        return bookAuthorEditorRepository.findAllEditorsByBookId(bookId)
-                .stream()
-                .map(editorMapper::toSummaryDto)
-                .toList();
+        return bookAuthorEditorRepository.findAllEditorsByBookId(bookId);
     }
 
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.BOOK_CATEGORIES, key = "#bookId")
+    @Transactional(readOnly = true)
     public List<CategorySummaryDto> findAllCategoriesByBookId(Integer bookId) {
-        return bookCategoryRepository.findAllCategoriesByBookId(bookId)
-                .stream()
-                .map(categoryMapper::toResponseDto)
-                .toList();
+        return bookCategoryRepository.findAllCategoriesByBookId(bookId);
     }
 
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.BOOK_PUBLISHERS, key = "#bookId")
+    @Transactional(readOnly = true)
     public List<PublisherSummaryDto> findAllPublishersByBookId(Integer bookId) {
-        return bookPublisherRepository.findAllPublishersByBookId(bookId)
-                .stream()
-                .map(publisherMapper::toSummaryDto)
-                .toList();
+        return bookPublisherRepository.findAllPublishersByBookId(bookId);
     }
 
+    @Transactional(readOnly = true)
     public Book findBookEntityById(Integer bookId) {
-        return bookRepository.findById(bookId).orElseThrow(
+        return findBook(bookId).orElseThrow(
                 () -> new NotFoundException(String.format("Book with id %d not found", bookId))
         );
     }
 
+    @Transactional(readOnly = true)
+    public Set<Integer> findExistingBookIds(Collection<Integer> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Set.of();
+        }
+        return bookRepository.findAllIdsIn(bookIds);
+    }
+
+    public Book getBookReference(Integer bookId) {
+        return bookRepository.getReferenceById(bookId);
+    }
+
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#bookId")
+    @Transactional(readOnly = true)
     public BookResponseDto findBookById(Integer bookId) {
-        return bookMapper.toResponseDto(bookRepository.findById(bookId).orElseThrow(
+        return bookMapper.toResponseDto(findBook(bookId).orElseThrow(
                 () -> new NotFoundException(String.format("Book with id %d not found", bookId))
         ));
     }
 
+    // A book shows its translator's name, so its tag covers the translator row too
+    @Transactional(readOnly = true)
+    public String findBookVersionTag(Integer bookId) {
+        Optional<BookRepository.Versions> versions = existenceFilterService.isBookMissing(bookId)
+                ? Optional.empty()
+                : bookRepository.findVersionsById(bookId);
+        return versions.map(found -> VersionedDto.versionTag(found.getVersion(), found.getTranslatorVersion())).orElseThrow(
+                () -> new NotFoundException(String.format("Book with id %d not found", bookId))
+        );
+    }
+
+    @Transactional
     public BookResponseDto createBook(BookCreateDto bookCreateDto) {
+        // Most new isbns are definite misses in the filter, so only likely duplicates cost a query
+        String isbn = bookCreateDto.getIsbn();
+        if (!existenceFilterService.isIsbnMissing(isbn) && bookRepository.existsByIsbn(isbn)) {
+            throw new ConflictException(String.format("Book with isbn %s already exists", isbn));
+        }
+
         Book book = bookMapper.toEntity(bookCreateDto);
 
         if (bookCreateDto.getTranslatorId() != null) {
@@ -84,18 +242,136 @@ public class BookService {
             book.setTranslator(translator);
         }
 
-        return bookMapper.toResponseDto(bookRepository.save(book));
+        Book savedBook = bookRepository.save(book);
+        existenceFilterService.addBook(savedBook);
+        searchService.indexBook(savedBook);
+        bookStatsService.indexBook(savedBook);
+        return bookMapper.toResponseDto(savedBook);
     }
 
-    public BookResponseDto updateBook(Integer bookId, BookUpdateDto bookUpdateDto) {
-        Book book = bookRepository.findById(bookId).orElseThrow(
+    @Transactional
+    public List<BulkItemResultDto<BookResponseDto>> createBooks(List<BookCreateDto> bookCreateDtos) {
+        if (bookCreateDtos.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException(String.format("A bulk request cannot contain more than %d books", MAX_BULK_SIZE));
+        }
+
+        Map<Integer, Translator> translators = translatorService.findTranslatorEntitiesByIds(
+                bookCreateDtos.stream()
+                        .filter(Objects::nonNull)
+                        .map(BookCreateDto::getTranslatorId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())
+        );
+        Set<String> takenIsbns = new HashSet<>(bookRepository.findAllIsbnsIn(
+                bookCreateDtos.stream()
+                        .filter(Objects::nonNull)
+                        .map(BookCreateDto::getIsbn)
+                        .filter(Objects::nonNull)
+                        .filter(isbn -> !existenceFilterService.isIsbnMissing(isbn))
+                        .collect(Collectors.toSet())
+        ));
+
+        List<BulkItemResultDto<BookResponseDto>> results = new ArrayList<>(bookCreateDtos.size());
+        int pending = 0;
+        for (int index = 0; index < bookCreateDtos.size(); index++) {
+            BookCreateDto bookCreateDto = bookCreateDtos.get(index);
+
+            String violation = BulkResults.firstViolation(validator, bookCreateDto);
+            if (violation != null) {
+                results.add(BulkResults.failed(index, HttpStatus.BAD_REQUEST, violation));
+                continue;
+            }
+            Integer translatorId = bookCreateDto.getTranslatorId();
+            if (translatorId != null && !translators.containsKey(translatorId)) {
+                results.add(BulkResults.failed(index, HttpStatus.NOT_FOUND,
+                        String.format("Translator with id %d not found", translatorId)));
+                continue;
+            }
+            if (!takenIsbns.add(bookCreateDto.getIsbn())) {
+                results.add(BulkResults.failed(index, HttpStatus.CONFLICT,
+                        String.format("Book with isbn %s already exists", bookCreateDto.getIsbn())));
+                continue;
+            }
+
+            Book book = bookMapper.toEntity(bookCreateDto);
+            book.setTranslator(translatorId != null ? translators.get(translatorId) : null);
+            Book savedBook = bookRepository.save(book);
+            searchService.indexBook(savedBook);
+            existenceFilterService.addBook(savedBook);
+            bookStatsService.indexBook(savedBook);
+            results.add(BulkResults.created(index, bookMapper.toResponseDto(savedBook)));
+
+            if (++pending == BULK_BATCH_SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+
+        return results;
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, key = "#bookId"),
+            @CacheEvict(cacheNames = {CacheConfig.AUTHOR_BOOKS, CacheConfig.EDITOR_BOOKS, CacheConfig.CATEGORY_BOOKS, CacheConfig.PUBLISHER_BOOKS}, allEntries = true)
+    })
+    @Transactional
+    public BookResponseDto updateBook(Integer bookId, BookUpdateDto bookUpdateDto, Long expectedVersion) {
+        Book book = findBook(bookId).orElseThrow(
                 () -> new NotFoundException(String.format("Book with id %d not found", bookId))
         );
+        if (expectedVersion != null && !expectedVersion.equals(book.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("Book with id %d is at version %d, not %d", bookId, book.getVersion(), expectedVersion)
+            );
+        }
         bookMapper.updateEntityFromDto(bookUpdateDto, book);
-        return bookMapper.toResponseDto(bookRepository.save(book));
+        Book savedBook = bookRepository.saveAndFlush(book);
+        searchService.indexBook(savedBook);
+        existenceFilterService.addIsbn(savedBook.getIsbn());
+        bookStatsService.indexBook(savedBook);
+        return bookMapper.toResponseDto(savedBook);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.BOOKS, CacheConfig.BOOK_AUTHORS, CacheConfig.BOOK_EDITORS, CacheConfig.BOOK_CATEGORIES, CacheConfig.BOOK_PUBLISHERS}, key = "#bookId"),
+            @CacheEvict(cacheNames = {CacheConfig.AUTHOR_BOOKS, CacheConfig.EDITOR_BOOKS, CacheConfig.CATEGORY_BOOKS, CacheConfig.PUBLISHER_BOOKS}, allEntries = true)
+    })
+    @Transactional
     public void deleteBook(Integer bookId) {
         bookRepository.deleteById(bookId);
+        existenceFilterService.removeBook(bookId);
+        searchService.removeBook(bookId);
+        bookStatsService.removeBook(bookId);
+    }
+
+    private Optional<Book> findBook(Integer bookId) {
+        if (existenceFilterService.isBookMissing(bookId)) {
+            return Optional.empty();
+        }
+        return bookRepository.findById(bookId);
+    }
+
+    private static Specification<Book> matching(BookFilterDto filter, BookSort sort, BookSort.Cursor cursor) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new BadRequestException("minPrice cannot be greater than maxPrice");
+        }
+        if (filter.getPublishedFrom() != null && filter.getPublishedTo() != null
+                && filter.getPublishedFrom().isAfter(filter.getPublishedTo())) {
+            throw new BadRequestException("publishedFrom cannot be after publishedTo");
+        }
+
+        List<Specification<Book>> predicates = new ArrayList<>();
+        Optional.ofNullable(filter.getLanguage()).map(BookSpecifications::languageIs).ifPresent(predicates::add);
+        Optional.ofNullable(filter.getMinPrice()).map(BookSpecifications::priceAtLeast).ifPresent(predicates::add);
+        Optional.ofNullable(filter.getMaxPrice()).map(BookSpecifications::priceAtMost).ifPresent(predicates::add);
+        Optional.ofNullable(filter.getPublishedFrom()).map(BookSpecifications::publishedFrom).ifPresent(predicates::add);
+        Optional.ofNullable(filter.getPublishedTo()).map(BookSpecifications::publishedTo).ifPresent(predicates::add);
+        Optional.ofNullable(filter.getTranslatorId()).map(BookSpecifications::translatedBy).ifPresent(predicates::add);
+        if (cursor != null) {
+            predicates.add(BookSpecifications.after(sort.attribute(), sort.descending(), cursor.value(), cursor.id()));
+        }
+        return Specification.allOf(predicates);
     }
 }
@@ -0,0 +1,83 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.exception.BadRequestException;
+import com.unibuc.book_app.model.Book;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Sort key of the filtered book listing, written as the attribute name and prefixed with
+ * {@code -} for descending order. The id breaks ties in the same direction, so every key is
+ * a total order the keyset cursor can resume from.
+ * <p>
+ * The cursor names the last book of a page by its position in that order: the id alone when
+ * sorting by id, otherwise {@code value:id}, like {@code 25:17} or {@code 2019-06-01:17}. It
+ * carries the sort value instead of looking it up, so it keeps its place when the book it
+ * came from is changed or deleted.
+ */
+record BookSort(String attribute, boolean descending) {
+    static final List<String> ATTRIBUTES = List.of("id", "price", "noPages", "publishDate");
+    static final BookSort ID = new BookSort("id", false);
+
+    static BookSort parse(String sort) {
+        if (sort == null) {
+            return ID;
+        }
+        boolean descending = sort.startsWith("-");
+        String attribute = descending ? sort.substring(1) : sort;
+        if (!ATTRIBUTES.contains(attribute)) {
+            throw new BadRequestException(String.format(
+                    "sort must be one of %s, optionally prefixed with -", String.join(", ", ATTRIBUTES)
+            ));
+        }
+        return new BookSort(attribute, descending);
+    }
+
+    String cursor(Book book) {
+        Object value = switch (attribute) {
+            case "price" -> book.getPrice();
+            case "noPages" -> book.getNoPages();
+            case "publishDate" -> book.getPublishDate();
+            default -> book.getId();
+        };
+        return cursor(value, book.getId());
+    }
+
+    String cursor(Object value, Object id) {
+        return attribute.equals("id") ? String.valueOf(id) : value + ":" + id;
+    }
+
+    // Null when the listing starts from the beginning
+    Cursor parseCursor(String after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            if (attribute.equals("id")) {
+                int id = CursorPagination.after(Integer.valueOf(after));
+                return id > 0 ? new Cursor(id, id) : null;
+            }
+            int colon = after.lastIndexOf(':');
+            String value = after.substring(0, Math.max(colon, 0));
+            int id = Integer.parseInt(after.substring(colon + 1));
+            return new Cursor(attribute.equals("publishDate") ? LocalDate.parse(value) : Integer.valueOf(value), id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BadRequestException(String.format(
+                    "after must be the X-Next-Cursor of a listing sorted by %s", attribute
+            ));
+        }
+    }
+
+    Sort toSort() {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return attribute.equals("id")
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, attribute, "id");
+    }
+
+    record Cursor(Comparable<?> value, int id) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.LanguageStatsDto;
+import com.unibuc.book_app.dto.PageRangeDto;
+import com.unibuc.book_app.dto.PublisherStatsDto;
+import com.unibuc.book_app.dto.YearStatsDto;
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.model.Publisher;
+import com.unibuc.book_app.repository.BookPublisherRepository;
+import com.unibuc.book_app.repository.BookRepository;
+import com.unibuc.book_app.repository.PublisherRepository;
+import com.unibuc.book_app.service.BookColumns.PublisherStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class BookStatsService {
+    private final BookRepository bookRepository;
+    private final BookPublisherRepository bookPublisherRepository;
+    private final PublisherRepository publisherRepository;
+    private final BookColumns bookColumns = new BookColumns();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildColumns() {
+        // Written straight into the columns, so a build inside a transaction is visible to it at once
+        bookRepository.findAll().forEach(book -> bookColumns.putBook(
+                book.getId(),
+                book.getPrice(),
+                book.getNoPages(),
+                Math.toIntExact(book.getPublishDate().toEpochDay()),
+                book.getLanguage()
+        ));
+        bookPublisherRepository.findAllIds().forEach(id -> bookColumns.link(id.getBookId(), id.getPublisherId()));
+    }
+
+    public List<LanguageStatsDto> findLanguageStats() {
+        return bookColumns.languageStats()
+                .stream()
+                .map(stats -> new LanguageStatsDto(
+                        stats.language(),
+                        stats.books(),
+                        (double) stats.totalPrice() / stats.books(),
+                        stats.minPrice(),
+                        stats.maxPrice()
+                ))
+                .toList();
+    }
+
+    // Only the names of the publishers come from the database, in one query
+    @Transactional(readOnly = true)
+    public List<PublisherStatsDto> findPublisherStats() {
+        List<PublisherStats> publisherStats = bookColumns.publisherStats();
+        Map<Integer, String> names = publisherRepository
+                .findAllById(publisherStats.stream().map(PublisherStats::publisherId).toList())
+                .stream()
+                .collect(Collectors.toMap(Publisher::getId, Publisher::getName));
+
+        return publisherStats.stream()
+                .map(stats -> new PublisherStatsDto(
+                        stats.publisherId(),
+                        names.get(stats.publisherId()),
+                        stats.books(),
+                        (double) stats.totalPages() / stats.books(),
+                        stats.minPages(),
+                        stats.maxPages(),
+                        pageRanges(stats.pageRanges())
+                ))
+                .toList();
+    }
+
+    public List<YearStatsDto> findYearStats() {
+        return bookColumns.yearStats()
+                .stream()
+                .map(stats -> new YearStatsDto(stats.year(), stats.books()))
+                .toList();
+    }
+
+    // The write hooks below only change the columns once the calling transaction has committed
+    public void indexBook(Book book) {
+        int bookId = book.getId();
+        int price = book.getPrice();
+        int noPages = book.getNoPages();
+        int publishDay = Math.toIntExact(book.getPublishDate().toEpochDay());
+        String language = book.getLanguage();
+        AfterCommit.run(() -> bookColumns.putBook(bookId, price, noPages, publishDay, language));
+    }
+
+    public void removeBook(Integer bookId) {
+        AfterCommit.run(() -> bookColumns.removeBook(bookId));
+    }
+
+    public void linkBookPublisher(Integer bookId, Integer publisherId) {
+        AfterCommit.run(() -> bookColumns.link(bookId, publisherId));
+    }
+
+    public void unlinkBookPublisher(Integer bookId, Integer publisherId) {
+        AfterCommit.run(() -> bookColumns.unlink(bookId, publisherId));
+    }
+
+    private static List<PageRangeDto> pageRanges(int[] books) {
+        int[] bounds = BookColumns.PAGE_RANGE_BOUNDS;
+        List<PageRangeDto> ranges = new ArrayList<>(books.length);
+        for (int i = 0; i < books.length; i++) {
+            ranges.add(new PageRangeDto(
+                    i == 0 ? 0 : bounds[i - 1],
+                    i < bounds.length ? bounds[i] : null,
+                    books[i]
+            ));
+        }
+        return ranges;
+    }
+}
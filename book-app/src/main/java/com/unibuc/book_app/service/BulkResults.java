@@ -0,0 +1,49 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.BulkItemResultDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpStatus;
+
+import java.util.Comparator;
+import java.util.Set;
+
+final class BulkResults {
+    private BulkResults() {
+    }
+
+    static <T> BulkItemResultDto<T> created(int index, T data) {
+        return BulkItemResultDto.<T>builder()
+                .index(index)
+                .status(HttpStatus.CREATED.value())
+                .data(data)
+                .build();
+    }
+
+    static <T> BulkItemResultDto<T> unchanged(int index, T data) {
+        return BulkItemResultDto.<T>builder()
+                .index(index)
+                .status(HttpStatus.OK.value())
+                .data(data)
+                .build();
+    }
+
+    static <T> BulkItemResultDto<T> failed(int index, HttpStatus status, String error) {
+        return BulkItemResultDto.<T>builder()
+                .index(index)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    static <T> String firstViolation(Validator validator, T item) {
+        if (item == null) {
+            return "item cannot be null";
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(item);
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+}
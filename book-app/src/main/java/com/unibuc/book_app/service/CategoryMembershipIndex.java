@@ -0,0 +1,88 @@
+package com.unibuc.book_app.service;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One compressed bitmap of book ids per category.
+ * <p>
+ * Roaring bitmaps split the ids into chunks of 2^16 and store each chunk as a sorted array,
+ * a plain bitset or a list of runs, whichever is smallest, so a small category costs a few
+ * bytes and the set algebra over large ones works a machine word at a time. Results come out
+ * ordered by book id, which is what keyset pagination needs.
+ */
+final class CategoryMembershipIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, RoaringBitmap> categoryBooks = new HashMap<>();
+
+    void add(int categoryId, int bookId) {
+        lock.writeLock().lock();
+        try {
+            categoryBooks.computeIfAbsent(categoryId, key -> new RoaringBitmap()).add(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int categoryId, int bookId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap books = categoryBooks.get(categoryId);
+            if (books != null) {
+                books.remove(bookId);
+                if (books.isEmpty()) {
+                    categoryBooks.remove(categoryId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Books in every category of all and in at least one of any, minus those in any category of none.
+    // An empty all or any puts no constraint, but with both empty nothing is selected.
+    // Returns up to limit ids greater than after, in ascending order.
+    int[] select(Collection<Integer> all, Collection<Integer> any, Collection<Integer> none, int after, int limit) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> required = new ArrayList<>(bitmaps(all));
+            if (!any.isEmpty()) {
+                required.add(FastAggregation.or(bitmaps(any).iterator()));
+            }
+            if (required.isEmpty()) {
+                return new int[0];
+            }
+            // Starting from the smallest bitmap keeps every intermediate result small
+            required.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            RoaringBitmap books = required.getFirst().clone();
+            for (int i = 1; i < required.size() && !books.isEmpty(); i++) {
+                books.and(required.get(i));
+            }
+            if (!none.isEmpty() && !books.isEmpty()) {
+                books.andNot(FastAggregation.or(bitmaps(none).iterator()));
+            }
+
+            int[] page = new int[Math.min(limit, books.getCardinality())];
+            int size = 0;
+            PeekableIntIterator iterator = books.getIntIterator();
+            iterator.advanceIfNeeded(after + 1);
+            while (size < page.length && iterator.hasNext()) {
+                page[size++] = iterator.next();
+            }
+            return Arrays.copyOf(page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<RoaringBitmap> bitmaps(Collection<Integer> categoryIds) {
+        return categoryIds.stream()
+                .map(categoryId -> categoryBooks.getOrDefault(categoryId, new RoaringBitmap()))
+                .toList();
+    }
+}
@@ -0,0 +1,39 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.repository.BookCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CategoryMembershipService {
+    private final BookCategoryRepository bookCategoryRepository;
+    private final CategoryMembershipIndex categoryMembershipIndex = new CategoryMembershipIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        // Written straight into the index, so a build inside a transaction is visible to it at once
+        bookCategoryRepository.findAllIds().forEach(id -> categoryMembershipIndex.add(id.getCategoryId(), id.getBookId()));
+    }
+
+    public List<Integer> findBookIds(Collection<Integer> all, Collection<Integer> any, Collection<Integer> none, int after, int limit) {
+        return Arrays.stream(categoryMembershipIndex.select(all, any, none, after, limit))
+                .boxed()
+                .toList();
+    }
+
+    // The write hooks below only change the index once the calling transaction has committed
+    public void linkBookCategory(Integer bookId, Integer categoryId) {
+        AfterCommit.run(() -> categoryMembershipIndex.add(categoryId, bookId));
+    }
+
+    public void unlinkBookCategory(Integer bookId, Integer categoryId) {
+        AfterCommit.run(() -> categoryMembershipIndex.remove(categoryId, bookId));
+    }
+}
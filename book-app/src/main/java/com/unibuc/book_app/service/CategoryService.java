@@ -1,27 +1,45 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.BookSummaryDto;
 import com.unibuc.book_app.dto.CategoryDto;
 import com.unibuc.book_app.dto.CategorySummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
+import com.unibuc.book_app.exception.BadRequestException;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.exception.PreconditionFailedException;
 import com.unibuc.book_app.mapper.CategoryMapper;
 import com.unibuc.book_app.model.Category;
 import com.unibuc.book_app.repository.BookCategoryRepository;
+import com.unibuc.book_app.repository.BookRepository;
 import com.unibuc.book_app.repository.CategoryRepository;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.CATEGORY)
 public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
     private final BookCategoryRepository bookCategoryRepository;
-    private final BookMapper bookMapper;
+    private final SearchService searchService;
+    private final ExistenceFilterService existenceFilterService;
+    private final CategoryMembershipService categoryMembershipService;
+    private final BookRepository bookRepository;
 
+    @Transactional(readOnly = true)
     public List<CategorySummaryDto> findAllCategories() {
         return categoryRepository
                 .findAll()
@@ -30,39 +48,138 @@ public class CategoryService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<CategorySummaryDto> findCategoriesPage(Integer after, Integer limit) {
+        int pageLimit = CursorPagination.limit(limit);
+        return CursorPagination.page(
+                categoryRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(after),
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit,
+                Category::getId,
+                categoryMapper::toResponseDto
+        );
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_BOOKS, key = "#categoryId")
+    @Transactional(readOnly = true)
     public List<BookSummaryDto> findAllBooksByCategoryId(Integer categoryId) {
-        return bookCategoryRepository.findAllBooksByCategoryId(categoryId)
-                .stream()
-                .map(bookMapper::toSummaryDto)
-                .toList();
+        return bookCategoryRepository.findAllBooksByCategoryId(categoryId);
+    }
+
+    // The categories are combined in memory, only the books of the requested page are read
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookSummaryDto> findBooksByCategories(
+            List<Integer> all,
+            List<Integer> any,
+            List<Integer> none,
+            Integer after,
+            Integer limit
+    ) {
+        List<Integer> allIds = all != null ? all : List.of();
+        List<Integer> anyIds = any != null ? any : List.of();
+        List<Integer> noneIds = none != null ? none : List.of();
+        if (allIds.isEmpty() && anyIds.isEmpty()) {
+            throw new BadRequestException("all or any must list at least one category");
+        }
+        int pageLimit = CursorPagination.limit(limit);
+
+        List<Integer> bookIds = categoryMembershipService.findBookIds(
+                allIds,
+                anyIds,
+                noneIds,
+                CursorPagination.after(after),
+                pageLimit + 1
+        );
+        boolean hasNext = bookIds.size() > pageLimit;
+        List<Integer> pageIds = hasNext ? bookIds.subList(0, pageLimit) : bookIds;
+        List<BookSummaryDto> books = pageIds.isEmpty() ? List.of() : bookRepository.findAllBookSummariesByIdIn(pageIds);
+
+        return new CursorPageDto<>(books, hasNext ? pageIds.getLast().toString() : null);
     }
 
+    @Transactional(readOnly = true)
     public Category findCategoryEntityById(Integer categoryId) {
-        return categoryRepository.findById(categoryId).orElseThrow(
+        return findCategory(categoryId).orElseThrow(
                 () -> new NotFoundException(String.format("Category with id %d not found", categoryId))
         );
     }
 
+    @Transactional(readOnly = true)
+    public Set<Integer> findExistingCategoryIds(Collection<Integer> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Set.of();
+        }
+        return categoryRepository.findAllIdsIn(categoryIds);
+    }
+
+    public Category getCategoryReference(Integer categoryId) {
+        return categoryRepository.getReferenceById(categoryId);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#categoryId")
+    @Transactional(readOnly = true)
     public CategorySummaryDto findCategoryById(Integer categoryId) {
-        return categoryMapper.toResponseDto(categoryRepository.findById(categoryId).orElseThrow(
+        return categoryMapper.toResponseDto(findCategory(categoryId).orElseThrow(
                 () -> new NotFoundException(String.format("Category with id %d not found", categoryId))
         ));
     }
 
+    @Transactional(readOnly = true)
+    public Long findCategoryVersion(Integer categoryId) {
+        Optional<Long> version = existenceFilterService.isCategoryMissing(categoryId)
+                ? Optional.empty()
+                : categoryRepository.findVersionById(categoryId);
+        return version.orElseThrow(
+                () -> new NotFoundException(String.format("Category with id %d not found", categoryId))
+        );
+    }
+
+    @Transactional
     public CategorySummaryDto createCategory(CategoryDto categoryDto) {
         Category category = categoryMapper.toEntity(categoryDto);
-        return categoryMapper.toResponseDto(categoryRepository.save(category));
+        Category savedCategory = categoryRepository.save(category);
+        existenceFilterService.addCategory(savedCategory.getId());
+        searchService.indexCategory(savedCategory);
+        return categoryMapper.toResponseDto(savedCategory);
     }
 
-    public CategorySummaryDto updateCategory(Integer categoryId, CategoryDto categoryDto) {
-        Category category = categoryRepository.findById(categoryId).orElseThrow(
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#categoryId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_CATEGORIES, allEntries = true)
+    })
+    @Transactional
+    public CategorySummaryDto updateCategory(Integer categoryId, CategoryDto categoryDto, Long expectedVersion) {
+        Category category = findCategory(categoryId).orElseThrow(
                 () -> new NotFoundException(String.format("Category with id %d not found", categoryId))
         );
+        if (expectedVersion != null && !expectedVersion.equals(category.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("Category with id %d is at version %d, not %d", categoryId, category.getVersion(), expectedVersion)
+            );
+        }
         categoryMapper.updateEntityFromDto(categoryDto, category);
-        return categoryMapper.toResponseDto(categoryRepository.save(category));
+        Category savedCategory = categoryRepository.saveAndFlush(category);
+        searchService.indexCategory(savedCategory);
+        return categoryMapper.toResponseDto(savedCategory);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.CATEGORIES, CacheConfig.CATEGORY_BOOKS}, key = "#categoryId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_CATEGORIES, allEntries = true)
+    })
+    @Transactional
     public void deleteCategory(Integer categoryId) {
         categoryRepository.deleteById(categoryId);
+        existenceFilterService.removeCategory(categoryId);
+        searchService.removeCategory(categoryId);
+    }
+
+    private Optional<Category> findCategory(Integer categoryId) {
+        if (existenceFilterService.isCategoryMissing(categoryId)) {
+            return Optional.empty();
+        }
+        return categoryRepository.findById(categoryId);
     }
 }
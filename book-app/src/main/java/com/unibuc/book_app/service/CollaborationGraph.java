@@ -0,0 +1,393 @@
+package com.unibuc.book_app.service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory bipartite graph of authors, editors and books, made of the book-author-editor links.
+ * <p>
+ * Authors, editors and books get dense int indexes and every relation the reads walk (author to
+ * editors, editor to authors, author to books, book to authors) is kept in compressed sparse row
+ * form: an offsets array and a targets array of those indexes. Links created or deleted after the
+ * arrays were built go to a small per-relation delta the reads merge in, and the arrays are rebuilt
+ * once the deltas outgrow a quarter of the graph. An edge lasts for as long as one link row backs
+ * it (an author keeps an editor while they share a book), so repeated link events are harmless.
+ */
+final class CollaborationGraph {
+    record Person(int id, String firstName, String lastName) {
+    }
+
+    private static final int MIN_COMPACTION_DELTA = 64;
+    private static final Comparator<Person> BY_ID = Comparator.comparingInt(Person::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Nodes authors = new Nodes();
+    private final Nodes editors = new Nodes();
+    private final Nodes books = new Nodes();
+
+    private final Set<Link> links = new HashSet<>();
+    private final Map<Long, Integer> authorEditorRows = new HashMap<>();
+    private final Map<Long, Integer> authorBookRows = new HashMap<>();
+
+    private final Adjacency authorEditors = new Adjacency();
+    private final Adjacency editorAuthors = new Adjacency();
+    private final Adjacency authorBooks = new Adjacency();
+    private final Adjacency bookAuthors = new Adjacency();
+
+    void putAuthor(int id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            authors.name(id, firstName, lastName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeAuthor(int id) {
+        lock.writeLock().lock();
+        try {
+            authors.forget(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void putEditor(int id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            editors.name(id, firstName, lastName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeEditor(int id) {
+        lock.writeLock().lock();
+        try {
+            editors.forget(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void link(int bookId, int authorId, int editorId) {
+        lock.writeLock().lock();
+        try {
+            if (!links.add(new Link(bookId, authorId, editorId))) {
+                return;
+            }
+            int author = authors.intern(authorId);
+            int editor = editors.intern(editorId);
+            int book = books.intern(bookId);
+            if (authorEditorRows.merge(pair(author, editor), 1, Integer::sum) == 1) {
+                authorEditors.add(author, editor);
+                editorAuthors.add(editor, author);
+            }
+            if (authorBookRows.merge(pair(author, book), 1, Integer::sum) == 1) {
+                authorBooks.add(author, book);
+                bookAuthors.add(book, author);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void unlink(int bookId, int authorId, int editorId) {
+        lock.writeLock().lock();
+        try {
+            if (!links.remove(new Link(bookId, authorId, editorId))) {
+                return;
+            }
+            int author = authors.indexOf(authorId);
+            int editor = editors.indexOf(editorId);
+            int book = books.indexOf(bookId);
+            if (release(authorEditorRows, pair(author, editor))) {
+                authorEditors.remove(author, editor);
+                editorAuthors.remove(editor, author);
+            }
+            if (release(authorBookRows, pair(author, book))) {
+                authorBooks.remove(author, book);
+                bookAuthors.remove(book, author);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean hasAuthor(int authorId) {
+        lock.readLock().lock();
+        try {
+            return authors.isNamed(authors.indexOf(authorId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Person> editorsOf(int authorId) {
+        lock.readLock().lock();
+        try {
+            int author = authors.indexOf(authorId);
+            if (author < 0) {
+                return List.of();
+            }
+            List<Person> result = new ArrayList<>();
+            authorEditors.forEach(author, editor -> result.add(editors.person(editor)));
+            result.sort(BY_ID);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Person> authorsOf(int editorId) {
+        lock.readLock().lock();
+        try {
+            int editor = editors.indexOf(editorId);
+            if (editor < 0) {
+                return List.of();
+            }
+            List<Person> result = new ArrayList<>();
+            editorAuthors.forEach(editor, author -> result.add(authors.person(author)));
+            result.sort(BY_ID);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Authors that share at least one book with the given one
+    List<Person> coAuthorsOf(int authorId) {
+        lock.readLock().lock();
+        try {
+            int author = authors.indexOf(authorId);
+            if (author < 0) {
+                return List.of();
+            }
+            BitSet seen = new BitSet();
+            seen.set(author);
+            List<Person> result = new ArrayList<>();
+            authorBooks.forEach(author, book -> bookAuthors.forEach(book, coAuthor -> {
+                if (!seen.get(coAuthor)) {
+                    seen.set(coAuthor);
+                    result.add(authors.person(coAuthor));
+                }
+            }));
+            result.sort(BY_ID);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Breadth-first search over author-book-author hops, so the path has as few hops as possible.
+    // Each book is expanded once and the search stops as soon as the target is reached.
+    Optional<List<Person>> shortestPath(int fromAuthorId, int toAuthorId) {
+        lock.readLock().lock();
+        try {
+            int from = authors.indexOf(fromAuthorId);
+            int to = authors.indexOf(toAuthorId);
+            if (from < 0 || to < 0) {
+                return Optional.empty();
+            }
+
+            Map<Integer, Integer> previous = new HashMap<>();
+            previous.put(from, from);
+            BitSet expandedBooks = new BitSet();
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(from);
+            while (!queue.isEmpty() && !previous.containsKey(to)) {
+                int author = queue.poll();
+                authorBooks.forEach(author, book -> {
+                    if (expandedBooks.get(book)) {
+                        return;
+                    }
+                    expandedBooks.set(book);
+                    bookAuthors.forEach(book, coAuthor -> {
+                        if (previous.putIfAbsent(coAuthor, author) == null) {
+                            queue.add(coAuthor);
+                        }
+                    });
+                });
+            }
+            if (!previous.containsKey(to)) {
+                return Optional.empty();
+            }
+
+            LinkedList<Person> path = new LinkedList<>();
+            for (int author = to; author != from; author = previous.get(author)) {
+                path.addFirst(authors.person(author));
+            }
+            path.addFirst(authors.person(from));
+            return Optional.of(List.copyOf(path));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        int delta = authorEditors.delta + editorAuthors.delta + authorBooks.delta + bookAuthors.delta;
+        if (delta <= Math.max(MIN_COMPACTION_DELTA, (authorEditorRows.size() + authorBookRows.size()) / 2)) {
+            return;
+        }
+        authorEditors.rebuild(authors.size, authorEditorRows.keySet(), false);
+        editorAuthors.rebuild(editors.size, authorEditorRows.keySet(), true);
+        authorBooks.rebuild(authors.size, authorBookRows.keySet(), false);
+        bookAuthors.rebuild(books.size, authorBookRows.keySet(), true);
+    }
+
+    // Drops one row from an edge and tells whether it was the last one
+    private static boolean release(Map<Long, Integer> rows, long edge) {
+        return rows.computeIfPresent(edge, (key, count) -> count == 1 ? null : count - 1) == null;
+    }
+
+    private static long pair(int source, int target) {
+        return ((long) source << 32) | (target & 0xFFFFFFFFL);
+    }
+
+    private record Link(int bookId, int authorId, int editorId) {
+    }
+
+    private static final class Nodes {
+        private final Map<Integer, Integer> indexes = new HashMap<>();
+        private final BitSet named = new BitSet();
+        private int[] ids = new int[16];
+        private String[] firstNames = new String[16];
+        private String[] lastNames = new String[16];
+        private int size;
+
+        int indexOf(int id) {
+            Integer index = indexes.get(id);
+            return index != null ? index : -1;
+        }
+
+        int intern(int id) {
+            Integer index = indexes.get(id);
+            if (index != null) {
+                return index;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                firstNames = Arrays.copyOf(firstNames, size * 2);
+                lastNames = Arrays.copyOf(lastNames, size * 2);
+            }
+            ids[size] = id;
+            indexes.put(id, size);
+            return size++;
+        }
+
+        void name(int id, String firstName, String lastName) {
+            int index = intern(id);
+            firstNames[index] = firstName;
+            lastNames[index] = lastName;
+            named.set(index);
+        }
+
+        // The index stays, so the arrays built over it remain valid
+        void forget(int id) {
+            int index = indexOf(id);
+            if (index >= 0) {
+                firstNames[index] = null;
+                lastNames[index] = null;
+                named.clear(index);
+            }
+        }
+
+        boolean isNamed(int index) {
+            return index >= 0 && named.get(index);
+        }
+
+        Person person(int index) {
+            return new Person(ids[index], firstNames[index], lastNames[index]);
+        }
+    }
+
+    private static final class Adjacency {
+        private int[] offsets = {0};
+        private int[] targets = new int[0];
+        private final Map<Integer, int[]> added = new HashMap<>();
+        private final Set<Long> removed = new HashSet<>();
+        private int delta;
+
+        void forEach(int node, IntConsumer action) {
+            if (node + 1 < offsets.length) {
+                for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                    if (removed.isEmpty() || !removed.contains(pair(node, targets[i]))) {
+                        action.accept(targets[i]);
+                    }
+                }
+            }
+            int[] extra = added.get(node);
+            if (extra != null) {
+                for (int target : extra) {
+                    action.accept(target);
+                }
+            }
+        }
+
+        void add(int node, int target) {
+            if (removed.remove(pair(node, target))) {
+                delta--;
+                return;
+            }
+            int[] extra = added.get(node);
+            if (extra == null) {
+                added.put(node, new int[]{target});
+            } else {
+                extra = Arrays.copyOf(extra, extra.length + 1);
+                extra[extra.length - 1] = target;
+                added.put(node, extra);
+            }
+            delta++;
+        }
+
+        void remove(int node, int target) {
+            int[] extra = added.get(node);
+            if (extra != null) {
+                for (int i = 0; i < extra.length; i++) {
+                    if (extra[i] == target) {
+                        if (extra.length == 1) {
+                            added.remove(node);
+                        } else {
+                            extra[i] = extra[extra.length - 1];
+                            added.put(node, Arrays.copyOf(extra, extra.length - 1));
+                        }
+                        delta--;
+                        return;
+                    }
+                }
+            }
+            removed.add(pair(node, target));
+            delta++;
+        }
+
+        // Counting sort of the edges by source node, reversed when the relation reads them target first
+        void rebuild(int nodes, Set<Long> edges, boolean reversed) {
+            int[] newOffsets = new int[nodes + 1];
+            for (long edge : edges) {
+                newOffsets[source(edge, reversed) + 1]++;
+            }
+            for (int i = 0; i < nodes; i++) {
+                newOffsets[i + 1] += newOffsets[i];
+            }
+            int[] newTargets = new int[edges.size()];
+            int[] next = Arrays.copyOf(newOffsets, nodes);
+            for (long edge : edges) {
+                newTargets[next[source(edge, reversed)]++] = source(edge, !reversed);
+            }
+            offsets = newOffsets;
+            targets = newTargets;
+            added.clear();
+            removed.clear();
+            delta = 0;
+        }
+
+        private static int source(long edge, boolean reversed) {
+            return reversed ? (int) edge : (int) (edge >>> 32);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.AuthorSummaryDto;
+import com.unibuc.book_app.dto.EditorSummaryDto;
+import com.unibuc.book_app.exception.NotFoundException;
+import com.unibuc.book_app.model.Author;
+import com.unibuc.book_app.model.Editor;
+import com.unibuc.book_app.repository.AuthorRepository;
+import com.unibuc.book_app.repository.BookAuthorEditorRepository;
+import com.unibuc.book_app.repository.EditorRepository;
+import com.unibuc.book_app.service.CollaborationGraph.Person;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CollaborationService {
+    private final AuthorRepository authorRepository;
+    private final EditorRepository editorRepository;
+    private final BookAuthorEditorRepository bookAuthorEditorRepository;
+    private final CollaborationGraph collaborationGraph = new CollaborationGraph();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildGraph() {
+        // Written straight into the graph, so a build inside a transaction is visible to it at once
+        authorRepository.findAll().forEach(
+                author -> collaborationGraph.putAuthor(author.getId(), author.getFirstName(), author.getLastName())
+        );
+        editorRepository.findAll().forEach(
+                editor -> collaborationGraph.putEditor(editor.getId(), editor.getFirstName(), editor.getLastName())
+        );
+        bookAuthorEditorRepository.findAllIds().forEach(
+                id -> collaborationGraph.link(id.getBookId(), id.getAuthorId(), id.getEditorId())
+        );
+    }
+
+    public List<EditorSummaryDto> findAllEditorsByAuthorId(Integer authorId) {
+        return collaborationGraph.editorsOf(authorId)
+                .stream()
+                .map(editor -> new EditorSummaryDto(editor.id(), editor.firstName(), editor.lastName()))
+                .toList();
+    }
+
+    public List<AuthorSummaryDto> findAllAuthorsByEditorId(Integer editorId) {
+        return toAuthorSummaries(collaborationGraph.authorsOf(editorId));
+    }
+
+    public List<AuthorSummaryDto> findAllCoAuthorsByAuthorId(Integer authorId) {
+        return toAuthorSummaries(collaborationGraph.coAuthorsOf(authorId));
+    }
+
+    public List<AuthorSummaryDto> findCollaborationPath(Integer fromAuthorId, Integer toAuthorId) {
+        for (Integer authorId : List.of(fromAuthorId, toAuthorId)) {
+            if (!collaborationGraph.hasAuthor(authorId)) {
+                throw new NotFoundException(String.format("Author with id %d not found", authorId));
+            }
+        }
+        return toAuthorSummaries(collaborationGraph.shortestPath(fromAuthorId, toAuthorId).orElseThrow(
+                () -> new NotFoundException(
+                        String.format("No collaboration path between authors %d and %d", fromAuthorId, toAuthorId)
+                )
+        ));
+    }
+
+    // The write hooks below only change the graph once the calling transaction has committed
+    public void indexAuthor(Author author) {
+        Integer authorId = author.getId();
+        String firstName = author.getFirstName();
+        String lastName = author.getLastName();
+        AfterCommit.run(() -> collaborationGraph.putAuthor(authorId, firstName, lastName));
+    }
+
+    public void removeAuthor(Integer authorId) {
+        AfterCommit.run(() -> collaborationGraph.removeAuthor(authorId));
+    }
+
+    public void indexEditor(Editor editor) {
+        Integer editorId = editor.getId();
+        String firstName = editor.getFirstName();
+        String lastName = editor.getLastName();
+        AfterCommit.run(() -> collaborationGraph.putEditor(editorId, firstName, lastName));
+    }
+
+    public void removeEditor(Integer editorId) {
+        AfterCommit.run(() -> collaborationGraph.removeEditor(editorId));
+    }
+
+    public void linkBookAuthorEditor(Integer bookId, Integer authorId, Integer editorId) {
+        AfterCommit.run(() -> collaborationGraph.link(bookId, authorId, editorId));
+    }
+
+    public void unlinkBookAuthorEditor(Integer bookId, Integer authorId, Integer editorId) {
+        AfterCommit.run(() -> collaborationGraph.unlink(bookId, authorId, editorId));
+    }
+
+    private static List<AuthorSummaryDto> toAuthorSummaries(List<Person> authors) {
+        return authors.stream()
+                .map(author -> new AuthorSummaryDto(author.id(), author.firstName(), author.lastName()))
+                .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.CursorPageDto;
+import com.unibuc.book_app.exception.BadRequestException;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers for keyset ({@code ?after=<id>&limit=<n>}) pagination.
+ * <p>
+ * Pages are read with {@code WHERE id > :after ORDER BY id} so every page is a
+ * primary-key range scan, no matter how deep the client has paged. One extra row
+ * is requested to find out whether a next page exists without a count query. The
+ * cursor handed back is the id of the last row, or whatever else a listing in another
+ * order needs to resume after that row.
+ */
+public final class CursorPagination {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+
+    private CursorPagination() {
+    }
+
+    public static int after(Integer after) {
+        if (after == null) {
+            return 0;
+        }
+        if (after < 0) {
+            throw new BadRequestException("after cannot be less than 0");
+        }
+        return after;
+    }
+
+    public static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException(String.format("limit must be between 1 and %d", MAX_LIMIT));
+        }
+        return limit;
+    }
+
+    public static Limit lookahead(int limit) {
+        return Limit.of(limit + 1);
+    }
+
+    public static <E, D> CursorPageDto<D> page(List<E> rows, int limit, Function<E, ?> cursorOf, Function<E, D> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? String.valueOf(cursorOf.apply(pageRows.getLast())) : null;
+
+        return new CursorPageDto<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -1,27 +1,46 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.*;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.AuthorMapper;
-import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.exception.PreconditionFailedException;
 import com.unibuc.book_app.mapper.EditorMapper;
 import com.unibuc.book_app.model.Editor;
 import com.unibuc.book_app.repository.BookAuthorEditorRepository;
 import com.unibuc.book_app.repository.EditorRepository;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import com.unibuc.book_app.singleflight.SingleFlight;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.EDITOR)
 public class EditorService {
     private final EditorRepository editorRepository;
     private final EditorMapper editorMapper;
     private final BookAuthorEditorRepository bookAuthorEditorRepository;
-    private final BookMapper bookMapper;
-    private final AuthorMapper authorMapper;
+    private final SearchService searchService;
+    private final ExistenceFilterService existenceFilterService;
+    private final CollaborationService collaborationService;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
 
+    @SingleFlight
+    @Transactional(readOnly = true)
     public List<EditorResponseDto> findAllEditors() {
         return editorRepository
                 .findAll()
@@ -30,46 +49,146 @@ public class EditorService {
                 .toList();
     }
 
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public CursorPageDto<EditorResponseDto> findEditorsPage(Integer after, Integer limit) {
+        int pageLimit = CursorPagination.limit(limit);
+        return CursorPagination.page(
+                editorRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(after),
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit,
+                Editor::getId,
+                editorMapper::toResponseDto
+        );
+    }
+
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllEditors(String fields) {
+        return sparseFieldsetRepository.findAll(
+                Editor.class,
+                Fieldsets.parse(fields, EditorResponseDto.class),
+                Specification.unrestricted(),
+                Fieldsets.BY_ID,
+                Limit.unlimited()
+        );
+    }
+
+    @SingleFlight
+    @Transactional(readOnly = true)
+    public CursorPageDto<Map<String, Object>> findEditorsPage(String fields, Integer after, Integer limit) {
+        List<String> columns = Fieldsets.parse(fields, EditorResponseDto.class);
+        int pageLimit = CursorPagination.limit(limit);
+        return Fieldsets.page(
+                sparseFieldsetRepository.findAll(
+                        Editor.class,
+                        columns,
+                        Fieldsets.idAfter(CursorPagination.after(after)),
+                        Fieldsets.BY_ID,
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit
+        );
+    }
+
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.EDITOR_BOOKS, key = "#editorId")
+    @Transactional(readOnly = true)
     public List<BookSummaryDto> findAllBooksByEditorId(Integer editorId) {
-        return bookAuthorEditorRepository.findAllBooksByEditorId(editorId)
-                .stream()
-                .map(bookMapper::toSummaryDto)
-                .toList();
+        return bookAuthorEditorRepository.findAllBooksByEditorId(editorId);
     }
 
     public List<AuthorSummaryDto> findAllAuthorsByEditorId(Integer editorId) {
-        return bookAuthorEditorRepository.findAllAuthorsByEditorId(editorId)
-                .stream()
-                .map(authorMapper::toSummaryDto)
-                .toList();
+        return collaborationService.findAllAuthorsByEditorId(editorId);
     }
 
+    @Transactional(readOnly = true)
     public Editor findEditorEntityById(Integer editorId) {
-        return editorRepository.findById(editorId).orElseThrow(
+        return findEditor(editorId).orElseThrow(
                 () -> new NotFoundException(String.format("Editor with id %d not found", editorId))
         );
     }
 
+    @Transactional(readOnly = true)
+    public Set<Integer> findExistingEditorIds(Collection<Integer> editorIds) {
+        if (editorIds.isEmpty()) {
+            return Set.of();
+        }
+        return editorRepository.findAllIdsIn(editorIds);
+    }
+
+    public Editor getEditorReference(Integer editorId) {
+        return editorRepository.getReferenceById(editorId);
+    }
+
+    @SingleFlight
+    @Cacheable(cacheNames = CacheConfig.EDITORS, key = "#editorId")
+    @Transactional(readOnly = true)
     public EditorResponseDto findEditorById(Integer editorId) {
-        return editorMapper.toResponseDto(editorRepository.findById(editorId).orElseThrow(
+        return editorMapper.toResponseDto(findEditor(editorId).orElseThrow(
                 () -> new NotFoundException(String.format("Editor with id %d not found", editorId))
         ));
     }
 
+    @Transactional(readOnly = true)
+    public Long findEditorVersion(Integer editorId) {
+        Optional<Long> version = existenceFilterService.isEditorMissing(editorId)
+                ? Optional.empty()
+                : editorRepository.findVersionById(editorId);
+        return version.orElseThrow(
+                () -> new NotFoundException(String.format("Editor with id %d not found", editorId))
+        );
+    }
+
+    @Transactional
     public EditorResponseDto createEditor(EditorCreateDto editorCreateDto) {
         Editor editor = editorMapper.toEntity(editorCreateDto);
-        return editorMapper.toResponseDto(editorRepository.save(editor));
+        Editor savedEditor = editorRepository.save(editor);
+        existenceFilterService.addEditor(savedEditor.getId());
+        searchService.indexEditor(savedEditor);
+        collaborationService.indexEditor(savedEditor);
+        return editorMapper.toResponseDto(savedEditor);
     }
 
-    public EditorResponseDto updateEditor(Integer editorId, EditorUpdateDto editorUpdateDto) {
-        Editor editor = editorRepository.findById(editorId).orElseThrow(
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EDITORS, key = "#editorId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_EDITORS, allEntries = true)
+    })
+    @Transactional
+    public EditorResponseDto updateEditor(Integer editorId, EditorUpdateDto editorUpdateDto, Long expectedVersion) {
+        Editor editor = findEditor(editorId).orElseThrow(
                 () -> new NotFoundException(String.format("Editor with id %d not found", editorId))
         );
+        if (expectedVersion != null && !expectedVersion.equals(editor.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("Editor with id %d is at version %d, not %d", editorId, editor.getVersion(), expectedVersion)
+            );
+        }
         editorMapper.updateEntityFromDto(editorUpdateDto, editor);
-        return editorMapper.toResponseDto(editorRepository.save(editor));
+        Editor savedEditor = editorRepository.saveAndFlush(editor);
+        searchService.indexEditor(savedEditor);
+        collaborationService.indexEditor(savedEditor);
+        return editorMapper.toResponseDto(savedEditor);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.EDITORS, CacheConfig.EDITOR_BOOKS}, key = "#editorId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_EDITORS, allEntries = true)
+    })
+    @Transactional
     public void deleteEditor(Integer editorId) {
         editorRepository.deleteById(editorId);
+        existenceFilterService.removeEditor(editorId);
+        searchService.removeEditor(editorId);
+        collaborationService.removeEditor(editorId);
+    }
+
+    private Optional<Editor> findEditor(Integer editorId) {
+        if (existenceFilterService.isEditorMissing(editorId)) {
+            return Optional.empty();
+        }
+        return editorRepository.findById(editorId);
     }
 }
@@ -0,0 +1,141 @@
+package com.unibuc.book_app.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bloom filter of the keys of one table that can answer "definitely missing".
+ * <p>
+ * Until the first load finishes every key counts as possibly present, so lookups fall
+ * through to the database. Keys can't be removed from a Bloom filter: deletes only count
+ * towards a rebuild, and so does outgrowing the capacity the filter was sized for. Keys are
+ * only added once their row has committed. The queue of a rebuild is in place before it
+ * reads the table, so every add either reaches a row the read will see, or is queued and
+ * replayed into the new filter both before and after it is swapped in. Either way a key
+ * committed during the read is never lost.
+ * <p>
+ * For keys that grow, like generated ids, a "missing" answer only counts up to the highest
+ * key of the last load. Rows created since then, by this instance or anyone else, are above
+ * it and always fall through to the database. Keys without an order, like isbns, rely on
+ * the periodic rebuild alone.
+ */
+@Slf4j
+final class ExistenceFilter<K> {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final String name;
+    private final Supplier<List<K>> loader;
+    private final ToLongFunction<K> hasher;
+    private final Comparator<K> order;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicInteger added = new AtomicInteger();
+    private final AtomicInteger removed = new AtomicInteger();
+    private volatile Loaded<K> loaded;
+    private volatile Queue<K> pending;
+
+    // order is null for keys that don't grow
+    ExistenceFilter(String name, Supplier<List<K>> loader, ToLongFunction<K> hasher, Comparator<K> order) {
+        this.name = name;
+        this.loader = loader;
+        this.hasher = hasher;
+        this.order = order;
+    }
+
+    boolean isMissing(K key) {
+        Loaded<K> current = loaded;
+        if (key == null || current == null) {
+            return false;
+        }
+        if (order != null && (current.lastKey() == null || order.compare(key, current.lastKey()) > 0)) {
+            return false;
+        }
+        return !current.filter().mightContain(hasher.applyAsLong(key));
+    }
+
+    // Queue first, filter second: the rebuild swaps the filter in before its last drain of the queue
+    void add(K key) {
+        if (key == null) {
+            return;
+        }
+        Queue<K> queue = pending;
+        if (queue != null) {
+            queue.add(key);
+        }
+        Loaded<K> current = loaded;
+        if (current != null) {
+            current.filter().put(hasher.applyAsLong(key));
+            if (added.incrementAndGet() > current.filter().capacity()) {
+                rebuildAsync();
+            }
+        }
+    }
+
+    void remove() {
+        Loaded<K> current = loaded;
+        if (current != null && removed.incrementAndGet() > current.filter().capacity() / 2) {
+            rebuildAsync();
+        }
+    }
+
+    void rebuild() {
+        Queue<K> queue = startRebuild();
+        if (queue != null) {
+            load(queue);
+        }
+    }
+
+    // Claims the rebuild and opens its queue on the calling thread, before anything reads the table
+    private Queue<K> startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return null;
+        }
+        Queue<K> queue = new ConcurrentLinkedQueue<>();
+        pending = queue;
+        return queue;
+    }
+
+    private void load(Queue<K> queue) {
+        try {
+            List<K> keys = loader.get();
+            BloomFilter next = new BloomFilter(Math.max(MIN_CAPACITY, 2 * keys.size()), FALSE_POSITIVE_RATE);
+            keys.forEach(key -> next.put(hasher.applyAsLong(key)));
+            drain(queue, next);
+            added.set(keys.size());
+            removed.set(0);
+            loaded = new Loaded<>(next, order != null ? keys.stream().max(order).orElse(null) : null);
+            drain(queue, next);
+            log.info("Loaded {} {} into the existence filter", keys.size(), name);
+        } catch (RuntimeException ex) {
+            log.warn("Could not load the {} existence filter, lookups fall through to the database", name, ex);
+        } finally {
+            pending = null;
+            rebuilding.set(false);
+        }
+    }
+
+    private void drain(Queue<K> queue, BloomFilter next) {
+        for (K key = queue.poll(); key != null; key = queue.poll()) {
+            next.put(hasher.applyAsLong(key));
+        }
+    }
+
+    private void rebuildAsync() {
+        Queue<K> queue = startRebuild();
+        if (queue != null) {
+            Thread.ofVirtual().name("existence-filter-" + name).start(() -> load(queue));
+        }
+    }
+
+    // The filter and the highest key it was loaded with are swapped in together
+    private record Loaded<K>(BloomFilter filter, K lastKey) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.repository.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Negative lookup cache: answers "this id (or isbn) does not exist" without a query.
+ * <p>
+ * The filters assume this instance is the only writer: between loads they only learn about
+ * rows created through its own services. Rows written by another instance, a migration or
+ * a manual fix are covered two ways. Ids above the highest id of the last load are never
+ * reported missing, so new rows always reach the database. Every filter is also reloaded
+ * every book-app.existence-filter.refresh-interval (10 minutes by default), which bounds
+ * how long an isbn, or an id written below that highest id, can look missing. Turn the
+ * filters off with book-app.existence-filter.enabled=false when that is too long.
+ * Adds and removes wait for the write to commit: a rebuild that reads the table while the
+ * write is still open would not see its key, and an add made before the commit could land
+ * in the filter that rebuild is about to replace.
+ */
+@Service
+public class ExistenceFilterService {
+    private final boolean enabled;
+    private final ExistenceFilter<Integer> books;
+    private final ExistenceFilter<String> isbns;
+    private final ExistenceFilter<Integer> authors;
+    private final ExistenceFilter<Integer> editors;
+    private final ExistenceFilter<Integer> publishers;
+    private final ExistenceFilter<Integer> categories;
+    private final ExistenceFilter<Integer> translators;
+
+    public ExistenceFilterService(
+            BookRepository bookRepository,
+            AuthorRepository authorRepository,
+            EditorRepository editorRepository,
+            PublisherRepository publisherRepository,
+            CategoryRepository categoryRepository,
+            TranslatorRepository translatorRepository,
+            @Value("${book-app.existence-filter.enabled:true}") boolean enabled
+    ) {
+        this.enabled = enabled;
+        this.books = new ExistenceFilter<>("books", bookRepository::findAllIds, BloomFilter::hash, Comparator.naturalOrder());
+        this.isbns = new ExistenceFilter<>("isbns", bookRepository::findAllIsbns, BloomFilter::hash, null);
+        this.authors = new ExistenceFilter<>("authors", authorRepository::findAllIds, BloomFilter::hash, Comparator.naturalOrder());
+        this.editors = new ExistenceFilter<>("editors", editorRepository::findAllIds, BloomFilter::hash, Comparator.naturalOrder());
+        this.publishers = new ExistenceFilter<>("publishers", publisherRepository::findAllIds, BloomFilter::hash, Comparator.naturalOrder());
+        this.categories = new ExistenceFilter<>("categories", categoryRepository::findAllIds, BloomFilter::hash, Comparator.naturalOrder());
+        this.translators = new ExistenceFilter<>("translators", translatorRepository::findAllIds, BloomFilter::hash, Comparator.naturalOrder());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${book-app.existence-filter.refresh-interval:10m}",
+            fixedDelayString = "${book-app.existence-filter.refresh-interval:10m}"
+    )
+    public void buildFilters() {
+        if (enabled) {
+            List.of(books, isbns, authors, editors, publishers, categories, translators).forEach(ExistenceFilter::rebuild);
+        }
+    }
+
+    public boolean isBookMissing(Integer bookId) {
+        return books.isMissing(bookId);
+    }
+
+    public boolean isIsbnMissing(String isbn) {
+        return isbns.isMissing(isbn);
+    }
+
+    public void addBook(Book book) {
+        Integer bookId = book.getId();
+        String isbn = book.getIsbn();
+        AfterCommit.run(() -> {
+            books.add(bookId);
+            isbns.add(isbn);
+        });
+    }
+
+    public void addIsbn(String isbn) {
+        AfterCommit.run(() -> isbns.add(isbn));
+    }
+
+    public void removeBook(Integer bookId) {
+        AfterCommit.run(() -> {
+            books.remove();
+            isbns.remove();
+        });
+    }
+
+    public boolean isAuthorMissing(Integer authorId) {
+        return authors.isMissing(authorId);
+    }
+
+    public void addAuthor(Integer authorId) {
+        AfterCommit.run(() -> authors.add(authorId));
+    }
+
+    public void removeAuthor(Integer authorId) {
+        AfterCommit.run(authors::remove);
+    }
+
+    public boolean isEditorMissing(Integer editorId) {
+        return editors.isMissing(editorId);
+    }
+
+    public void addEditor(Integer editorId) {
+        AfterCommit.run(() -> editors.add(editorId));
+    }
+
+    public void removeEditor(Integer editorId) {
+        AfterCommit.run(editors::remove);
+    }
+
+    public boolean isPublisherMissing(Integer publisherId) {
+        return publishers.isMissing(publisherId);
+    }
+
+    public void addPublisher(Integer publisherId) {
+        AfterCommit.run(() -> publishers.add(publisherId));
+    }
+
+    public void removePublisher(Integer publisherId) {
+        AfterCommit.run(publishers::remove);
+    }
+
+    public boolean isCategoryMissing(Integer categoryId) {
+        return categories.isMissing(categoryId);
+    }
+
+    public void addCategory(Integer categoryId) {
+        AfterCommit.run(() -> categories.add(categoryId));
+    }
+
+    public void removeCategory(Integer categoryId) {
+        AfterCommit.run(categories::remove);
+    }
+
+    public boolean isTranslatorMissing(Integer translatorId) {
+        return translators.isMissing(translatorId);
+    }
+
+    public void addTranslator(Integer translatorId) {
+        AfterCommit.run(() -> translators.add(translatorId));
+    }
+
+    public void removeTranslator(Integer translatorId) {
+        AfterCommit.run(translators::remove);
+    }
+}
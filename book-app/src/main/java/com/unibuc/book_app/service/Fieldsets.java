@@ -0,0 +1,73 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.CursorPageDto;
+import com.unibuc.book_app.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Helpers for sparse fieldsets ({@code ?fields=id,name,price}).
+ * <p>
+ * The fields a client can ask for are the properties of the response DTO of the listing, and
+ * a property holding another DTO, like the translator of a book, is asked for as a whole. The
+ * requested properties are turned into the columns to select, so a listing that leaves out a
+ * property neither reads nor writes it. The id is always included, as it is the page cursor.
+ */
+public final class Fieldsets {
+    public static final Sort BY_ID = Sort.by("id");
+
+    private Fieldsets() {
+    }
+
+    // The columns to select for the requested properties, in the order the DTO declares them
+    public static List<String> parse(String fields, Class<?> responseType) {
+        if (fields.isBlank()) {
+            throw new BadRequestException("fields cannot be blank");
+        }
+        List<Field> properties = properties(responseType);
+        List<String> names = properties.stream().map(Field::getName).toList();
+
+        Set<String> requested = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (!names.contains(name)) {
+                throw new BadRequestException(String.format(
+                        "Unknown field %s, fields must be a comma-separated list of %s", name, String.join(", ", names)
+                ));
+            }
+            requested.add(name);
+        }
+
+        List<String> columns = new ArrayList<>();
+        for (Field property : properties) {
+            if (!property.getName().equals("id") && !requested.contains(property.getName())) {
+                continue;
+            }
+            if (property.getType().getPackage() == responseType.getPackage()) {
+                properties(property.getType()).forEach(nested -> columns.add(property.getName() + "." + nested.getName()));
+            } else {
+                columns.add(property.getName());
+            }
+        }
+        return columns;
+    }
+
+    public static <E> Specification<E> idAfter(int after) {
+        return (root, query, builder) -> builder.greaterThan(root.get("id"), after);
+    }
+
+    public static CursorPageDto<Map<String, Object>> page(List<Map<String, Object>> rows, int limit) {
+        return CursorPagination.page(rows, limit, row -> row.get("id"), Function.identity());
+    }
+
+    private static List<Field> properties(Class<?> type) {
+        return Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .toList();
+    }
+}
@@ -0,0 +1,40 @@
+package com.unibuc.book_app.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Gzipped JSON document tagged with the collection version it was built from. Small
+ * snapshots are kept on the heap, larger ones in a file that is sent with
+ * {@link FileChannel#transferTo}, which leaves the copy to the kernel whenever the target
+ * channel allows it.
+ */
+public record GzipSnapshot(String etag, long length, byte[] bytes, Path file) {
+
+    static GzipSnapshot inMemory(String etag, byte[] bytes) {
+        return new GzipSnapshot(etag, bytes.length, bytes, null);
+    }
+
+    static GzipSnapshot inFile(String etag, Path file) throws IOException {
+        return new GzipSnapshot(etag, Files.size(file), null, file);
+    }
+
+    public void transferTo(WritableByteChannel target) throws IOException {
+        if (bytes != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            for (long position = 0; position < length; ) {
+                position += channel.transferTo(position, length - position, target);
+            }
+        }
+    }
+}
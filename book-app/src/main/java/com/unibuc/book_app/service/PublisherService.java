@@ -1,28 +1,47 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
 import com.unibuc.book_app.dto.PublisherCreateDto;
 import com.unibuc.book_app.dto.PublisherResponseDto;
 import com.unibuc.book_app.dto.PublisherUpdateDto;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.exception.PreconditionFailedException;
 import com.unibuc.book_app.mapper.PublisherMapper;
 import com.unibuc.book_app.model.Publisher;
 import com.unibuc.book_app.repository.BookPublisherRepository;
 import com.unibuc.book_app.repository.PublisherRepository;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.PUBLISHER)
 public class PublisherService {
     private final PublisherRepository publisherRepository;
     private final PublisherMapper publisherMapper;
     private final BookPublisherRepository bookPublisherRepository;
-    private final BookMapper bookMapper;
+    private final SearchService searchService;
+    private final ExistenceFilterService existenceFilterService;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
 
+    @Transactional(readOnly = true)
     public List<PublisherResponseDto> findAllPublishers() {
         return publisherRepository
                 .findAll()
@@ -31,39 +50,134 @@ public class PublisherService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<PublisherResponseDto> findPublishersPage(Integer after, Integer limit) {
+        int pageLimit = CursorPagination.limit(limit);
+        return CursorPagination.page(
+                publisherRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(after),
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit,
+                Publisher::getId,
+                publisherMapper::toResponseDto
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllPublishers(String fields) {
+        return sparseFieldsetRepository.findAll(
+                Publisher.class,
+                Fieldsets.parse(fields, PublisherResponseDto.class),
+                Specification.unrestricted(),
+                Fieldsets.BY_ID,
+                Limit.unlimited()
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<Map<String, Object>> findPublishersPage(String fields, Integer after, Integer limit) {
+        List<String> columns = Fieldsets.parse(fields, PublisherResponseDto.class);
+        int pageLimit = CursorPagination.limit(limit);
+        return Fieldsets.page(
+                sparseFieldsetRepository.findAll(
+                        Publisher.class,
+                        columns,
+                        Fieldsets.idAfter(CursorPagination.after(after)),
+                        Fieldsets.BY_ID,
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit
+        );
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PUBLISHER_BOOKS, key = "#publisherId")
+    @Transactional(readOnly = true)
     public List<BookSummaryDto> findAllBooksByPublisherId(Integer publisherId) {
-        return bookPublisherRepository.findAllBooksByPublisherId(publisherId)
-                .stream()
-                .map(bookMapper::toSummaryDto)
-                .toList();
+        return bookPublisherRepository.findAllBooksByPublisherId(publisherId);
     }
 
+    @Transactional(readOnly = true)
     public Publisher findPublisherEntityById(Integer publisherId) {
-        return publisherRepository.findById(publisherId).orElseThrow(
+        return findPublisher(publisherId).orElseThrow(
                 () -> new NotFoundException(String.format("Publisher with id %d not found", publisherId))
         );
     }
 
+    @Transactional(readOnly = true)
+    public Set<Integer> findExistingPublisherIds(Collection<Integer> publisherIds) {
+        if (publisherIds.isEmpty()) {
+            return Set.of();
+        }
+        return publisherRepository.findAllIdsIn(publisherIds);
+    }
+
+    public Publisher getPublisherReference(Integer publisherId) {
+        return publisherRepository.getReferenceById(publisherId);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PUBLISHERS, key = "#publisherId")
+    @Transactional(readOnly = true)
     public PublisherResponseDto findPublisherById(Integer publisherId) {
-        return publisherMapper.toResponseDto(publisherRepository.findById(publisherId).orElseThrow(
+        return publisherMapper.toResponseDto(findPublisher(publisherId).orElseThrow(
                 () -> new NotFoundException(String.format("Publisher with id %d not found", publisherId))
         ));
     }
 
+    @Transactional(readOnly = true)
+    public Long findPublisherVersion(Integer publisherId) {
+        Optional<Long> version = existenceFilterService.isPublisherMissing(publisherId)
+                ? Optional.empty()
+                : publisherRepository.findVersionById(publisherId);
+        return version.orElseThrow(
+                () -> new NotFoundException(String.format("Publisher with id %d not found", publisherId))
+        );
+    }
+
+    @Transactional
     public PublisherResponseDto createPublisher(PublisherCreateDto publisherCreateDto) {
         Publisher publisher = publisherMapper.toEntity(publisherCreateDto);
-        return publisherMapper.toResponseDto(publisherRepository.save(publisher));
+        Publisher savedPublisher = publisherRepository.save(publisher);
+        existenceFilterService.addPublisher(savedPublisher.getId());
+        searchService.indexPublisher(savedPublisher);
+        return publisherMapper.toResponseDto(savedPublisher);
     }
 
-    public PublisherResponseDto updatePublisher(Integer publisherId, PublisherUpdateDto publisherUpdateDto) {
-        Publisher publisher = publisherRepository.findById(publisherId).orElseThrow(
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PUBLISHERS, key = "#publisherId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_PUBLISHERS, allEntries = true)
+    })
+    @Transactional
+    public PublisherResponseDto updatePublisher(Integer publisherId, PublisherUpdateDto publisherUpdateDto, Long expectedVersion) {
+        Publisher publisher = findPublisher(publisherId).orElseThrow(
                 () -> new NotFoundException(String.format("Publisher with id %d not found", publisherId))
         );
+        if (expectedVersion != null && !expectedVersion.equals(publisher.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("Publisher with id %d is at version %d, not %d", publisherId, publisher.getVersion(), expectedVersion)
+            );
+        }
         publisherMapper.updateEntityFromDto(publisherUpdateDto, publisher);
-        return publisherMapper.toResponseDto(publisherRepository.save(publisher));
+        Publisher savedPublisher = publisherRepository.saveAndFlush(publisher);
+        searchService.indexPublisher(savedPublisher);
+        return publisherMapper.toResponseDto(savedPublisher);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.PUBLISHERS, CacheConfig.PUBLISHER_BOOKS}, key = "#publisherId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_PUBLISHERS, allEntries = true)
+    })
+    @Transactional
     public void deletePublisher(Integer publisherId) {
         publisherRepository.deleteById(publisherId);
+        existenceFilterService.removePublisher(publisherId);
+        searchService.removePublisher(publisherId);
+    }
+
+    private Optional<Publisher> findPublisher(Integer publisherId) {
+        if (existenceFilterService.isPublisherMissing(publisherId)) {
+            return Optional.empty();
+        }
+        return publisherRepository.findById(publisherId);
     }
 }
@@ -0,0 +1,295 @@
+package com.unibuc.book_app.service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over books, scored with BM25.
+ * <p>
+ * Every book is one document made of its own name and isbn plus the names of the
+ * authors, editors, publishers and categories it is linked to. Those names are kept
+ * once per entity and every link remembers the rows that created it (a book keeps an
+ * author for as long as one of its book-author-editor rows does), so renaming an author
+ * only re-tokenizes the books that reference it and repeated link events are harmless.
+ * Postings are parallel primitive int arrays (book id, term frequency) per term, sorted by
+ * book id, so re-tokenizing a book finds it in the postings of a common term by binary search.
+ * A link to a book that is not indexed yet only records the link, so loading the refs and
+ * links before the books tokenizes each book once.
+ */
+final class SearchIndex {
+    enum RefType {
+        AUTHOR, EDITOR, PUBLISHER, CATEGORY
+    }
+
+    record Hit(int bookId, String name, double score) {
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}-]+");
+    private static final Pattern ISBN = Pattern.compile("[0-9xX]+(-[0-9xX]+)+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+
+    private final Map<Integer, String> bookNames = new HashMap<>();
+    private final Map<Integer, String> bookTexts = new HashMap<>();
+    private final Map<Integer, int[]> bookTerms = new HashMap<>();
+    private final Map<Integer, Integer> bookLengths = new HashMap<>();
+    private long totalLength;
+
+    private final Map<Long, String> refTexts = new HashMap<>();
+    private final Map<Integer, Map<Long, Set<Object>>> bookRefs = new HashMap<>();
+    private final Map<Long, Set<Integer>> refBooks = new HashMap<>();
+
+    void putBook(int bookId, String name, String isbn) {
+        lock.writeLock().lock();
+        try {
+            bookNames.put(bookId, name);
+            bookTexts.put(bookId, name + " " + isbn);
+            reindex(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeBook(int bookId) {
+        lock.writeLock().lock();
+        try {
+            unindex(bookId);
+            bookNames.remove(bookId);
+            bookTexts.remove(bookId);
+            Map<Long, Set<Object>> refs = bookRefs.remove(bookId);
+            if (refs != null) {
+                for (Long ref : refs.keySet()) {
+                    Set<Integer> books = refBooks.get(ref);
+                    if (books != null) {
+                        books.remove(bookId);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void putRef(RefType type, int id, String text) {
+        lock.writeLock().lock();
+        try {
+            long ref = refKey(type, id);
+            refTexts.put(ref, text);
+            refBooks.getOrDefault(ref, Set.of()).forEach(this::reindex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeRef(RefType type, int id) {
+        lock.writeLock().lock();
+        try {
+            long ref = refKey(type, id);
+            refTexts.remove(ref);
+            Set<Integer> books = refBooks.remove(ref);
+            if (books != null) {
+                for (Integer bookId : books) {
+                    Map<Long, Set<Object>> refs = bookRefs.get(bookId);
+                    if (refs != null) {
+                        refs.remove(ref);
+                    }
+                    reindex(bookId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void link(int bookId, RefType type, int id, Object source) {
+        lock.writeLock().lock();
+        try {
+            long ref = refKey(type, id);
+            Set<Object> sources = bookRefs.computeIfAbsent(bookId, key -> new HashMap<>())
+                    .computeIfAbsent(ref, key -> new HashSet<>());
+            if (sources.add(source) && sources.size() == 1) {
+                refBooks.computeIfAbsent(ref, key -> new HashSet<>()).add(bookId);
+                reindex(bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void unlink(int bookId, RefType type, int id, Object source) {
+        lock.writeLock().lock();
+        try {
+            long ref = refKey(type, id);
+            Map<Long, Set<Object>> refs = bookRefs.get(bookId);
+            Set<Object> sources = refs != null ? refs.get(ref) : null;
+            if (sources != null && sources.remove(source) && sources.isEmpty()) {
+                refs.remove(ref);
+                Set<Integer> books = refBooks.get(ref);
+                if (books != null) {
+                    books.remove(bookId);
+                }
+                reindex(bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Hit> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            int documents = bookTerms.size();
+            if (documents == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents;
+
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : new LinkedHashSet<>(tokenize(query))) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    continue;
+                }
+                Postings termPostings = postings.get(termId);
+                double idf = Math.log(1 + (documents - termPostings.size + 0.5) / (termPostings.size + 0.5));
+                for (int i = 0; i < termPostings.size; i++) {
+                    int bookId = termPostings.books[i];
+                    int frequency = termPostings.frequencies[i];
+                    double norm = K1 * (1 - B + B * bookLengths.get(bookId) / averageLength);
+                    scores.merge(bookId, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                }
+            }
+
+            return scores.entrySet()
+                    .stream()
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> new Hit(entry.getKey(), bookNames.get(entry.getKey()), entry.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return bookTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (ISBN.matcher(token).matches()) {
+                tokens.add(token.replace("-", ""));
+                continue;
+            }
+            for (String part : token.split("-")) {
+                if (!part.isEmpty()) {
+                    tokens.add(part);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private void reindex(int bookId) {
+        unindex(bookId);
+        String text = bookTexts.get(bookId);
+        if (text == null) {
+            return;
+        }
+
+        List<String> tokens = new ArrayList<>(tokenize(text));
+        bookRefs.getOrDefault(bookId, Map.of())
+                .keySet()
+                .forEach(ref -> tokens.addAll(tokenize(refTexts.get(ref))));
+
+        Map<Integer, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            int termId = termIds.computeIfAbsent(token, key -> {
+                postings.add(new Postings());
+                return postings.size() - 1;
+            });
+            frequencies.merge(termId, 1, Integer::sum);
+        }
+
+        int[] terms = new int[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : frequencies.entrySet()) {
+            postings.get(entry.getKey()).add(bookId, entry.getValue());
+            terms[i++] = entry.getKey();
+        }
+        bookTerms.put(bookId, terms);
+        bookLengths.put(bookId, tokens.size());
+        totalLength += tokens.size();
+    }
+
+    private void unindex(int bookId) {
+        int[] terms = bookTerms.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (int termId : terms) {
+            postings.get(termId).remove(bookId);
+        }
+        totalLength -= bookLengths.remove(bookId);
+    }
+
+    private static long refKey(RefType type, int id) {
+        return ((long) type.ordinal() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static final class Postings {
+        private int[] books = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int bookId, int frequency) {
+            int i = Arrays.binarySearch(books, 0, size, bookId);
+            if (i >= 0) {
+                frequencies[i] = frequency;
+                return;
+            }
+            i = -i - 1;
+            if (size == books.length) {
+                books = Arrays.copyOf(books, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(books, i, books, i + 1, size - i);
+            System.arraycopy(frequencies, i, frequencies, i + 1, size - i);
+            books[i] = bookId;
+            frequencies[i] = frequency;
+            size++;
+        }
+
+        void remove(int bookId) {
+            int i = Arrays.binarySearch(books, 0, size, bookId);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(books, i + 1, books, i, size - i - 1);
+            System.arraycopy(frequencies, i + 1, frequencies, i, size - i - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.SearchResultDto;
+import com.unibuc.book_app.exception.BadRequestException;
+import com.unibuc.book_app.model.*;
+import com.unibuc.book_app.model.BookAuthorEditor.BookAuthorEditorId;
+import com.unibuc.book_app.repository.*;
+import com.unibuc.book_app.service.SearchIndex.RefType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final EditorRepository editorRepository;
+    private final PublisherRepository publisherRepository;
+    private final CategoryRepository categoryRepository;
+    private final BookAuthorEditorRepository bookAuthorEditorRepository;
+    private final BookCategoryRepository bookCategoryRepository;
+    private final BookPublisherRepository bookPublisherRepository;
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        // Books come last, so each one is tokenized once with all of its refs instead of once per link
+        authorRepository.findAll().forEach(this::indexAuthor);
+        editorRepository.findAll().forEach(this::indexEditor);
+        publisherRepository.findAll().forEach(this::indexPublisher);
+        categoryRepository.findAll().forEach(this::indexCategory);
+        bookAuthorEditorRepository.findAllIds().forEach(id -> linkBookAuthorEditor(id.getBookId(), id.getAuthorId(), id.getEditorId()));
+        bookCategoryRepository.findAllIds().forEach(id -> linkBookCategory(id.getBookId(), id.getCategoryId()));
+        bookPublisherRepository.findAllIds().forEach(id -> linkBookPublisher(id.getBookId(), id.getPublisherId()));
+        bookRepository.findAll().forEach(this::indexBook);
+    }
+
+    public List<SearchResultDto> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q cannot be blank");
+        }
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            throw new BadRequestException(String.format("limit must be between 1 and %d", MAX_LIMIT));
+        }
+
+        return searchIndex.search(query, limit != null ? limit : DEFAULT_LIMIT)
+                .stream()
+                .map(hit -> new SearchResultDto(hit.bookId(), hit.name(), hit.score()))
+                .toList();
+    }
+
+    // The write hooks below only change the index once the calling transaction has committed
+    public void indexBook(Book book) {
+        Integer bookId = book.getId();
+        String name = book.getName();
+        String isbn = book.getIsbn();
+        AfterCommit.run(() -> searchIndex.putBook(bookId, name, isbn));
+    }
+
+    public void removeBook(Integer bookId) {
+        AfterCommit.run(() -> searchIndex.removeBook(bookId));
+    }
+
+    public void indexAuthor(Author author) {
+        putRef(RefType.AUTHOR, author.getId(), author.getFirstName() + " " + author.getLastName());
+    }
+
+    public void removeAuthor(Integer authorId) {
+        removeRef(RefType.AUTHOR, authorId);
+    }
+
+    public void indexEditor(Editor editor) {
+        putRef(RefType.EDITOR, editor.getId(), editor.getFirstName() + " " + editor.getLastName());
+    }
+
+    public void removeEditor(Integer editorId) {
+        removeRef(RefType.EDITOR, editorId);
+    }
+
+    public void indexPublisher(Publisher publisher) {
+        putRef(RefType.PUBLISHER, publisher.getId(), publisher.getName());
+    }
+
+    public void removePublisher(Integer publisherId) {
+        removeRef(RefType.PUBLISHER, publisherId);
+    }
+
+    public void indexCategory(Category category) {
+        putRef(RefType.CATEGORY, category.getId(), category.getName());
+    }
+
+    public void removeCategory(Integer categoryId) {
+        removeRef(RefType.CATEGORY, categoryId);
+    }
+
+    public void linkBookAuthorEditor(Integer bookId, Integer authorId, Integer editorId) {
+        BookAuthorEditorId source = new BookAuthorEditorId(bookId, authorId, editorId);
+        AfterCommit.run(() -> {
+            searchIndex.link(bookId, RefType.AUTHOR, authorId, source);
+            searchIndex.link(bookId, RefType.EDITOR, editorId, source);
+        });
+    }
+
+    public void unlinkBookAuthorEditor(Integer bookId, Integer authorId, Integer editorId) {
+        BookAuthorEditorId source = new BookAuthorEditorId(bookId, authorId, editorId);
+        AfterCommit.run(() -> {
+            searchIndex.unlink(bookId, RefType.AUTHOR, authorId, source);
+            searchIndex.unlink(bookId, RefType.EDITOR, editorId, source);
+        });
+    }
+
+    public void linkBookCategory(Integer bookId, Integer categoryId) {
+        AfterCommit.run(() -> searchIndex.link(bookId, RefType.CATEGORY, categoryId, categoryId));
+    }
+
+    public void unlinkBookCategory(Integer bookId, Integer categoryId) {
+        AfterCommit.run(() -> searchIndex.unlink(bookId, RefType.CATEGORY, categoryId, categoryId));
+    }
+
+    public void linkBookPublisher(Integer bookId, Integer publisherId) {
+        AfterCommit.run(() -> searchIndex.link(bookId, RefType.PUBLISHER, publisherId, publisherId));
+    }
+
+    public void unlinkBookPublisher(Integer bookId, Integer publisherId) {
+        AfterCommit.run(() -> searchIndex.unlink(bookId, RefType.PUBLISHER, publisherId, publisherId));
+    }
+
+    private void putRef(RefType type, Integer refId, String name) {
+        AfterCommit.run(() -> searchIndex.putRef(type, refId, name));
+    }
+
+    private void removeRef(RefType type, Integer refId) {
+        AfterCommit.run(() -> searchIndex.removeRef(type, refId));
+    }
+}
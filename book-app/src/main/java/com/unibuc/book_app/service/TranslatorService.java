@@ -1,26 +1,47 @@
 package com.unibuc.book_app.service;
 
+import com.unibuc.book_app.configuration.CacheConfig;
 import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
 import com.unibuc.book_app.dto.TranslatorCreateDto;
 import com.unibuc.book_app.dto.TranslatorResponseDto;
 import com.unibuc.book_app.dto.TranslatorUpdateDto;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.exception.PreconditionFailedException;
 import com.unibuc.book_app.mapper.TranslatorMapper;
 import com.unibuc.book_app.model.Translator;
+import com.unibuc.book_app.repository.BookRepository;
 import com.unibuc.book_app.repository.TranslatorRepository;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import com.unibuc.book_app.versioning.Modifies;
+import com.unibuc.book_app.versioning.Table;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Modifies(Table.TRANSLATOR)
 public class TranslatorService {
     private final TranslatorRepository translatorRepository;
     private final TranslatorMapper translatorMapper;
-    private final BookMapper bookMapper;
+    private final BookRepository bookRepository;
+    private final ExistenceFilterService existenceFilterService;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
 
+    @Transactional(readOnly = true)
     public List<TranslatorResponseDto> findAllTranslators() {
         return translatorRepository
                 .findAll()
@@ -29,40 +50,130 @@ public class TranslatorService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<TranslatorResponseDto> findTranslatorsPage(Integer after, Integer limit) {
+        int pageLimit = CursorPagination.limit(limit);
+        return CursorPagination.page(
+                translatorRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(after),
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit,
+                Translator::getId,
+                translatorMapper::toResponseDto
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllTranslators(String fields) {
+        return sparseFieldsetRepository.findAll(
+                Translator.class,
+                Fieldsets.parse(fields, TranslatorResponseDto.class),
+                Specification.unrestricted(),
+                Fieldsets.BY_ID,
+                Limit.unlimited()
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<Map<String, Object>> findTranslatorsPage(String fields, Integer after, Integer limit) {
+        List<String> columns = Fieldsets.parse(fields, TranslatorResponseDto.class);
+        int pageLimit = CursorPagination.limit(limit);
+        return Fieldsets.page(
+                sparseFieldsetRepository.findAll(
+                        Translator.class,
+                        columns,
+                        Fieldsets.idAfter(CursorPagination.after(after)),
+                        Fieldsets.BY_ID,
+                        CursorPagination.lookahead(pageLimit)
+                ),
+                pageLimit
+        );
+    }
+
+    @Transactional(readOnly = true)
     public List<BookSummaryDto> findAllBooksByTranslatorId(Integer translatorId) {
-        return this.findTranslatorEntityById(translatorId)
-                .getBooks()
-                .stream()
-                .map(bookMapper::toSummaryDto)
-                .toList();
+        if (!translatorRepository.existsById(translatorId)) {
+            throw new NotFoundException(String.format("Translator with id %d not found", translatorId));
+        }
+        return bookRepository.findAllBooksByTranslatorId(translatorId);
     }
 
+    @Transactional(readOnly = true)
     public Translator findTranslatorEntityById(Integer translatorId) {
-        return translatorRepository.findById(translatorId).orElseThrow(
+        return findTranslator(translatorId).orElseThrow(
                 () -> new NotFoundException(String.format("Translator with id %d not found", translatorId))
         );
     }
 
+    @Transactional(readOnly = true)
+    public Map<Integer, Translator> findTranslatorEntitiesByIds(Collection<Integer> translatorIds) {
+        if (translatorIds.isEmpty()) {
+            return Map.of();
+        }
+        return translatorRepository.findAllById(translatorIds)
+                .stream()
+                .collect(Collectors.toMap(Translator::getId, Function.identity()));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TRANSLATORS, key = "#translatorId")
+    @Transactional(readOnly = true)
     public TranslatorResponseDto findTranslatorById(Integer translatorId) {
-        return translatorMapper.toResponseDto(translatorRepository.findById(translatorId).orElseThrow(
+        return translatorMapper.toResponseDto(findTranslator(translatorId).orElseThrow(
                 () -> new NotFoundException(String.format("Translator with id %d not found", translatorId))
         ));
     }
 
+    @Transactional(readOnly = true)
+    public Long findTranslatorVersion(Integer translatorId) {
+        Optional<Long> version = existenceFilterService.isTranslatorMissing(translatorId)
+                ? Optional.empty()
+                : translatorRepository.findVersionById(translatorId);
+        return version.orElseThrow(
+                () -> new NotFoundException(String.format("Translator with id %d not found", translatorId))
+        );
+    }
+
+    @Transactional
     public TranslatorResponseDto createTranslator(TranslatorCreateDto translatorCreateDto) {
         Translator translator = translatorMapper.toEntity(translatorCreateDto);
-        return translatorMapper.toResponseDto(translatorRepository.save(translator));
+        Translator savedTranslator = translatorRepository.save(translator);
+        existenceFilterService.addTranslator(savedTranslator.getId());
+        return translatorMapper.toResponseDto(savedTranslator);
     }
 
-    public TranslatorResponseDto updateTranslator(Integer translatorId, TranslatorUpdateDto translatorUpdateDto) {
-        Translator translator = translatorRepository.findById(translatorId).orElseThrow(
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TRANSLATORS, key = "#translatorId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    })
+    @Transactional
+    public TranslatorResponseDto updateTranslator(Integer translatorId, TranslatorUpdateDto translatorUpdateDto, Long expectedVersion) {
+        Translator translator = findTranslator(translatorId).orElseThrow(
                 () -> new NotFoundException(String.format("Translator with id %d not found", translatorId))
         );
+        if (expectedVersion != null && !expectedVersion.equals(translator.getVersion())) {
+            throw new PreconditionFailedException(
+                    String.format("Translator with id %d is at version %d, not %d", translatorId, translator.getVersion(), expectedVersion)
+            );
+        }
         translatorMapper.updateEntityFromDto(translatorUpdateDto, translator);
-        return translatorMapper.toResponseDto(translatorRepository.save(translator));
+        return translatorMapper.toResponseDto(translatorRepository.saveAndFlush(translator));
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TRANSLATORS, key = "#translatorId"),
+            @CacheEvict(cacheNames = CacheConfig.BOOKS, allEntries = true)
+    })
+    @Transactional
     public void deleteTranslator(Integer translatorId) {
         translatorRepository.deleteById(translatorId);
+        existenceFilterService.removeTranslator(translatorId);
+    }
+
+    private Optional<Translator> findTranslator(Integer translatorId) {
+        if (existenceFilterService.isTranslatorMissing(translatorId)) {
+            return Optional.empty();
+        }
+        return translatorRepository.findById(translatorId);
     }
 }
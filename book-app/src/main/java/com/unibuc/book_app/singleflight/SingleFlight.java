@@ -0,0 +1,17 @@
+package com.unibuc.book_app.singleflight;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read method whose concurrent calls with equal arguments may share one execution.
+ * <p>
+ * Only put it on methods that return detached data (DTOs), never managed entities, since
+ * every caller of a shared execution receives the same instance.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
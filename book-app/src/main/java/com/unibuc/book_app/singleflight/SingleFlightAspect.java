@@ -0,0 +1,77 @@
+package com.unibuc.book_app.singleflight;
+
+import com.unibuc.book_app.singleflight.SingleFlightGroup.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent calls to {@link SingleFlight} methods that have equal arguments.
+ * <p>
+ * The aspect sits just inside the method metrics and outside the cache and transaction
+ * advice, so a coalesced caller skips the cache lookup as well as the query. Any create,
+ * update or delete in the service layer drops the shared executions once it has committed,
+ * so a read issued after a write never reuses a result computed before it.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SingleFlightAspect {
+    private final MeterRegistry meterRegistry;
+    private final SingleFlightGroup group;
+    private final Map<Method, Map<Role, Counter>> counters = new ConcurrentHashMap<>();
+
+    public SingleFlightAspect(
+            MeterRegistry meterRegistry,
+            @Value("${book-app.single-flight.linger:10ms}") Duration linger
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.group = new SingleFlightGroup(linger);
+    }
+
+    @Around("@annotation(com.unibuc.book_app.singleflight.SingleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Map<Role, Counter> methodCounters = counters.computeIfAbsent(method, this::counters);
+        return group.execute(
+                new Key(method, Arrays.asList(joinPoint.getArgs())),
+                joinPoint::proceed,
+                role -> methodCounters.get(role).increment()
+        );
+    }
+
+    @After("execution(public * com.unibuc.book_app.service..*.create*(..))"
+            + " || execution(public * com.unibuc.book_app.service..*.update*(..))"
+            + " || execution(public * com.unibuc.book_app.service..*.delete*(..))")
+    public void forget() {
+        group.forget();
+    }
+
+    private Map<Role, Counter> counters(Method method) {
+        Map<Role, Counter> methodCounters = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            methodCounters.put(role, Counter.builder("app.singleflight.calls")
+                    .description("Calls to single-flight methods, by whether they ran the query or shared another call's result")
+                    .tags("class", method.getDeclaringClass().getSimpleName(), "method", method.getName(),
+                            "role", role.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        return methodCounters;
+    }
+
+    private record Key(Method method, List<Object> args) {
+    }
+}
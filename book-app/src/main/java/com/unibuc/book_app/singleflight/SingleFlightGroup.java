@@ -0,0 +1,88 @@
+package com.unibuc.book_app.singleflight;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Runs at most one execution per key at a time and hands its outcome to every caller
+ * that asks for the same key meanwhile.
+ * <p>
+ * A successful result stays shareable for the linger window after it completes, so a
+ * burst that arrives just behind the first query still rides on it. Failures are shared
+ * with the callers already waiting but never linger.
+ */
+final class SingleFlightGroup {
+    enum Role {
+        LEADER, COALESCED, LINGERED
+    }
+
+    @FunctionalInterface
+    interface Execution {
+        Object run() throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface Listener {
+        void joined(Role role);
+    }
+
+    private final Map<Object, Call> calls = new ConcurrentHashMap<>();
+    private final Duration linger;
+    private final Executor expiry;
+
+    SingleFlightGroup(Duration linger) {
+        this.linger = linger;
+        this.expiry = CompletableFuture.delayedExecutor(Math.max(linger.toNanos(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    Object execute(Object key, Execution execution, Listener listener) throws Throwable {
+        Call call = new Call();
+        Call existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            listener.joined(existing.result.isDone() ? Role.LINGERED : Role.COALESCED);
+            return existing.await();
+        }
+
+        listener.joined(Role.LEADER);
+        try {
+            Object result = execution.run();
+            call.result.complete(result);
+            release(key, call);
+            return result;
+        } catch (Throwable ex) {
+            call.result.completeExceptionally(ex);
+            calls.remove(key, call);
+            throw ex;
+        }
+    }
+
+    // Drops every shared execution so the next caller queries again, used after writes
+    void forget() {
+        calls.clear();
+    }
+
+    int size() {
+        return calls.size();
+    }
+
+    private void release(Object key, Call call) {
+        if (linger.isZero() || linger.isNegative()) {
+            calls.remove(key, call);
+        } else {
+            expiry.execute(() -> calls.remove(key, call));
+        }
+    }
+
+    private static final class Call {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Object await() throws Throwable {
+            try {
+                return result.get();
+            } catch (ExecutionException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.unibuc.book_app.versioning;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the table of a {@link Modifies} service after each of its writes and announces
+ * it with a {@link TableModifiedEvent}.
+ * <p>
+ * Ordered outside the cache advice so the counter only moves once the cached listings
+ * have been evicted; a tag read after the bump can't be served with a stale cache entry.
+ * Failed writes bump too, which costs at most one extra full response.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class CollectionVersionAspect {
+    private final CollectionVersions collectionVersions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @After("@within(modifies) && ("
+            + "execution(public * com.unibuc.book_app.service..*.create*(..))"
+            + " || execution(public * com.unibuc.book_app.service..*.update*(..))"
+            + " || execution(public * com.unibuc.book_app.service..*.delete*(..)))")
+    public void bump(Modifies modifies) {
+        collectionVersions.bump(modifies.value());
+        eventPublisher.publishEvent(new TableModifiedEvent(modifies.value()));
+    }
+}
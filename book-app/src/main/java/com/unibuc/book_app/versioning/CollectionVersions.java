@@ -0,0 +1,42 @@
+package com.unibuc.book_app.versioning;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-table modification counters that stand in for the version of a whole listing.
+ * <p>
+ * The counters only ever grow, so the sum over the tables a listing reads changes
+ * whenever any of them is written. They live in memory: the epoch of this instance is
+ * part of every tag, so tags never match across restarts or between instances.
+ * <p>
+ * Read the tag before building the listing. A write committed in between then yields a
+ * fresh body under the old tag, which the next request simply refetches; reading it
+ * afterwards could pair the new tag with stale rows.
+ */
+@Component
+public class CollectionVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Table, LongAdder> counters = new EnumMap<>(Table.class);
+
+    public CollectionVersions() {
+        for (Table table : Table.values()) {
+            counters.put(table, new LongAdder());
+        }
+    }
+
+    public void bump(Table table) {
+        counters.get(table).increment();
+    }
+
+    public String etag(Table... tables) {
+        long version = 0;
+        for (Table table : tables) {
+            version += counters.get(table).sum();
+        }
+        return "W/\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,16 @@
+package com.unibuc.book_app.versioning;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the table a service writes to. Every create, update or delete method of the
+ * service bumps that table's modification counter once it returns.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Modifies {
+    Table value();
+}
@@ -0,0 +1,16 @@
+package com.unibuc.book_app.versioning;
+
+/**
+ * Tables whose modifications are counted by {@link CollectionVersions}.
+ */
+public enum Table {
+    BOOK,
+    AUTHOR,
+    EDITOR,
+    PUBLISHER,
+    TRANSLATOR,
+    CATEGORY,
+    BOOK_CATEGORY,
+    BOOK_PUBLISHER,
+    BOOK_AUTHOR_EDITOR
+}
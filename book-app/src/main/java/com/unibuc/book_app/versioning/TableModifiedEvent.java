@@ -0,0 +1,7 @@
+package com.unibuc.book_app.versioning;
+
+/**
+ * Published after a {@link Modifies} service has written to, and bumped, its table.
+ */
+public record TableModifiedEvent(Table table) {
+}
@@ -0,0 +1,165 @@
+package com.unibuc.book_app;
+
+import com.unibuc.book_app.model.Author;
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.repository.AuthorRepository;
+import com.unibuc.book_app.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Run with: mvn test -Pbenchmark [-Dbenchmark.clients=1000,5000,10000] [-Dbenchmark.requests=5]
+// Point -Dbenchmark.datasource.url/username/password at MySQL for numbers that include real JDBC latency
+@Slf4j
+@Tag("benchmark")
+class ThreadingLoadBenchmarkTests {
+    private static final int SEED_ROWS = 500;
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.requests", 5);
+    private static final int[] CLIENTS = Arrays.stream(System.getProperty("benchmark.clients", "1000,5000,10000").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+
+    @Test
+    void benchmarkPlatformThreads() throws Exception {
+        benchmark(false);
+    }
+
+    @Test
+    void benchmarkVirtualThreads() throws Exception {
+        benchmark(true);
+    }
+
+    private void benchmark(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            seed(context);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            for (int clients : CLIENTS) {
+                Result result = load(port, clients);
+                log.info("{} threads: clients={} requests={} errors={} throughput={} req/s p50={} ms p99={} ms",
+                        virtualThreads ? "virtual" : "platform", clients, result.requests(), result.errors(),
+                        Math.round(result.throughput()), result.p50(), result.p99());
+                assertTrue(result.errors() < result.requests(), "every request failed");
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        // Passed as command line arguments so they take precedence over application.properties
+        return new SpringApplicationBuilder(ProiectApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.max-connections=10000",
+                "--server.tomcat.accept-count=1000",
+                "--spring.datasource.url=" + System.getProperty("benchmark.datasource.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"),
+                "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                "--spring.jpa.properties.hibernate.dialect=" + System.getProperty("benchmark.dialect", "org.hibernate.dialect.H2Dialect"),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.cache.type=none"
+        );
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        AuthorRepository authorRepository = context.getBean(AuthorRepository.class);
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        List<Author> authors = new ArrayList<>(SEED_ROWS);
+        List<Book> books = new ArrayList<>(SEED_ROWS);
+        for (int i = 0; i < SEED_ROWS; i++) {
+            authors.add(Author.builder()
+                    .firstName("John")
+                    .lastName("Doe " + i)
+                    .debutDate(LocalDate.of(1931, 2, 18))
+                    .build());
+            books.add(Book.builder()
+                    .name("Book " + i)
+                    .isbn("benchmark-" + i)
+                    .noPages(100 + i)
+                    .price(10 + i)
+                    .language("romanian")
+                    .publishDate(LocalDate.of(2024, 3, 10))
+                    .build());
+        }
+        authorRepository.saveAll(authors);
+        bookRepository.saveAll(books);
+    }
+
+    private Result load(int port, int clients) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        int requests = clients * REQUESTS_PER_CLIENT;
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long startedAt;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int offset = client * REQUESTS_PER_CLIENT;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        latencies[offset + i] = request(httpClient, port, i, errors);
+                    }
+                    return null;
+                });
+            }
+            startedAt = System.nanoTime();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        Arrays.sort(latencies);
+        return new Result(
+                requests,
+                errors.get(),
+                requests / (elapsed / 1_000_000_000.0),
+                latencies[requests / 2] / 1_000_000,
+                latencies[Math.min(requests - 1, (int) (requests * 0.99))] / 1_000_000
+        );
+    }
+
+    private long request(HttpClient httpClient, int port, int i, AtomicInteger errors) {
+        String path = i % 2 == 0 ? "books" : "authors";
+        int after = ThreadLocalRandom.current().nextInt(SEED_ROWS);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/" + path + "?limit=20&after=" + after))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                errors.incrementAndGet();
+            }
+        } catch (Exception e) {
+            errors.incrementAndGet();
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    private record Result(int requests, int errors, double throughput, long p50, long p99) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.unibuc.book_app.configuration;
+
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@Import(BookSequenceInitializer.class)
+class BookSequenceInitializerTests {
+
+    @Autowired
+    private BookSequenceInitializer bookSequenceInitializer;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSeed_NextIdFollowsExistingIds() {
+        jdbcTemplate.update(
+                "INSERT INTO book (id, version, name, isbn, no_pages, price, language, publish_date) VALUES (?, 0, ?, ?, ?, ?, ?, ?)",
+                120, "Legacy", "legacy-isbn", 100, 10, "EN", LocalDate.of(2000, 1, 1)
+        );
+
+        bookSequenceInitializer.seed();
+        Book book = bookRepository.saveAndFlush(Book.builder()
+                .name("New")
+                .isbn("new-isbn")
+                .noPages(200)
+                .price(20)
+                .language("EN")
+                .publishDate(LocalDate.of(2020, 1, 1))
+                .build());
+
+        assertEquals(121, book.getId());
+    }
+}
@@ -1,11 +1,16 @@
 package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.*;
+import com.unibuc.book_app.exception.BadRequestException;
 import com.unibuc.book_app.exception.NotFoundException;
+import com.unibuc.book_app.exception.PreconditionFailedException;
 import com.unibuc.book_app.service.AuthorService;
+import com.unibuc.book_app.versioning.CollectionVersions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -14,14 +19,20 @@ import tools.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AuthorController.class)
+@Import(CollectionVersions.class)
 class AuthorControllerTests {
 
     @Autowired
@@ -64,6 +75,44 @@ class AuthorControllerTests {
                 .andExpect(jsonPath("$[1].debutDate").value(authors.get(1).getDebutDate().toString()));
     }
 
+    @Test
+    void testGetAuthorsPage_Valid() throws Exception {
+        List<AuthorResponseDto> authors = List.of(new AuthorResponseDto(3, "John", "Doe", LocalDate.of(1931, 2, 18)));
+
+        when(authorService.findAuthorsPage(2, 1)).thenReturn(new CursorPageDto<>(authors, "3"));
+
+        mockMvc.perform(get("/authors").param("after", "2").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "3"))
+                .andExpect(jsonPath("$[0].id").value(authors.get(0).getId()))
+                .andExpect(jsonPath("$[0].firstName").value(authors.get(0).getFirstName()));
+    }
+
+    @Test
+    void testGetAuthorsFields_Valid() throws Exception {
+        List<Map<String, Object>> authors = List.of(Map.of("id", 1, "lastName", "Cioran"));
+
+        when(authorService.findAuthorsPage("lastName", null, 10)).thenReturn(new CursorPageDto<>(authors, "1"));
+
+        mockMvc.perform(get("/authors").param("fields", "lastName").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].lastName").value("Cioran"))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+    }
+
+    @Test
+    void testGetAllAuthorsFields_Invalid() throws Exception {
+        when(authorService.findAllAuthors("name"))
+                .thenThrow(new BadRequestException("Unknown field name, fields must be a comma-separated list of id, firstName, lastName, debutDate"));
+
+        mockMvc.perform(get("/authors").param("fields", "name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown field name, fields must be a comma-separated list of id, firstName, lastName, debutDate"));
+        verify(authorService, never()).findAllAuthors();
+    }
+
     @Test
     void testGetAllBooksByAuthorId_Valid() throws Exception {
         List<BookSummaryDto> books = List.of(
@@ -102,6 +151,55 @@ class AuthorControllerTests {
                 .andExpect(jsonPath("$[1].lastName").value(editors.get(1).getLastName()));
     }
 
+    @Test
+    void testGetAllCoAuthorsByAuthorId_Valid() throws Exception {
+        List<AuthorSummaryDto> coAuthors = List.of(
+                new AuthorSummaryDto(2, "Leo", "Tolstoy"),
+                new AuthorSummaryDto(3, "Emil", "Cioran")
+        );
+
+        when(authorService.findAllCoAuthorsByAuthorId(1)).thenReturn(coAuthors);
+
+        mockMvc.perform(get("/authors/coauthors/{authorId}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[1].firstName").value("Emil"))
+                .andExpect(jsonPath("$[1].lastName").value("Cioran"));
+    }
+
+    @Test
+    void testGetCollaborationPath_Valid() throws Exception {
+        List<AuthorSummaryDto> path = List.of(
+                new AuthorSummaryDto(1, "John", "Doe"),
+                new AuthorSummaryDto(3, "Emil", "Cioran"),
+                new AuthorSummaryDto(2, "Leo", "Tolstoy")
+        );
+
+        when(authorService.findCollaborationPath(1, 2)).thenReturn(path);
+
+        mockMvc.perform(get("/authors/path")
+                        .param("from", "1")
+                        .param("to", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(3))
+                .andExpect(jsonPath("$[2].id").value(2));
+    }
+
+    @Test
+    void testGetCollaborationPath_NoPath() throws Exception {
+        when(authorService.findCollaborationPath(1, 2))
+                .thenThrow(new NotFoundException("No collaboration path between authors 1 and 2"));
+
+        mockMvc.perform(get("/authors/path")
+                        .param("from", "1")
+                        .param("to", "2"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("No collaboration path between authors 1 and 2"));
+    }
+
 
     @Test
     void testGetAuthorById_Valid() throws Exception {
@@ -132,6 +230,57 @@ class AuthorControllerTests {
                 .andExpect(jsonPath("$.error").value("Author with id -1 not found"));
     }
 
+    @Test
+    void testGetAuthorById_ETag() throws Exception {
+        AuthorResponseDto author = new AuthorResponseDto(
+                1,
+                "John",
+                "Doe",
+                LocalDate.of(1931, 2, 18)
+        );
+        author.setVersion(3L);
+
+        when(authorService.findAuthorById(1)).thenReturn(author);
+
+        mockMvc.perform(get("/authors/{authorId}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void testGetAuthorById_NotModified() throws Exception {
+        when(authorService.findAuthorVersion(1)).thenReturn(3L);
+
+        mockMvc.perform(get("/authors/{authorId}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(authorService, never()).findAuthorById(1);
+    }
+
+    @Test
+    void testGetAuthorById_Modified() throws Exception {
+        AuthorResponseDto author = new AuthorResponseDto(
+                1,
+                "John",
+                "Doe",
+                LocalDate.of(1931, 2, 18)
+        );
+        author.setVersion(4L);
+
+        when(authorService.findAuthorVersion(1)).thenReturn(4L);
+        when(authorService.findAuthorById(1)).thenReturn(author);
+
+        mockMvc.perform(get("/authors/{authorId}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.firstName").value(author.getFirstName()));
+    }
+
     @Test
     void testCreateAuthor_Valid() throws Exception {
         AuthorCreateDto createDto = new AuthorCreateDto(
@@ -190,7 +339,7 @@ class AuthorControllerTests {
                 LocalDate.of(1931, 2, 18)
         );
 
-        when(authorService.updateAuthor(1, updateDto)).thenReturn(responseDto);
+        when(authorService.updateAuthor(1, updateDto, null)).thenReturn(responseDto);
 
         mockMvc.perform(put("/authors/{authorId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -209,7 +358,7 @@ class AuthorControllerTests {
                 LocalDate.now()
         );
 
-        when(authorService.updateAuthor(1, updateDto))
+        when(authorService.updateAuthor(1, updateDto, null))
                 .thenThrow(new NotFoundException("Author with id 1 not found"));
 
         mockMvc.perform(put("/authors/{authorId}", 1)
@@ -219,6 +368,68 @@ class AuthorControllerTests {
                 .andExpect(jsonPath("$.error").value("Author with id 1 not found"));
     }
 
+    @Test
+    void testUpdateAuthor_IfMatch() throws Exception {
+        AuthorUpdateDto updateDto = new AuthorUpdateDto(
+                "John",
+                "Doe",
+                LocalDate.of(1931, 2, 18)
+        );
+
+        AuthorResponseDto responseDto = new AuthorResponseDto(
+                1,
+                "John",
+                "Doe",
+                LocalDate.of(1931, 2, 18)
+        );
+        responseDto.setVersion(4L);
+
+        when(authorService.updateAuthor(1, updateDto, 3L)).thenReturn(responseDto);
+
+        mockMvc.perform(put("/authors/{authorId}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void testUpdateAuthor_PreconditionFailed() throws Exception {
+        AuthorUpdateDto updateDto = new AuthorUpdateDto(
+                "John",
+                "Doe",
+                LocalDate.of(1931, 2, 18)
+        );
+
+        when(authorService.updateAuthor(1, updateDto, 2L))
+                .thenThrow(new PreconditionFailedException("Author with id 1 is at version 3, not 2"));
+
+        mockMvc.perform(put("/authors/{authorId}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Author with id 1 is at version 3, not 2"));
+    }
+
+    @Test
+    void testUpdateAuthor_WeakIfMatch() throws Exception {
+        AuthorUpdateDto updateDto = new AuthorUpdateDto(
+                "John",
+                "Doe",
+                LocalDate.of(1931, 2, 18)
+        );
+
+        mockMvc.perform(put("/authors/{authorId}", 1)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(authorService, never()).updateAuthor(1, updateDto, 3L);
+    }
+
     @Test
     void testUpdateAuthor_InvalidBody() throws Exception {
         String malformedJson = """
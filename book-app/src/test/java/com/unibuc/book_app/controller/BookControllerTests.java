@@ -1,27 +1,52 @@
 package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.*;
+import com.unibuc.book_app.exception.BadRequestException;
+import com.unibuc.book_app.exception.ConflictException;
+import com.unibuc.book_app.exception.GatewayTimeoutException;
 import com.unibuc.book_app.exception.NotFoundException;
+import com.unibuc.book_app.service.BookDetailService;
+import com.unibuc.book_app.service.BookListSnapshotService;
 import com.unibuc.book_app.service.BookService;
+import com.unibuc.book_app.service.GzipSnapshot;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookController.class)
+@Import(CollectionVersions.class)
 class BookControllerTests {
 
     @Autowired
@@ -30,6 +55,15 @@ class BookControllerTests {
     @MockitoBean
     private BookService bookService;
 
+    @MockitoBean
+    private BookDetailService bookDetailService;
+
+    @MockitoBean
+    private BookListSnapshotService bookListSnapshotService;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -92,6 +126,193 @@ class BookControllerTests {
                 .andExpect(jsonPath("$[1].translator.lastName").value(books.get(1).getTranslator().getLastName()));
     }
 
+    @Test
+    void testGetBooksPage_Valid() throws Exception {
+        List<BookResponseDto> books = List.of(new BookResponseDto(3, "Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), null));
+
+        when(bookService.findBooksPage("2", 1)).thenReturn(new CursorPageDto<>(books, "3"));
+
+        mockMvc.perform(get("/books").param("after", "2").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "3"))
+                .andExpect(jsonPath("$[0].id").value(books.get(0).getId()))
+                .andExpect(jsonPath("$[0].name").value(books.get(0).getName()));
+    }
+
+    @Test
+    void testGetBooksPage_LastPage() throws Exception {
+        when(bookService.findBooksPage(null, 10)).thenReturn(new CursorPageDto<>(List.of(), null));
+
+        mockMvc.perform(get("/books").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void testGetAllBooks_GzipSnapshot() throws Exception {
+        byte[] gzipped = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 3, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+        when(bookListSnapshotService.current(any()))
+                .thenAnswer(invocation -> Optional.of(new GzipSnapshot(invocation.getArgument(0), gzipped.length, gzipped, null)));
+
+        mockMvc.perform(get("/books").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().bytes(gzipped));
+
+        verify(bookService, never()).findAllBooks();
+    }
+
+    @Test
+    void testGetAllBooks_GzipRefused() throws Exception {
+        byte[] gzipped = {0x1f, (byte) 0x8b};
+        when(bookListSnapshotService.current(any()))
+                .thenAnswer(invocation -> Optional.of(new GzipSnapshot(invocation.getArgument(0), gzipped.length, gzipped, null)));
+        when(bookService.findAllBooks()).thenReturn(List.of());
+
+        mockMvc.perform(get("/books").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void testGetAllBooks_NotModified() throws Exception {
+        String etag = mockMvc.perform(get("/books"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(bookService, times(1)).findAllBooks();
+    }
+
+    @Test
+    void testGetBooksPage_ModifiedAfterWrite() throws Exception {
+        when(bookService.findBooksPage(null, 10)).thenReturn(new CursorPageDto<>(List.of(), null));
+
+        String etag = mockMvc.perform(get("/books").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        collectionVersions.bump(Table.TRANSLATOR);
+
+        mockMvc.perform(get("/books").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+
+        verify(bookService, times(2)).findBooksPage(null, 10);
+    }
+
+    @Test
+    void testGetBooksPage_InvalidLimit() throws Exception {
+        when(bookService.findBooksPage(null, 0))
+                .thenThrow(new BadRequestException("limit must be between 1 and 1000"));
+
+        mockMvc.perform(get("/books").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("limit must be between 1 and 1000"));
+    }
+
+    @Test
+    void testGetFilteredBooks_Valid() throws Exception {
+        List<BookResponseDto> books = List.of(new BookResponseDto(3, "Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), null));
+        BookFilterDto filter = BookFilterDto.builder()
+                .language("romanian")
+                .minPrice(20)
+                .publishedFrom(LocalDate.of(2019, 1, 1))
+                .sort("-price")
+                .build();
+
+        when(bookService.findBooksPage(filter, null, 1)).thenReturn(new CursorPageDto<>(books, "30:3"));
+
+        mockMvc.perform(get("/books")
+                        .param("language", "romanian")
+                        .param("minPrice", "20")
+                        .param("publishedFrom", "2019-01-01")
+                        .param("sort", "-price")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "30:3"))
+                .andExpect(jsonPath("$[0].id").value(3));
+        verify(bookService, never()).findAllBooks();
+    }
+
+    @Test
+    void testGetAllBooksFields_Valid() throws Exception {
+        Map<String, Object> book = new LinkedHashMap<>();
+        book.put("id", 1);
+        book.put("name", "Maitreyi");
+        book.put("translator", null);
+
+        when(bookService.findAllBooks("name,translator")).thenReturn(List.of(book));
+
+        mockMvc.perform(get("/books").param("fields", "name,translator").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$[0].name").value("Maitreyi"))
+                .andExpect(jsonPath("$[0].translator").isEmpty())
+                .andExpect(jsonPath("$[0].isbn").doesNotExist());
+        verify(bookListSnapshotService, never()).current(any());
+    }
+
+    @Test
+    void testGetFilteredBooksFields_Valid() throws Exception {
+        BookFilterDto filter = BookFilterDto.builder().language("romanian").build();
+
+        when(bookService.findBooksPage(filter, "price", null, null))
+                .thenReturn(new CursorPageDto<>(List.of(Map.of("id", 1, "price", 30)), null));
+
+        mockMvc.perform(get("/books").param("language", "romanian").param("fields", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].price").value(30))
+                .andExpect(jsonPath("$[0].language").doesNotExist());
+    }
+
+    @Test
+    void testGetFilteredBooks_InvalidSort() throws Exception {
+        BookFilterDto filter = BookFilterDto.builder().sort("name").build();
+
+        when(bookService.findBooksPage(filter, null, null))
+                .thenThrow(new BadRequestException("sort must be one of id, price, noPages, publishDate, optionally prefixed with -"));
+
+        mockMvc.perform(get("/books").param("sort", "name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("sort must be one of id, price, noPages, publishDate, optionally prefixed with -"));
+    }
+
+    @Test
+    void testExportBooks_Valid() throws Exception {
+        BookResponseDto book1 = new BookResponseDto(1, "Intre iadul deznadejdii si iadul smereniei", "973-9344-56-9", 302, 27, "romanian", LocalDate.of(2024, 3, 10), new TranslatorSummaryDto(1, "John", "Doe"));
+        BookResponseDto book2 = new BookResponseDto(2, "The Shadow of the Wind", "978-0143126393", 450, 15, "english", LocalDate.of(2023, 11, 5), null);
+
+        doAnswer(invocation -> {
+            Consumer<BookResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(book1);
+            consumer.accept(book2);
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        MvcResult result = mockMvc.perform(get("/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(book1) + "\n" + objectMapper.writeValueAsString(book2) + "\n"
+                ));
+    }
+
     @Test
     void testGetAllAuthorsByBookId_Valid() throws Exception {
         List<AuthorSummaryDto> authors = List.of(
@@ -211,6 +432,95 @@ class BookControllerTests {
                 .andExpect(jsonPath("$.error").value("Book with id -1 not found"));
     }
 
+    @Test
+    void testGetBookById_ETagCoversTranslator() throws Exception {
+        BookResponseDto book = BookResponseDto.builder()
+                .id(1)
+                .version(3L)
+                .embeddedVersion(7L)
+                .name("Intre iadul deznadejdii si iadul smereniei")
+                .translator(new TranslatorSummaryDto(1, "John", "Doe"))
+                .build();
+
+        when(bookService.findBookVersionTag(1)).thenReturn("3.7");
+        when(bookService.findBookById(1)).thenReturn(book);
+
+        mockMvc.perform(get("/books/{bookId}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3.7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.7\""));
+        // The translator was renamed since the client's copy, the book row itself was not
+        mockMvc.perform(get("/books/{bookId}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3.6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.7\""))
+                .andExpect(jsonPath("$.translator.firstName").value("John"));
+
+        verify(bookService, times(1)).findBookById(1);
+    }
+
+    @Test
+    void testUpdateBook_IfMatchChecksBookVersion() throws Exception {
+        BookUpdateDto updateDto = new BookUpdateDto(
+                "Intre iadul deznadejdii si iadul smereniei",
+                "973-9344-56-9",
+                302,
+                23,
+                "romanian",
+                LocalDate.of(2024, 3, 10)
+        );
+        BookResponseDto responseDto = BookResponseDto.builder()
+                .id(1)
+                .version(4L)
+                .embeddedVersion(7L)
+                .build();
+
+        when(bookService.updateBook(1, updateDto, 3L)).thenReturn(responseDto);
+
+        mockMvc.perform(put("/books/{bookId}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"3.7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4.7\""));
+    }
+
+    @Test
+    void testGetBookDetailById_Valid() throws Exception {
+        BookDetailDto detail = BookDetailDto.builder()
+                .id(1)
+                .name("Intre iadul deznadejdii si iadul smereniei")
+                .isbn("973-9344-56-9")
+                .translator(new TranslatorSummaryDto(1, "John", "Doe"))
+                .authors(List.of(new AuthorSummaryDto(1, "Emil", "Cioran")))
+                .editors(List.of(new EditorSummaryDto(1, "Simona", "Boerescu")))
+                .categories(List.of(new CategorySummaryDto(1, "Philosophy")))
+                .publishers(List.of())
+                .build();
+
+        when(bookDetailService.findBookDetailById(1)).thenReturn(detail);
+
+        mockMvc.perform(get("/books/{bookId}/detail", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.isbn").value("973-9344-56-9"))
+                .andExpect(jsonPath("$.translator.lastName").value("Doe"))
+                .andExpect(jsonPath("$.authors[0].lastName").value("Cioran"))
+                .andExpect(jsonPath("$.editors[0].lastName").value("Boerescu"))
+                .andExpect(jsonPath("$.categories[0].name").value("Philosophy"))
+                .andExpect(jsonPath("$.publishers").isEmpty());
+    }
+
+    @Test
+    void testGetBookDetailById_DeadlineExceeded() throws Exception {
+        when(bookDetailService.findBookDetailById(1))
+                .thenThrow(new GatewayTimeoutException("Book detail with id 1 took longer than 2000 ms"));
+
+        mockMvc.perform(get("/books/{bookId}/detail", 1))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error").value("Book detail with id 1 took longer than 2000 ms"));
+    }
+
     @Test
     void testCreateBook_Valid() throws Exception {
         BookCreateDto createDto = new BookCreateDto(
@@ -256,6 +566,53 @@ class BookControllerTests {
                 .andExpect(jsonPath("$.translator.lastName").value(responseDto.getTranslator().getLastName()));
     }
 
+    @Test
+    void testCreateBook_DuplicateIsbn() throws Exception {
+        BookCreateDto createDto = new BookCreateDto(
+                "Intre iadul deznadejdii si iadul smereniei",
+                "973-9344-56-9",
+                302,
+                27,
+                "romanian",
+                LocalDate.of(2024, 3, 10),
+                1
+        );
+
+        when(bookService.createBook(createDto))
+                .thenThrow(new ConflictException("Book with isbn 973-9344-56-9 already exists"));
+
+        mockMvc.perform(post("/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Book with isbn 973-9344-56-9 already exists"));
+    }
+
+    @Test
+    void testCreateBooks_Valid() throws Exception {
+        List<BookCreateDto> createDtos = List.of(
+                new BookCreateDto("Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), null),
+                new BookCreateDto("", "978-0143126393", 450, 15, "english", LocalDate.of(2023, 11, 5), null)
+        );
+        List<BulkItemResultDto<BookResponseDto>> results = List.of(
+                new BulkItemResultDto<>(0, 201, new BookResponseDto(1, "Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), null), null),
+                new BulkItemResultDto<>(1, 400, null, "name is required and cannot be blank")
+        );
+
+        when(bookService.createBooks(createDtos)).thenReturn(results);
+
+        mockMvc.perform(post("/books/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].data.id").value(1))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].error").value("name is required and cannot be blank"));
+    }
+
     @Test
     void testCreateBook_InvalidBody() throws Exception {
         String invalidJson = """
@@ -302,7 +659,7 @@ class BookControllerTests {
                 )
         );
 
-        when(bookService.updateBook(1, updateDto)).thenReturn(responseDto);
+        when(bookService.updateBook(1, updateDto, null)).thenReturn(responseDto);
 
         mockMvc.perform(put("/books/{bookId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -331,7 +688,7 @@ class BookControllerTests {
                 LocalDate.now()
         );
 
-        when(bookService.updateBook(1, updateDto))
+        when(bookService.updateBook(1, updateDto, null))
                 .thenThrow(new NotFoundException("Book with id 1 not found"));
 
         mockMvc.perform(put("/books/{bookId}", 1)
@@ -3,11 +3,14 @@ package com.unibuc.book_app.controller;
 import com.unibuc.book_app.dto.BookSummaryDto;
 import com.unibuc.book_app.dto.CategoryDto;
 import com.unibuc.book_app.dto.CategorySummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
 import com.unibuc.book_app.exception.NotFoundException;
 import com.unibuc.book_app.service.CategoryService;
+import com.unibuc.book_app.versioning.CollectionVersions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,10 +22,12 @@ import java.util.List;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CategoryController.class)
+@Import(CollectionVersions.class)
 class CategoryControllerTests {
 
     @Autowired
@@ -57,6 +62,40 @@ class CategoryControllerTests {
                 .andExpect(jsonPath("$[1].name").value(categories.get(1).getName()));
     }
 
+    @Test
+    void testGetCategoriesPage_Valid() throws Exception {
+        List<CategorySummaryDto> categories = List.of(new CategorySummaryDto(3, "Fantasy"));
+
+        when(categoryService.findCategoriesPage(2, 1)).thenReturn(new CursorPageDto<>(categories, "3"));
+
+        mockMvc.perform(get("/categories").param("after", "2").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "3"))
+                .andExpect(jsonPath("$[0].id").value(categories.get(0).getId()))
+                .andExpect(jsonPath("$[0].name").value(categories.get(0).getName()));
+    }
+
+    @Test
+    void testGetBooksByCategories_Valid() throws Exception {
+        List<BookSummaryDto> books = List.of(
+                new BookSummaryDto(3, "1984"),
+                new BookSummaryDto(8, "Animal Farm")
+        );
+
+        when(categoryService.findBooksByCategories(List.of(1, 4), List.of(7), List.of(9), null, 2))
+                .thenReturn(new CursorPageDto<>(books, "8"));
+
+        mockMvc.perform(get("/categories/books")
+                        .param("all", "1,4")
+                        .param("any", "7")
+                        .param("none", "9")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "8"))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[1].name").value("Animal Farm"));
+    }
+
     @Test
     void testGetAllBooksByCategoryId_Valid() throws Exception {
         List<BookSummaryDto> books = List.of(
@@ -143,7 +182,7 @@ class CategoryControllerTests {
                 "Fantasy"
         );
 
-        when(categoryService.updateCategory(1, updateDto)).thenReturn(responseDto);
+        when(categoryService.updateCategory(1, updateDto, null)).thenReturn(responseDto);
 
         mockMvc.perform(put("/categories/{categoryId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -157,7 +196,7 @@ class CategoryControllerTests {
     void testUpdateCategory_InvalidId() throws Exception {
         CategoryDto updateDto = new CategoryDto("Fantasy");
 
-        when(categoryService.updateCategory(1, updateDto))
+        when(categoryService.updateCategory(1, updateDto, null))
                 .thenThrow(new NotFoundException("Category with id 1 not found"));
 
         mockMvc.perform(put("/categories/{categoryId}", 1)
@@ -0,0 +1,146 @@
+package com.unibuc.book_app.controller;
+
+import com.unibuc.book_app.dto.*;
+import com.unibuc.book_app.model.*;
+import com.unibuc.book_app.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Each PUT runs in its own committed transaction against H2, so the ETag it returns has to be the version it wrote
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional-update-tests;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.region_prefix=conditional-update-tests",
+        "book-app.existence-filter.enabled=false"
+})
+@AutoConfigureMockMvc
+class ConditionalUpdateTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EditorRepository editorRepository;
+
+    @Autowired
+    private PublisherRepository publisherRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TranslatorRepository translatorRepository;
+
+    @Test
+    void testUpdateBook_ReturnedETagMatchesNextUpdate() throws Exception {
+        Book book = bookRepository.save(Book.builder()
+                .name("Maitreyi")
+                .isbn("978-973-46-0712-1")
+                .noPages(208)
+                .price(30)
+                .language("romanian")
+                .publishDate(LocalDate.of(2019, 6, 1))
+                .build());
+        BookUpdateDto first = new BookUpdateDto();
+        BookUpdateDto second = new BookUpdateDto();
+
+        first.setPrice(35);
+        second.setPrice(40);
+        putTwice("/books/" + book.getId(), first, second);
+    }
+
+    @Test
+    void testUpdateAuthor_ReturnedETagMatchesNextUpdate() throws Exception {
+        Author author = authorRepository.save(Author.builder()
+                .firstName("Mircea")
+                .lastName("Eliade")
+                .debutDate(LocalDate.of(1921, 1, 1))
+                .build());
+
+        putTwice("/authors/" + author.getId(), new AuthorUpdateDto("Mircea", "Eliade", LocalDate.of(1925, 1, 1)),
+                new AuthorUpdateDto("Mircea", "Eliade", LocalDate.of(1926, 1, 1)));
+    }
+
+    @Test
+    void testUpdateEditor_ReturnedETagMatchesNextUpdate() throws Exception {
+        Editor editor = editorRepository.save(Editor.builder()
+                .firstName("Simona")
+                .lastName("Boerescu")
+                .debutDate(LocalDate.of(1990, 1, 1))
+                .build());
+
+        putTwice("/editors/" + editor.getId(), new EditorUpdateDto("Simona", "Boerescu", LocalDate.of(1991, 1, 1)),
+                new EditorUpdateDto("Simona", "Boerescu", LocalDate.of(1992, 1, 1)));
+    }
+
+    @Test
+    void testUpdatePublisher_ReturnedETagMatchesNextUpdate() throws Exception {
+        Publisher publisher = publisherRepository.save(Publisher.builder()
+                .name("Humanitas")
+                .foundedDate(LocalDate.of(1990, 2, 1))
+                .build());
+
+        putTwice("/publishers/" + publisher.getId(), new PublisherUpdateDto("Humanitas Fiction", null),
+                new PublisherUpdateDto("Humanitas Multimedia", null));
+    }
+
+    @Test
+    void testUpdateCategory_ReturnedETagMatchesNextUpdate() throws Exception {
+        Category category = categoryRepository.save(Category.builder().name("Philosophy").build());
+
+        putTwice("/categories/" + category.getId(), new CategoryDto("Ethics"), new CategoryDto("Logic"));
+    }
+
+    @Test
+    void testUpdateTranslator_ReturnedETagMatchesNextUpdate() throws Exception {
+        Translator translator = translatorRepository.save(Translator.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .build());
+
+        putTwice("/translators/" + translator.getId(), new TranslatorUpdateDto("Jane", "Doe"),
+                new TranslatorUpdateDto("Jane", "Roe"));
+    }
+
+    private void putTwice(String path, Object first, Object second) throws Exception {
+        String etag = mockMvc.perform(put(path)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put(path)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+}
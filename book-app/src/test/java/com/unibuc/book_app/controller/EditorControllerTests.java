@@ -3,9 +3,11 @@ package com.unibuc.book_app.controller;
 import com.unibuc.book_app.dto.*;
 import com.unibuc.book_app.exception.NotFoundException;
 import com.unibuc.book_app.service.EditorService;
+import com.unibuc.book_app.versioning.CollectionVersions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -14,14 +16,17 @@ import tools.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(EditorController.class)
+@Import(CollectionVersions.class)
 class EditorControllerTests {
 
     @Autowired
@@ -64,6 +69,33 @@ class EditorControllerTests {
                 .andExpect(jsonPath("$[1].debutDate").value(editors.get(1).getDebutDate().toString()));
     }
 
+    @Test
+    void testGetEditorsPage_Valid() throws Exception {
+        List<EditorResponseDto> editors = List.of(new EditorResponseDto(3, "John", "Doe", LocalDate.of(1931, 2, 18)));
+
+        when(editorService.findEditorsPage(2, 1)).thenReturn(new CursorPageDto<>(editors, "3"));
+
+        mockMvc.perform(get("/editors").param("after", "2").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "3"))
+                .andExpect(jsonPath("$[0].id").value(editors.get(0).getId()))
+                .andExpect(jsonPath("$[0].firstName").value(editors.get(0).getFirstName()));
+    }
+
+    @Test
+    void testGetEditorsFields_Valid() throws Exception {
+        List<Map<String, Object>> editors = List.of(Map.of("id", 1, "lastName", "Popescu"));
+
+        when(editorService.findEditorsPage("lastName", null, 10)).thenReturn(new CursorPageDto<>(editors, "1"));
+
+        mockMvc.perform(get("/editors").param("fields", "lastName").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].lastName").value("Popescu"))
+                .andExpect(jsonPath("$[0].debutDate").doesNotExist());
+    }
+
     @Test
     void testGetAllBooksByEditorId_Valid() throws Exception {
         List<BookSummaryDto> books = List.of(
@@ -189,7 +221,7 @@ class EditorControllerTests {
                 LocalDate.of(1931, 2, 18)
         );
 
-        when(editorService.updateEditor(1, updateDto)).thenReturn(responseDto);
+        when(editorService.updateEditor(1, updateDto, null)).thenReturn(responseDto);
 
         mockMvc.perform(put("/editors/{editorId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -209,7 +241,7 @@ class EditorControllerTests {
                 LocalDate.now()
         );
 
-        when(editorService.updateEditor(1, updateDto))
+        when(editorService.updateEditor(1, updateDto, null))
                 .thenThrow(new NotFoundException("Editor with id 1 not found"));
 
         mockMvc.perform(put("/editors/{editorId}", 1)
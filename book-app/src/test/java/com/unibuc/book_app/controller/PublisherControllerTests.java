@@ -1,14 +1,17 @@
 package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
 import com.unibuc.book_app.dto.PublisherCreateDto;
 import com.unibuc.book_app.dto.PublisherResponseDto;
 import com.unibuc.book_app.dto.PublisherUpdateDto;
 import com.unibuc.book_app.exception.NotFoundException;
 import com.unibuc.book_app.service.PublisherService;
+import com.unibuc.book_app.versioning.CollectionVersions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,14 +20,17 @@ import tools.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PublisherController.class)
+@Import(CollectionVersions.class)
 class PublisherControllerTests {
 
     @Autowired
@@ -63,6 +69,33 @@ class PublisherControllerTests {
                 .andExpect(jsonPath("$[1].foundedDate").value(publishers.get(1).getFoundedDate().toString()));
     }
 
+    @Test
+    void testGetPublishersPage_Valid() throws Exception {
+        List<PublisherResponseDto> publishers = List.of(new PublisherResponseDto(3, "Nemira", LocalDate.of(1931, 2, 18)));
+
+        when(publisherService.findPublishersPage(2, 1)).thenReturn(new CursorPageDto<>(publishers, "3"));
+
+        mockMvc.perform(get("/publishers").param("after", "2").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "3"))
+                .andExpect(jsonPath("$[0].id").value(publishers.get(0).getId()))
+                .andExpect(jsonPath("$[0].name").value(publishers.get(0).getName()));
+    }
+
+    @Test
+    void testGetPublishersFields_Valid() throws Exception {
+        List<Map<String, Object>> publishers = List.of(Map.of("id", 1, "name", "Humanitas"));
+
+        when(publisherService.findPublishersPage("name", null, 10)).thenReturn(new CursorPageDto<>(publishers, "1"));
+
+        mockMvc.perform(get("/publishers").param("fields", "name").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Humanitas"))
+                .andExpect(jsonPath("$[0].foundedDate").doesNotExist());
+    }
+
     @Test
     void testGetAllBooksByPublisherId_Valid() throws Exception {
         List<BookSummaryDto> books = List.of(
@@ -160,7 +193,7 @@ class PublisherControllerTests {
                 LocalDate.of(1931, 2, 18)
         );
 
-        when(publisherService.updatePublisher(1, updateDto)).thenReturn(responseDto);
+        when(publisherService.updatePublisher(1, updateDto, null)).thenReturn(responseDto);
 
         mockMvc.perform(put("/publishers/{publisherId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -178,7 +211,7 @@ class PublisherControllerTests {
                 LocalDate.now()
         );
 
-        when(publisherService.updatePublisher(1, updateDto))
+        when(publisherService.updatePublisher(1, updateDto, null))
                 .thenThrow(new NotFoundException("Publisher with id 1 not found"));
 
         mockMvc.perform(put("/publishers/{publisherId}", 1)
@@ -0,0 +1,52 @@
+package com.unibuc.book_app.controller;
+
+import com.unibuc.book_app.dto.SearchResultDto;
+import com.unibuc.book_app.exception.BadRequestException;
+import com.unibuc.book_app.service.SearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SearchController.class)
+class SearchControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SearchService searchService;
+
+    @Test
+    void testSearch_Valid() throws Exception {
+        List<SearchResultDto> results = List.of(
+                new SearchResultDto(2, "Lacrimi si sfinti", 2.5),
+                new SearchResultDto(1, "Pe culmile disperarii", 1.2)
+        );
+
+        when(searchService.search("cioran", 10)).thenReturn(results);
+
+        mockMvc.perform(get("/search").param("q", "cioran").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].name").value("Lacrimi si sfinti"))
+                .andExpect(jsonPath("$[1].id").value(1));
+    }
+
+    @Test
+    void testSearch_Invalid() throws Exception {
+        when(searchService.search(null, null)).thenThrow(new BadRequestException("q cannot be blank"));
+
+        mockMvc.perform(get("/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("q cannot be blank"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.unibuc.book_app.controller;
+
+import com.unibuc.book_app.dto.LanguageStatsDto;
+import com.unibuc.book_app.dto.PageRangeDto;
+import com.unibuc.book_app.dto.PublisherStatsDto;
+import com.unibuc.book_app.dto.YearStatsDto;
+import com.unibuc.book_app.service.BookStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(StatsController.class)
+class StatsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BookStatsService bookStatsService;
+
+    @Test
+    void testFindLanguageStats_Valid() throws Exception {
+        when(bookStatsService.findLanguageStats()).thenReturn(List.of(
+                new LanguageStatsDto("french", 2, 40.0, 25, 55),
+                new LanguageStatsDto("romanian", 2, 50.0, 40, 60)
+        ));
+
+        mockMvc.perform(get("/stats/languages"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].language").value("french"))
+                .andExpect(jsonPath("$[0].averagePrice").value(40.0))
+                .andExpect(jsonPath("$[1].books").value(2))
+                .andExpect(jsonPath("$[1].maxPrice").value(60));
+    }
+
+    @Test
+    void testFindPublisherStats_Valid() throws Exception {
+        when(bookStatsService.findPublisherStats()).thenReturn(List.of(
+                new PublisherStatsDto(1, "Humanitas", 2, 120.0, 90, 150, List.of(
+                        new PageRangeDto(0, 100, 1),
+                        new PageRangeDto(100, 200, 1),
+                        new PageRangeDto(1000, null, 0)
+                ))
+        ));
+
+        mockMvc.perform(get("/stats/publishers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].publisherName").value("Humanitas"))
+                .andExpect(jsonPath("$[0].averagePages").value(120.0))
+                .andExpect(jsonPath("$[0].pageRanges[1].fromPages").value(100))
+                .andExpect(jsonPath("$[0].pageRanges[2].books").value(0));
+    }
+
+    @Test
+    void testFindYearStats_Valid() throws Exception {
+        when(bookStatsService.findYearStats()).thenReturn(List.of(
+                new YearStatsDto(1934, 1),
+                new YearStatsDto(1937, 2)
+        ));
+
+        mockMvc.perform(get("/stats/years"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].year").value(1934))
+                .andExpect(jsonPath("$[1].books").value(2));
+    }
+}
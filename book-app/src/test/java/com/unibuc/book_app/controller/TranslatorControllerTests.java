@@ -1,14 +1,17 @@
 package com.unibuc.book_app.controller;
 
 import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
 import com.unibuc.book_app.dto.TranslatorCreateDto;
 import com.unibuc.book_app.dto.TranslatorResponseDto;
 import com.unibuc.book_app.dto.TranslatorUpdateDto;
 import com.unibuc.book_app.exception.NotFoundException;
 import com.unibuc.book_app.service.TranslatorService;
+import com.unibuc.book_app.versioning.CollectionVersions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -16,14 +19,17 @@ import tools.jackson.databind.ObjectMapper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TranslatorController.class)
+@Import(CollectionVersions.class)
 class TranslatorControllerTests {
 
     @Autowired
@@ -62,6 +68,33 @@ class TranslatorControllerTests {
                 .andExpect(jsonPath("$[1].lastName").value(translators.get(1).getLastName()));
     }
 
+    @Test
+    void testGetTranslatorsPage_Valid() throws Exception {
+        List<TranslatorResponseDto> translators = List.of(new TranslatorResponseDto(3, "John", "Doe"));
+
+        when(translatorService.findTranslatorsPage(2, 1)).thenReturn(new CursorPageDto<>(translators, "3"));
+
+        mockMvc.perform(get("/translators").param("after", "2").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "3"))
+                .andExpect(jsonPath("$[0].id").value(translators.get(0).getId()))
+                .andExpect(jsonPath("$[0].firstName").value(translators.get(0).getFirstName()));
+    }
+
+    @Test
+    void testGetTranslatorsFields_Valid() throws Exception {
+        List<Map<String, Object>> translators = List.of(Map.of("id", 1, "lastName", "Doe"));
+
+        when(translatorService.findTranslatorsPage("lastName", null, 10)).thenReturn(new CursorPageDto<>(translators, "1"));
+
+        mockMvc.perform(get("/translators").param("fields", "lastName").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].lastName").value("Doe"))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+    }
+
     @Test
     void testGetAllBooksByTranslatorId_Valid() throws Exception {
         List<BookSummaryDto> books = List.of(
@@ -160,7 +193,7 @@ class TranslatorControllerTests {
                 "Doe"
         );
 
-        when(translatorService.updateTranslator(1, updateDto)).thenReturn(responseDto);
+        when(translatorService.updateTranslator(1, updateDto, null)).thenReturn(responseDto);
 
         mockMvc.perform(put("/translators/{translatorId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -178,7 +211,7 @@ class TranslatorControllerTests {
                 "Doe"
         );
 
-        when(translatorService.updateTranslator(1, updateDto))
+        when(translatorService.updateTranslator(1, updateDto, null))
                 .thenThrow(new NotFoundException("Translator with id 1 not found"));
 
         mockMvc.perform(put("/translators/{translatorId}", 1)
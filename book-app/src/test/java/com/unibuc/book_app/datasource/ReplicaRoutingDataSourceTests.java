@@ -0,0 +1,104 @@
+package com.unibuc.book_app.datasource;
+
+import com.unibuc.book_app.versioning.Table;
+import com.unibuc.book_app.versioning.TableModifiedEvent;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTests {
+
+    @Test
+    void testReadOnlyTransaction_GoesToReplica() {
+        Routing routing = new Routing(Duration.ZERO, 1);
+
+        assertEquals("replica-0", routing.readOnly());
+    }
+
+    @Test
+    void testReadOnlyTransactions_RoundRobinOverReplicas() {
+        Routing routing = new Routing(Duration.ZERO, 2);
+
+        assertEquals(List.of("replica-0", "replica-1", "replica-0"),
+                List.of(routing.readOnly(), routing.readOnly(), routing.readOnly()));
+    }
+
+    @Test
+    void testReadWriteTransaction_StaysOnPrimary() {
+        Routing routing = new Routing(Duration.ZERO, 1);
+
+        assertEquals("primary", routing.readWrite());
+    }
+
+    @Test
+    void testNoTransaction_StaysOnPrimary() {
+        Routing routing = new Routing(Duration.ZERO, 1);
+
+        assertEquals("primary", routing.jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testReadOnlyTransaction_StaysOnPrimaryAfterWrite() {
+        Routing routing = new Routing(Duration.ofMinutes(1), 1);
+
+        routing.window.onTableModified(new TableModifiedEvent(Table.BOOK));
+
+        assertEquals("primary", routing.readOnly());
+    }
+
+    // Every database holds a single row naming itself, so a query tells which one served it
+    private static final class Routing {
+        private final ReadYourWritesWindow window;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        private Routing(Duration window, int replicaCount) {
+            this.window = new ReadYourWritesWindow(window);
+            DataSource primary = database("primary");
+            List<DataSource> replicas = new ArrayList<>();
+            for (int i = 0; i < replicaCount; i++) {
+                replicas.add(database("replica-" + i));
+            }
+            ReplicaRoutingDataSource replicaDataSource = new ReplicaRoutingDataSource(primary, replicas, this.window);
+            replicaDataSource.afterPropertiesSet();
+
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+            dataSource.setReadOnlyDataSource(replicaDataSource);
+
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.readOnly = new TransactionTemplate(transactionManager);
+            this.readOnly.setReadOnly(true);
+            this.readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        private String readOnly() {
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        private String readWrite() {
+            return readWrite.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        private static DataSource database(String name) {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+            jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+            return dataSource;
+        }
+    }
+}
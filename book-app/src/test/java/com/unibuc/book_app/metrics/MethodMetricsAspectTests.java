@@ -0,0 +1,113 @@
+package com.unibuc.book_app.metrics;
+
+import com.unibuc.book_app.configuration.MethodMetricsConfig;
+import com.unibuc.book_app.dto.MethodMetricsDto;
+import com.unibuc.book_app.exception.NotFoundException;
+import com.unibuc.book_app.mapper.CategoryMapper;
+import com.unibuc.book_app.model.Category;
+import com.unibuc.book_app.service.CategoryService;
+import com.unibuc.book_app.service.CategoryMembershipService;
+import com.unibuc.book_app.service.ExistenceFilterService;
+import com.unibuc.book_app.service.SearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({
+        MethodMetricsAspect.class,
+        MethodMetricsConfig.class,
+        SqlStatementCounter.class,
+        SimpleMeterRegistry.class,
+        CategoryService.class,
+        CategoryMapper.class
+})
+class MethodMetricsAspectTests {
+
+    @Autowired
+    private MethodMetricsAspect methodMetricsAspect;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @MockitoBean
+    private SearchService searchService;
+
+    @MockitoBean
+    private ExistenceFilterService existenceFilterService;
+
+    @MockitoBean
+    private CategoryMembershipService categoryMembershipService;
+
+    @BeforeEach
+    void setUp() {
+        testEntityManager.persist(Category.builder().name("Philosophy").build());
+        testEntityManager.persist(Category.builder().name("Poetry").build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void testServiceAndRepositoryCalls_AreTimedWithSqlStatements() {
+        categoryService.findAllCategories();
+        categoryService.findAllCategories();
+
+        MethodMetricsDto service = find("CategoryService.findAllCategories");
+        assertEquals(MethodMetricsAspect.SERVICE, service.getLayer());
+        assertEquals(2, service.getCalls());
+        assertEquals(0, service.getErrors());
+        assertEquals(2, service.getSqlStatements());
+        assertEquals(1, service.getSqlStatementsMax());
+        assertTrue(service.getP99Micros() > 0);
+
+        MethodMetricsDto repository = find("CategoryRepository.findAll");
+        assertEquals(MethodMetricsAspect.REPOSITORY, repository.getLayer());
+        assertEquals(2, repository.getCalls());
+        assertEquals(2, repository.getSqlStatements());
+
+        assertEquals(2, meterRegistry.get("app.method.duration")
+                .tags("class", "CategoryService", "method", "findAllCategories", "exception", "none")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void testServiceCall_CountsErrors() {
+        assertThrows(NotFoundException.class, () -> categoryService.findCategoryById(-1));
+
+        MethodMetricsDto service = find("CategoryService.findCategoryById");
+        assertEquals(1, service.getCalls());
+        assertEquals(1, service.getErrors());
+        assertEquals(1, meterRegistry.get("app.method.duration")
+                .tags("class", "CategoryService", "method", "findCategoryById", "exception", "NotFoundException")
+                .timer()
+                .count());
+    }
+
+    private MethodMetricsDto find(String method) {
+        return methodMetricsAspect.snapshot()
+                .stream()
+                .filter(metrics -> metrics.getMethod().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,224 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.model.Author;
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.model.BookAuthorEditor.BookAuthorEditorId;
+import com.unibuc.book_app.model.BookCategory.BookCategoryId;
+import com.unibuc.book_app.model.Editor;
+import com.unibuc.book_app.repository.AuthorRepository;
+import com.unibuc.book_app.repository.BookAuthorEditorRepository;
+import com.unibuc.book_app.repository.BookCategoryRepository;
+import com.unibuc.book_app.repository.BookPublisherRepository;
+import com.unibuc.book_app.repository.BookRepository;
+import com.unibuc.book_app.repository.EditorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AfterCommitTests {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private EditorRepository editorRepository;
+
+    @Mock
+    private BookAuthorEditorRepository bookAuthorEditorRepository;
+
+    @Mock
+    private BookCategoryRepository bookCategoryRepository;
+
+    @Mock
+    private BookPublisherRepository bookPublisherRepository;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @InjectMocks
+    private CollaborationService collaborationService;
+
+    @InjectMocks
+    private CategoryMembershipService categoryMembershipService;
+
+    @InjectMocks
+    private BookStatsService bookStatsService;
+
+    private final Book book = Book.builder()
+            .id(1)
+            .name("Pe culmile disperării")
+            .isbn("973-9344-56-9")
+            .noPages(160)
+            .price(25)
+            .language("romanian")
+            .publishDate(LocalDate.of(1934, 1, 1))
+            .build();
+    private final Author author = Author.builder().id(1).firstName("Emil").lastName("Cioran").build();
+    private final Editor editor = Editor.builder().id(10).firstName("Simona").lastName("Boerescu").build();
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRun_OutsideTransaction_AppliesAtOnce() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        searchService.indexBook(book);
+
+        assertEquals(1, searchService.search("disperarii", null).size());
+    }
+
+    @Test
+    void testRun_Committed_AppliesAfterCommit() {
+        searchService.indexBook(book);
+        assertTrue(searchService.search("disperarii", null).isEmpty());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertEquals(1, searchService.search("disperarii", null).size());
+    }
+
+    @Test
+    void testRun_RolledBack_LeavesIndexUnchanged() {
+        searchService.indexBook(book);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(searchService.search("disperarii", null).isEmpty());
+    }
+
+    @Test
+    void testCollaborationLink_Committed_AppliesAfterCommit() {
+        collaborationService.indexAuthor(author);
+        collaborationService.indexEditor(editor);
+        collaborationService.linkBookAuthorEditor(1, 1, 10);
+        assertTrue(collaborationService.findAllEditorsByAuthorId(1).isEmpty());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertEquals(10, collaborationService.findAllEditorsByAuthorId(1).getFirst().getId());
+    }
+
+    @Test
+    void testCollaborationUnlink_RolledBack_KeepsLink() {
+        TransactionSynchronizationManager.clearSynchronization();
+        collaborationService.indexAuthor(author);
+        collaborationService.indexEditor(editor);
+        collaborationService.linkBookAuthorEditor(1, 1, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        collaborationService.unlinkBookAuthorEditor(1, 1, 10);
+        collaborationService.removeAuthor(1);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+
+        assertEquals(1, collaborationService.findAllEditorsByAuthorId(1).size());
+    }
+
+    @Test
+    void testBuildGraph_InsideTransaction_AppliesAtOnce() {
+        when(authorRepository.findAll()).thenReturn(List.of(author));
+        when(editorRepository.findAll()).thenReturn(List.of(editor));
+        when(bookAuthorEditorRepository.findAllIds()).thenReturn(List.of(new BookAuthorEditorId(1, 1, 10)));
+
+        collaborationService.buildGraph();
+
+        assertEquals(1, collaborationService.findAllEditorsByAuthorId(1).size());
+    }
+
+    @Test
+    void testCategoryMembershipLink_Committed_AppliesAfterCommit() {
+        categoryMembershipService.linkBookCategory(1, 5);
+        assertTrue(categoryMembershipService.findBookIds(List.of(5), List.of(), List.of(), 0, 10).isEmpty());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertEquals(List.of(1), categoryMembershipService.findBookIds(List.of(5), List.of(), List.of(), 0, 10));
+    }
+
+    @Test
+    void testCategoryMembershipUnlink_RolledBack_KeepsLink() {
+        TransactionSynchronizationManager.clearSynchronization();
+        categoryMembershipService.linkBookCategory(1, 5);
+        TransactionSynchronizationManager.initSynchronization();
+
+        categoryMembershipService.unlinkBookCategory(1, 5);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+
+        assertEquals(List.of(1), categoryMembershipService.findBookIds(List.of(5), List.of(), List.of(), 0, 10));
+    }
+
+    @Test
+    void testBuildCategoryMembership_InsideTransaction_AppliesAtOnce() {
+        when(bookCategoryRepository.findAllIds()).thenReturn(List.of(new BookCategoryId(1, 5)));
+
+        categoryMembershipService.buildIndex();
+
+        assertEquals(List.of(1), categoryMembershipService.findBookIds(List.of(5), List.of(), List.of(), 0, 10));
+    }
+
+    @Test
+    void testBookStatsIndex_Committed_AppliesAfterCommit() {
+        bookStatsService.indexBook(book);
+        assertTrue(bookStatsService.findLanguageStats().isEmpty());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertEquals("romanian", bookStatsService.findLanguageStats().getFirst().getLanguage());
+    }
+
+    @Test
+    void testBookStatsRemove_RolledBack_KeepsBook() {
+        TransactionSynchronizationManager.clearSynchronization();
+        bookStatsService.indexBook(book);
+        TransactionSynchronizationManager.initSynchronization();
+
+        bookStatsService.removeBook(1);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+
+        assertEquals(1, bookStatsService.findYearStats().size());
+    }
+
+    @Test
+    void testBuildColumns_InsideTransaction_AppliesAtOnce() {
+        when(bookRepository.findAll()).thenReturn(List.of(book));
+
+        bookStatsService.buildColumns();
+
+        assertEquals(1, bookStatsService.findLanguageStats().size());
+    }
+}
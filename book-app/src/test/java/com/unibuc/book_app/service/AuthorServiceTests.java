@@ -2,13 +2,9 @@ package com.unibuc.book_app.service;
 
 import com.unibuc.book_app.dto.*;
 import com.unibuc.book_app.exception.NotFoundException;
+import com.unibuc.book_app.exception.PreconditionFailedException;
 import com.unibuc.book_app.mapper.AuthorMapper;
-import com.unibuc.book_app.mapper.BookMapper;
-import com.unibuc.book_app.mapper.EditorMapper;
 import com.unibuc.book_app.model.Author;
-import com.unibuc.book_app.model.Book;
-import com.unibuc.book_app.model.Editor;
-import com.unibuc.book_app.model.Translator;
 import com.unibuc.book_app.repository.AuthorRepository;
 import com.unibuc.book_app.repository.BookAuthorEditorRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -37,10 +34,13 @@ class AuthorServiceTests {
     private BookAuthorEditorRepository bookAuthorEditorRepository;
 
     @Mock
-    private BookMapper bookMapper;
+    private SearchService searchService;
 
     @Mock
-    private EditorMapper editorMapper;
+    private ExistenceFilterService existenceFilterService;
+
+    @Mock
+    private CollaborationService collaborationService;
 
     @InjectMocks
     private AuthorService authorService;
@@ -77,41 +77,46 @@ class AuthorServiceTests {
     }
 
     @Test
-    void testFindAllBooksByAuthorId_Valid() {
-        Book book1 = Book.builder()
-                .name("Intre iadul deznadejdii si iadul smereniei")
-                .isbn("973-9344-56-9")
-                .noPages(302)
-                .price(27)
-                .language("romanian")
-                .publishDate(LocalDate.of(2024, 3, 10))
-                .translator(
-                        Translator.builder()
-                                .firstName("John")
-                                .lastName("Doe")
-                                .build()
-                )
+    void testFindAuthorsPage_Valid() {
+        Author author1 = Author.builder()
+                .id(3)
+                .firstName("John")
+                .lastName("Doe")
+                .debutDate(LocalDate.of(1931, 2, 18))
                 .build();
-        Book book2 = Book.builder()
-                .name("The Shadow of the Wind")
-                .isbn("978-0143126393")
-                .noPages(450)
-                .price(15)
-                .language("english")
-                .publishDate(LocalDate.of(2023, 11, 5))
-                .translator(
-                        Translator.builder()
-                                .firstName("Leo")
-                                .lastName("Tolstoy")
-                                .build()
-                )
+        Author author2 = Author.builder()
+                .id(5)
+                .firstName("Leo")
+                .lastName("Tolstoy")
+                .debutDate(LocalDate.of(1965, 2, 18))
+                .build();
+        Author author3 = Author.builder()
+                .id(8)
+                .firstName("Mircea")
+                .lastName("Eliade")
+                .debutDate(LocalDate.of(1933, 2, 18))
                 .build();
+        AuthorResponseDto dto1 = new AuthorResponseDto(3, "John", "Doe", LocalDate.of(1931, 2, 18));
+        AuthorResponseDto dto2 = new AuthorResponseDto(5, "Leo", "Tolstoy", LocalDate.of(1965, 2, 18));
+
+        when(authorRepository.findByIdGreaterThanOrderByIdAsc(2, Limit.of(3))).thenReturn(List.of(author1, author2, author3));
+        when(authorMapper.toResponseDto(author1)).thenReturn(dto1);
+        when(authorMapper.toResponseDto(author2)).thenReturn(dto2);
+
+        CursorPageDto<AuthorResponseDto> result = authorService.findAuthorsPage(2, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(dto1, result.getItems().get(0));
+        assertEquals(dto2, result.getItems().get(1));
+        assertEquals("5", result.getNextCursor());
+    }
+
+    @Test
+    void testFindAllBooksByAuthorId_Valid() {
         BookSummaryDto dto1 = new BookSummaryDto(1, "1984");
         BookSummaryDto dto2 = new BookSummaryDto(2, "Animal Farm");
 
-        when(bookAuthorEditorRepository.findAllBooksByAuthorId(1)).thenReturn(List.of(book1, book2));
-        when(bookMapper.toSummaryDto(book1)).thenReturn(dto1);
-        when(bookMapper.toSummaryDto(book2)).thenReturn(dto2);
+        when(bookAuthorEditorRepository.findAllBooksByAuthorId(1)).thenReturn(List.of(dto1, dto2));
 
         List<BookSummaryDto> result = authorService.findAllBooksByAuthorId(1);
 
@@ -122,22 +127,10 @@ class AuthorServiceTests {
 
     @Test
     void testFindAllEditorsByAuthorId_Valid() {
-        Editor editor1 = Editor.builder()
-                .firstName("John")
-                .lastName("Doe")
-                .debutDate(LocalDate.of(1931, 2, 18))
-                .build();
-        Editor editor2 = Editor.builder()
-                .firstName("Leo")
-                .lastName("Tolstoy")
-                .debutDate(LocalDate.of(1965, 7, 31))
-                .build();
         EditorSummaryDto dto1 = new EditorSummaryDto(1, "John", "Doe");
         EditorSummaryDto dto2 = new EditorSummaryDto(2, "Leo", "Tolstoy");
 
-        when(bookAuthorEditorRepository.findAllEditorsByAuthorId(1)).thenReturn(List.of(editor1, editor2));
-        when(editorMapper.toSummaryDto(editor1)).thenReturn(dto1);
-        when(editorMapper.toSummaryDto(editor2)).thenReturn(dto2);
+        when(collaborationService.findAllEditorsByAuthorId(1)).thenReturn(List.of(dto1, dto2));
 
         List<EditorSummaryDto> result = authorService.findAllEditorsByAuthorId(1);
 
@@ -187,6 +180,24 @@ class AuthorServiceTests {
         assertEquals(dto, result);
     }
 
+    @Test
+    void testFindAuthorVersion_Valid() {
+        when(authorRepository.findVersionById(1)).thenReturn(Optional.of(3L));
+
+        assertEquals(3L, authorService.findAuthorVersion(1));
+        verify(authorRepository, never()).findById(1);
+    }
+
+    @Test
+    void testFindAuthorVersion_Invalid() {
+        when(authorRepository.findVersionById(1)).thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> authorService.findAuthorVersion(1));
+
+        assertEquals("Author with id 1 not found", exception.getMessage());
+    }
+
     @Test
     void testCreateAuthor_Valid() {
         AuthorCreateDto createDto = new AuthorCreateDto("John", "Doe", LocalDate.of(1931, 2, 18));
@@ -230,12 +241,14 @@ class AuthorServiceTests {
 
         when(authorRepository.findById(1)).thenReturn(Optional.of(author));
         doNothing().when(authorMapper).updateEntityFromDto(updateDto, author);
-        when(authorRepository.save(author)).thenReturn(updatedAuthor);
+        when(authorRepository.saveAndFlush(author)).thenReturn(updatedAuthor);
         when(authorMapper.toResponseDto(updatedAuthor)).thenReturn(responseDto);
 
-        AuthorResponseDto result = authorService.updateAuthor(1, updateDto);
+        AuthorResponseDto result = authorService.updateAuthor(1, updateDto, null);
 
         assertEquals(responseDto, result);
+        verify(searchService, times(1)).indexAuthor(updatedAuthor);
+        verify(collaborationService, times(1)).indexAuthor(updatedAuthor);
     }
 
     @Test
@@ -245,11 +258,31 @@ class AuthorServiceTests {
         when(authorRepository.findById(1)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> authorService.updateAuthor(1, updateDto));
+                () -> authorService.updateAuthor(1, updateDto, null));
 
         assertEquals("Author with id 1 not found", exception.getMessage());
     }
 
+    @Test
+    void testUpdateAuthor_StaleVersion() {
+        AuthorUpdateDto updateDto = new AuthorUpdateDto("John", "Doe", LocalDate.of(1931, 2, 18));
+        Author author = Author.builder()
+                .id(1)
+                .version(3L)
+                .firstName("John")
+                .lastName("Doe")
+                .debutDate(LocalDate.of(1931, 2, 18))
+                .build();
+
+        when(authorRepository.findById(1)).thenReturn(Optional.of(author));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> authorService.updateAuthor(1, updateDto, 2L));
+
+        assertEquals("Author with id 1 is at version 3, not 2", exception.getMessage());
+        verify(authorRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     void testDeleteAuthor_Valid() {
         doNothing().when(authorRepository).deleteById(1);
@@ -257,5 +290,7 @@ class AuthorServiceTests {
         authorService.deleteAuthor(1);
 
         verify(authorRepository, times(1)).deleteById(1);
+        verify(searchService, times(1)).removeAuthor(1);
+        verify(collaborationService, times(1)).removeAuthor(1);
     }
 }
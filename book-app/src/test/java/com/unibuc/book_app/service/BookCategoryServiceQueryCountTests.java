@@ -0,0 +1,130 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.BookCategoryDto;
+import com.unibuc.book_app.dto.BulkItemResultDto;
+import com.unibuc.book_app.mapper.BookCategoryMapper;
+import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.mapper.CategoryMapper;
+import com.unibuc.book_app.mapper.TranslatorMapper;
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.model.BookCategory;
+import com.unibuc.book_app.model.Category;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "book-app.existence-filter.enabled=false"
+})
+@Import({
+        BookCategoryService.class,
+        BookService.class,
+        CategoryService.class,
+        CategoryMembershipService.class,
+        TranslatorService.class,
+        BookStatsService.class,
+        SparseFieldsetRepository.class,
+        SearchService.class,
+        ExistenceFilterService.class,
+        BookCategoryMapper.class,
+        BookMapper.class,
+        CategoryMapper.class,
+        TranslatorMapper.class,
+        LocalValidatorFactoryBean.class
+})
+class BookCategoryServiceQueryCountTests {
+
+    @Autowired
+    private BookCategoryService bookCategoryService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+
+    @BeforeEach
+    void setUp() {
+        queryCounter = new QueryCounter(testEntityManager, entityManagerFactory);
+    }
+
+    @Test
+    void testCreateBookCategories_ValidatesWithOneQueryPerEntityType() {
+        int count = 120;
+        List<Integer> bookIds = seedBooks(count);
+        Integer categoryId = testEntityManager.persistAndGetId(Category.builder().name("Philosophy").build(), Integer.class);
+
+        List<BookCategoryDto> dtos = new ArrayList<>(count);
+        for (Integer bookId : bookIds) {
+            dtos.add(new BookCategoryDto(bookId, categoryId));
+        }
+        long statements = queryCounter.count(() -> {
+            List<BulkItemResultDto<BookCategoryDto>> results = bookCategoryService.createBookCategories(dtos);
+            assertTrue(results.stream().allMatch(result -> result.getStatus() == 201));
+        });
+
+        assertEquals(count, queryCounter.statistics().getEntityInsertCount());
+        assertEquals(0, queryCounter.statistics().getEntityLoadCount());
+        assertTrue(statements <= 3 + count / BookService.BULK_BATCH_SIZE + 1,
+                "bulk link issued " + statements + " statements");
+    }
+
+    @Test
+    void testCreateBookCategories_DuplicatesAreIgnored() {
+        List<Integer> bookIds = seedBooks(2);
+        Integer categoryId = testEntityManager.persistAndGetId(Category.builder().name("Philosophy").build(), Integer.class);
+        testEntityManager.persist(BookCategory.builder()
+                .bookCategoryId(new BookCategory.BookCategoryId(bookIds.get(0), categoryId))
+                .book(testEntityManager.find(Book.class, bookIds.get(0)))
+                .category(testEntityManager.find(Category.class, categoryId))
+                .build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<BulkItemResultDto<BookCategoryDto>> results = bookCategoryService.createBookCategories(List.of(
+                new BookCategoryDto(bookIds.get(0), categoryId),
+                new BookCategoryDto(bookIds.get(1), categoryId),
+                new BookCategoryDto(bookIds.get(1), categoryId),
+                new BookCategoryDto(bookIds.get(1), -1),
+                new BookCategoryDto(null, categoryId)
+        ));
+
+        assertEquals(List.of(200, 201, 200, 404, 400), results.stream().map(BulkItemResultDto::getStatus).toList());
+        assertEquals(2L, testEntityManager.getEntityManager()
+                .createQuery("SELECT COUNT(bc) FROM BookCategory bc", Long.class)
+                .getSingleResult());
+    }
+
+    private List<Integer> seedBooks(int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = testEntityManager.persist(Book.builder()
+                    .name("Book " + i)
+                    .isbn("isbn-" + System.nanoTime() + "-" + i)
+                    .noPages(100 + i)
+                    .price(10 + i)
+                    .language("romanian")
+                    .publishDate(LocalDate.of(2024, 3, 10))
+                    .build());
+            ids.add(book.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,130 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.service.BookColumns.LanguageStats;
+import com.unibuc.book_app.service.BookColumns.PublisherStats;
+import com.unibuc.book_app.service.BookColumns.YearStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookColumnsTests {
+    private static final int HUMANITAS = 1;
+    private static final int POLIROM = 2;
+
+    private BookColumns bookColumns;
+
+    @BeforeEach
+    void setUp() {
+        bookColumns = new BookColumns();
+        put(1, 40, 150, LocalDate.of(1934, 5, 1), "romanian");
+        put(2, 60, 320, LocalDate.of(1937, 1, 1), "romanian");
+        put(3, 25, 90, LocalDate.of(1949, 12, 31), "french");
+        put(4, 55, 1200, LocalDate.of(1937, 6, 15), "french");
+        bookColumns.link(1, HUMANITAS);
+        bookColumns.link(2, HUMANITAS);
+        bookColumns.link(3, HUMANITAS);
+        bookColumns.link(3, POLIROM);
+        bookColumns.link(4, POLIROM);
+    }
+
+    @Test
+    void testLanguageStats_Valid() {
+        assertEquals(List.of(
+                new LanguageStats("french", 2, 80, 25, 55),
+                new LanguageStats("romanian", 2, 100, 40, 60)
+        ), bookColumns.languageStats());
+    }
+
+    @Test
+    void testPublisherStats_Valid() {
+        List<PublisherStats> stats = bookColumns.publisherStats();
+
+        assertEquals(2, stats.size());
+        assertPublisher(stats.get(0), HUMANITAS, 3, 560, 90, 320, 1, 1, 0, 1, 0, 0);
+        assertPublisher(stats.get(1), POLIROM, 2, 1290, 90, 1200, 1, 0, 0, 0, 0, 1);
+    }
+
+    @Test
+    void testYearStats_Valid() {
+        assertEquals(List.of(
+                new YearStats(1934, 1),
+                new YearStats(1937, 2),
+                new YearStats(1949, 1)
+        ), bookColumns.yearStats());
+    }
+
+    @Test
+    void testPutBook_UpdatesRow() {
+        put(3, 35, 90, LocalDate.of(1950, 1, 1), "romanian");
+
+        assertEquals(List.of(
+                new LanguageStats("french", 1, 55, 55, 55),
+                new LanguageStats("romanian", 3, 135, 35, 60)
+        ), bookColumns.languageStats());
+        assertEquals(new YearStats(1950, 1), bookColumns.yearStats().getLast());
+    }
+
+    @Test
+    void testRemoveBook_MovesLastRowAndItsLinks() {
+        bookColumns.removeBook(2);
+
+        assertEquals(List.of(
+                new LanguageStats("french", 2, 80, 25, 55),
+                new LanguageStats("romanian", 1, 40, 40, 40)
+        ), bookColumns.languageStats());
+        List<PublisherStats> stats = bookColumns.publisherStats();
+        assertPublisher(stats.get(0), HUMANITAS, 2, 240, 90, 150, 1, 1, 0, 0, 0, 0);
+        assertPublisher(stats.get(1), POLIROM, 2, 1290, 90, 1200, 1, 0, 0, 0, 0, 1);
+
+        bookColumns.unlink(4, POLIROM);
+
+        assertPublisher(bookColumns.publisherStats().get(1), POLIROM, 1, 90, 90, 90, 1, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void testUnlink_DropsEmptyPublisher() {
+        bookColumns.unlink(3, POLIROM);
+        bookColumns.unlink(4, POLIROM);
+        bookColumns.unlink(4, POLIROM);
+
+        List<PublisherStats> stats = bookColumns.publisherStats();
+        assertEquals(1, stats.size());
+        assertPublisher(stats.getFirst(), HUMANITAS, 3, 560, 90, 320, 1, 1, 0, 1, 0, 0);
+    }
+
+    @Test
+    void testPageRange_Valid() {
+        assertEquals(0, BookColumns.pageRange(0));
+        assertEquals(0, BookColumns.pageRange(99));
+        assertEquals(1, BookColumns.pageRange(100));
+        assertEquals(3, BookColumns.pageRange(499));
+        assertEquals(4, BookColumns.pageRange(500));
+        assertEquals(5, BookColumns.pageRange(1000));
+    }
+
+    @Test
+    void testYearOf_MatchesLocalDate() {
+        for (long day = LocalDate.of(1600, 1, 1).toEpochDay(); day <= LocalDate.of(2400, 12, 31).toEpochDay(); day++) {
+            assertEquals(LocalDate.ofEpochDay(day).getYear(), BookColumns.yearOf((int) day));
+        }
+    }
+
+    private void put(int bookId, int price, int noPages, LocalDate publishDate, String language) {
+        bookColumns.putBook(bookId, price, noPages, (int) publishDate.toEpochDay(), language);
+    }
+
+    private static void assertPublisher(PublisherStats stats, int publisherId, int books, long totalPages,
+                                        int minPages, int maxPages, int... pageRanges) {
+        assertEquals(publisherId, stats.publisherId());
+        assertEquals(books, stats.books());
+        assertEquals(totalPages, stats.totalPages());
+        assertEquals(minPages, stats.minPages());
+        assertEquals(maxPages, stats.maxPages());
+        assertArrayEquals(pageRanges, stats.pageRanges());
+    }
+}
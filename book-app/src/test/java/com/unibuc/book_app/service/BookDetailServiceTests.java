@@ -0,0 +1,169 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.configuration.CacheConfig;
+import com.unibuc.book_app.dto.*;
+import com.unibuc.book_app.exception.GatewayTimeoutException;
+import com.unibuc.book_app.exception.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class BookDetailServiceTests {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    private BookDetailService bookDetailService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bookDetailService = new BookDetailService(bookService, transactionManager, cacheManager);
+        ReflectionTestUtils.setField(bookDetailService, "timeout", Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookDetailService.close();
+    }
+
+    @Test
+    void testFindBookDetailById_Valid() {
+        BookResponseDto book = BookResponseDto.builder()
+                .id(1)
+                .name("Intre iadul deznadejdii si iadul smereniei")
+                .isbn("973-9344-56-9")
+                .noPages(350)
+                .price(100)
+                .language("romanian")
+                .publishDate(LocalDate.of(2024, 3, 10))
+                .build();
+        List<AuthorSummaryDto> authors = List.of(new AuthorSummaryDto(1, "Emil", "Cioran"));
+        List<EditorSummaryDto> editors = List.of(new EditorSummaryDto(1, "Simona", "Boerescu"));
+        List<CategorySummaryDto> categories = List.of(new CategorySummaryDto(1, "Philosophy"));
+        List<PublisherSummaryDto> publishers = List.of();
+
+        when(bookService.findBookById(1)).thenReturn(book);
+        when(bookService.findAllAuthorsByBookId(1)).thenReturn(authors);
+        when(bookService.findAllEditorsByBookId(1)).thenReturn(editors);
+        when(bookService.findAllCategoriesByBookId(1)).thenReturn(categories);
+        when(bookService.findAllPublishersByBookId(1)).thenReturn(publishers);
+
+        BookDetailDto result = bookDetailService.findBookDetailById(1);
+
+        assertEquals(1, result.getId());
+        assertEquals("973-9344-56-9", result.getIsbn());
+        assertEquals(350, result.getNoPages());
+        assertEquals(authors, result.getAuthors());
+        assertEquals(editors, result.getEditors());
+        assertEquals(categories, result.getCategories());
+        assertEquals(publishers, result.getPublishers());
+
+        ArgumentCaptor<TransactionDefinition> transactions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(5)).getTransaction(transactions.capture());
+        transactions.getAllValues().forEach(transaction -> {
+            assertTrue(transaction.isReadOnly());
+            assertEquals(1, transaction.getTimeout());
+        });
+    }
+
+    @Test
+    void testFindBookDetailById_CachedOpensNoTransaction() {
+        BookResponseDto book = BookResponseDto.builder().id(1).name("Amurgul gandurilor").build();
+        List<AuthorSummaryDto> authors = List.of(new AuthorSummaryDto(1, "Emil", "Cioran"));
+        cacheManager.getCache(CacheConfig.BOOKS).put(1, book);
+        cacheManager.getCache(CacheConfig.BOOK_AUTHORS).put(1, authors);
+        cacheManager.getCache(CacheConfig.BOOK_EDITORS).put(1, List.of());
+        cacheManager.getCache(CacheConfig.BOOK_CATEGORIES).put(1, List.of());
+        cacheManager.getCache(CacheConfig.BOOK_PUBLISHERS).put(1, List.of());
+
+        BookDetailDto result = bookDetailService.findBookDetailById(1);
+
+        assertEquals("Amurgul gandurilor", result.getName());
+        assertEquals(authors, result.getAuthors());
+        verifyNoInteractions(transactionManager, bookService);
+    }
+
+    @Test
+    void testFindBookDetailById_NotFound() {
+        when(bookService.findBookById(1)).thenThrow(new NotFoundException("Book with id 1 not found"));
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> bookDetailService.findBookDetailById(1));
+
+        assertEquals("Book with id 1 not found", exception.getMessage());
+        verify(bookService, never()).findAllAuthorsByBookId(anyInt());
+        verify(bookService, never()).findAllEditorsByBookId(anyInt());
+        verify(bookService, never()).findAllCategoriesByBookId(anyInt());
+        verify(bookService, never()).findAllPublishersByBookId(anyInt());
+    }
+
+    @Test
+    void testFindBookDetailById_QueryTimedOut() {
+        when(bookService.findBookById(1)).thenReturn(BookResponseDto.builder().id(1).build());
+        when(bookService.findAllAuthorsByBookId(1)).thenReturn(List.of());
+        when(bookService.findAllEditorsByBookId(1)).thenThrow(new QueryTimeoutException("Statement cancelled"));
+        when(bookService.findAllCategoriesByBookId(1)).thenReturn(List.of());
+        when(bookService.findAllPublishersByBookId(1)).thenReturn(List.of());
+
+        GatewayTimeoutException exception = assertThrows(GatewayTimeoutException.class,
+                () -> bookDetailService.findBookDetailById(1));
+
+        assertEquals("Book detail with id 1 took longer than 500 ms", exception.getMessage());
+    }
+
+    @Test
+    void testFindBookDetailById_DeadlineExceeded() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(bookService.findBookById(1)).thenReturn(BookResponseDto.builder().id(1).build());
+        when(bookService.findAllAuthorsByBookId(1)).thenAnswer(invocation -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+            finished.countDown();
+            return List.of();
+        });
+        when(bookService.findAllEditorsByBookId(1)).thenReturn(List.of());
+        when(bookService.findAllCategoriesByBookId(1)).thenReturn(List.of());
+        when(bookService.findAllPublishersByBookId(1)).thenReturn(List.of());
+
+        GatewayTimeoutException exception = assertThrows(GatewayTimeoutException.class,
+                () -> bookDetailService.findBookDetailById(1));
+
+        assertEquals("Book detail with id 1 took longer than 500 ms", exception.getMessage());
+        release.countDown();
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertFalse(interrupted.get(), "slow lookup was interrupted");
+    }
+}
@@ -0,0 +1,130 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.BookResponseDto;
+import com.unibuc.book_app.dto.TranslatorSummaryDto;
+import com.unibuc.book_app.versioning.CollectionVersions;
+import com.unibuc.book_app.versioning.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class BookListSnapshotServiceTests {
+    private final BookService bookService = mock(BookService.class);
+    private final CollectionVersions collectionVersions = new CollectionVersions();
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final List<BookResponseDto> books = List.of(
+            new BookResponseDto(1, "Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), null),
+            new BookResponseDto(2, "The Shadow of the Wind", "978-0143126393", 450, 15, "english", LocalDate.of(2023, 11, 5), new TranslatorSummaryDto(2, "Leo", "Tolstoy"))
+    );
+    private BookListSnapshotService snapshotService;
+
+    @AfterEach
+    void tearDown() {
+        if (snapshotService != null) {
+            snapshotService.deleteFiles();
+        }
+    }
+
+    @Test
+    void testRebuild_InMemory() throws IOException {
+        snapshotService = snapshotService(DataSize.ofMegabytes(1));
+        exportBooks();
+
+        snapshotService.rebuild();
+
+        GzipSnapshot snapshot = snapshotService.current(etag()).orElseThrow();
+        assertNull(snapshot.file());
+        assertEquals(objectMapper.writeValueAsString(books), gunzip(snapshot));
+    }
+
+    @Test
+    void testRebuild_InFile() throws IOException {
+        snapshotService = snapshotService(DataSize.ofBytes(0));
+        exportBooks();
+
+        snapshotService.rebuild();
+
+        GzipSnapshot snapshot = snapshotService.current(etag()).orElseThrow();
+        assertTrue(Files.exists(snapshot.file()));
+        assertEquals(Files.size(snapshot.file()), snapshot.length());
+        assertEquals(objectMapper.writeValueAsString(books), gunzip(snapshot));
+    }
+
+    @Test
+    void testCurrent_StaleAfterWrite() {
+        snapshotService = snapshotService(DataSize.ofMegabytes(1));
+        exportBooks();
+        snapshotService.rebuild();
+
+        collectionVersions.bump(Table.TRANSLATOR);
+
+        assertTrue(snapshotService.current(etag()).isEmpty());
+    }
+
+    @Test
+    void testRebuild_ReplacedFileIsDeletedAfterOneGeneration() {
+        snapshotService = snapshotService(DataSize.ofBytes(0));
+        exportBooks();
+        snapshotService.rebuild();
+        GzipSnapshot first = snapshotService.current(etag()).orElseThrow();
+
+        collectionVersions.bump(Table.BOOK);
+        snapshotService.rebuild();
+        assertTrue(Files.exists(first.file()));
+
+        collectionVersions.bump(Table.BOOK);
+        snapshotService.rebuild();
+        assertFalse(Files.exists(first.file()));
+    }
+
+    @Test
+    void testRebuild_FailureKeepsNoSnapshot() {
+        snapshotService = snapshotService(DataSize.ofBytes(0));
+        doThrow(new IllegalStateException("database unavailable")).when(bookService).exportBooks(any());
+
+        snapshotService.rebuild();
+
+        assertTrue(snapshotService.current(etag()).isEmpty());
+    }
+
+    private BookListSnapshotService snapshotService(DataSize inMemoryLimit) {
+        return new BookListSnapshotService(bookService, collectionVersions, objectMapper, true, inMemoryLimit);
+    }
+
+    private void exportBooks() {
+        doAnswer(invocation -> {
+            books.forEach(invocation.<Consumer<BookResponseDto>>getArgument(0));
+            return null;
+        }).when(bookService).exportBooks(any());
+    }
+
+    private String etag() {
+        return collectionVersions.etag(Table.BOOK, Table.TRANSLATOR);
+    }
+
+    private static String gunzip(GzipSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        snapshot.transferTo(Channels.newChannel(gzipped));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()))) {
+            return new String(in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.BookCreateDto;
+import com.unibuc.book_app.dto.BookResponseDto;
+import com.unibuc.book_app.dto.BulkItemResultDto;
+import com.unibuc.book_app.dto.CursorPageDto;
+import com.unibuc.book_app.dto.BookFilterDto;
+import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.mapper.TranslatorMapper;
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.model.Translator;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "book-app.existence-filter.enabled=false"
+})
+@Import({
+        BookService.class,
+        TranslatorService.class,
+        BookStatsService.class,
+        SparseFieldsetRepository.class,
+        SearchService.class,
+        ExistenceFilterService.class,
+        BookMapper.class,
+        TranslatorMapper.class,
+        LocalValidatorFactoryBean.class
+})
+class BookServiceQueryCountTests {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+
+    @BeforeEach
+    void setUp() {
+        queryCounter = new QueryCounter(testEntityManager, entityManagerFactory);
+    }
+
+    @Test
+    void testFindAllBooks_StatementCountIsConstant() {
+        seedBooks(5);
+        long smallCatalog = queryCounter.count(() -> assertEquals(5, bookService.findAllBooks().size()));
+
+        seedBooks(45);
+        long largeCatalog = queryCounter.count(() -> assertEquals(50, bookService.findAllBooks().size()));
+
+        assertEquals(1, smallCatalog);
+        assertEquals(smallCatalog, largeCatalog);
+    }
+
+    @Test
+    void testFindBookById_SingleStatement() {
+        Integer bookId = seedBooks(1);
+
+        long statements = queryCounter.count(() -> assertEquals("John", bookService.findBookById(bookId).getTranslator().getFirstName()));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testFindBookVersionTag_DoesNotLoadTheBook() {
+        Integer bookId = seedBooks(1);
+
+        long statements = queryCounter.count(() -> assertEquals("0.0", bookService.findBookVersionTag(bookId)));
+
+        assertEquals(1, statements);
+        assertEquals(0, queryCounter.statistics().getEntityLoadCount());
+    }
+
+    @Test
+    void testFindBooksPage_StatementCountIsConstant() {
+        seedBooks(30);
+
+        long statements = queryCounter.count(() -> assertEquals(20, bookService.findBooksPage(null, 20).getItems().size()));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testFindFilteredBooksPage_SingleStatementPerPage() {
+        Integer lastBookId = seedBooks(30);
+        BookFilterDto filter = BookFilterDto.builder()
+                .language("romanian")
+                .minPrice(15)
+                .maxPrice(34)
+                .sort("-price")
+                .build();
+
+        List<Integer> prices = new ArrayList<>();
+        List<CursorPageDto<BookResponseDto>> pages = new ArrayList<>();
+        do {
+            String after = pages.isEmpty() ? null : pages.getLast().getNextCursor();
+            long statements = queryCounter.count(() -> pages.add(bookService.findBooksPage(filter, after, 8)));
+            assertEquals(1, statements);
+            pages.getLast().getItems().forEach(book -> {
+                assertEquals("John", book.getTranslator().getFirstName());
+                prices.add(book.getPrice());
+            });
+        } while (pages.getLast().getNextCursor() != null);
+
+        assertEquals(3, pages.size());
+        assertEquals(IntStream.iterate(34, price -> price >= 15, price -> price - 1).boxed().toList(), prices);
+
+        Integer translatorId = bookService.findBookById(lastBookId).getTranslator().getId();
+        assertEquals(List.of(lastBookId), bookService.findBooksPage(BookFilterDto.builder().translatorId(translatorId).build(), null, null)
+                .getItems().stream().map(BookResponseDto::getId).toList());
+        assertEquals(0, bookService.findBooksPage(BookFilterDto.builder().language("french").build(), null, null)
+                .getItems().size());
+    }
+
+    @Test
+    void testFindFilteredBooksPage_TiesBrokenById() {
+        seedBooks(5);
+        Book tie = testEntityManager.persist(Book.builder()
+                .name("Tie")
+                .isbn("isbn-tie-" + System.nanoTime())
+                .noPages(103)
+                .price(12)
+                .language("romanian")
+                .publishDate(LocalDate.of(2020, 1, 1))
+                .build());
+        BookFilterDto filter = BookFilterDto.builder()
+                .publishedTo(LocalDate.of(2024, 12, 31))
+                .sort("noPages")
+                .build();
+
+        CursorPageDto<BookResponseDto> first = bookService.findBooksPage(filter, null, 4);
+        CursorPageDto<BookResponseDto> second = bookService.findBooksPage(filter, first.getNextCursor(), 4);
+
+        List<Integer> pages = new ArrayList<>();
+        first.getItems().forEach(book -> pages.add(book.getNoPages()));
+        second.getItems().forEach(book -> pages.add(book.getNoPages()));
+        assertEquals(List.of(100, 101, 102, 103, 103, 104), pages);
+        assertEquals(tie.getId(), second.getItems().getFirst().getId());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testFindFilteredBooksPage_CursorOutlivesItsBook() {
+        seedBooks(6);
+        BookFilterDto filter = BookFilterDto.builder().sort("price").build();
+
+        CursorPageDto<BookResponseDto> first = bookService.findBooksPage(filter, null, 3);
+        Integer cursorBookId = first.getItems().getLast().getId();
+        assertEquals("12:" + cursorBookId, first.getNextCursor());
+        testEntityManager.remove(testEntityManager.find(Book.class, cursorBookId));
+        testEntityManager.flush();
+
+        CursorPageDto<BookResponseDto> second = bookService.findBooksPage(filter, first.getNextCursor(), 3);
+
+        assertEquals(List.of(13, 14, 15), second.getItems().stream().map(BookResponseDto::getPrice).toList());
+    }
+
+    @Test
+    void testExportBooks_StreamsEveryBookInIdOrder() {
+        Integer lastBookId = seedBooks(3);
+
+        List<BookResponseDto> books = new ArrayList<>();
+        long statements = queryCounter.count(() -> bookService.exportBooks(books::add));
+
+        assertEquals(1, statements);
+        assertEquals(List.of(lastBookId - 2, lastBookId - 1, lastBookId), books.stream().map(BookResponseDto::getId).toList());
+        assertEquals(List.of("Doe 0", "Doe 1", "Doe 2"),
+                books.stream().map(book -> book.getTranslator().getLastName()).toList());
+    }
+
+    @Test
+    void testFindAllBooksFields_SelectsOnlyRequestedColumns() {
+        seedBooks(5);
+
+        List<Map<String, Object>> books = new ArrayList<>();
+        long statements = queryCounter.count(() -> books.addAll(bookService.findAllBooks("name,price")));
+
+        assertEquals(1, statements);
+        assertEquals(0, queryCounter.statistics().getEntityLoadCount());
+        assertEquals(5, books.size());
+        assertEquals(List.of("id", "name", "price"), List.copyOf(books.getFirst().keySet()));
+        assertEquals("Book 0", books.getFirst().get("name"));
+        assertEquals(10, books.getFirst().get("price"));
+    }
+
+    @Test
+    void testFindBooksPageFields_JoinsTranslatorOnlyWhenAsked() {
+        Integer lastBookId = seedBooks(3);
+        Book untranslated = testEntityManager.persist(Book.builder()
+                .name("Untranslated")
+                .isbn("isbn-untranslated-" + System.nanoTime())
+                .noPages(50)
+                .price(99)
+                .language("romanian")
+                .publishDate(LocalDate.of(2020, 1, 1))
+                .build());
+        BookFilterDto filter = BookFilterDto.builder().sort("-price").build();
+
+        List<CursorPageDto<Map<String, Object>>> pages = new ArrayList<>();
+        long statements = queryCounter.count(() -> pages.add(bookService.findBooksPage(filter, "translator", null, 2)));
+
+        assertEquals(1, statements);
+        List<Map<String, Object>> books = pages.getFirst().getItems();
+        assertEquals(List.of(untranslated.getId(), lastBookId), books.stream().map(book -> book.get("id")).toList());
+        assertEquals(List.of("id", "translator"), List.copyOf(books.getFirst().keySet()));
+        assertNull(books.getFirst().get("translator"));
+        assertEquals(
+                Map.of("id", bookService.findBookById(lastBookId).getTranslator().getId(), "firstName", "John", "lastName", "Doe 2"),
+                books.get(1).get("translator")
+        );
+        assertEquals("12:" + lastBookId, pages.getFirst().getNextCursor());
+    }
+
+    @Test
+    void testCreateBooks_BatchesInserts() {
+        int count = 200;
+        Integer translatorId = testEntityManager.persistAndGetId(Translator.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .build(), Integer.class);
+
+        List<BookCreateDto> bulk = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            bulk.add(bookCreateDto(i, translatorId));
+        }
+        long bulkStatements = queryCounter.count(() -> {
+            List<BulkItemResultDto<BookResponseDto>> results = bookService.createBooks(bulk);
+            assertTrue(results.stream().allMatch(result -> result.getStatus() == 201));
+        });
+
+        assertEquals(count, queryCounter.statistics().getEntityInsertCount());
+        assertTrue(queryCounter.statistics().getFlushCount() <= count / BookService.BULK_BATCH_SIZE + 1,
+                "bulk create flushed " + queryCounter.statistics().getFlushCount() + " times");
+        assertTrue(bulkStatements <= 2 + 2 * (count / BookService.BULK_BATCH_SIZE + 1),
+                "bulk create issued " + bulkStatements + " statements");
+    }
+
+    private BookCreateDto bookCreateDto(int i, Integer translatorId) {
+        return new BookCreateDto("Book " + i, "isbn-" + i, 100 + i, 10 + i, "romanian", LocalDate.of(2024, 3, 10), translatorId);
+    }
+
+    private Integer seedBooks(int count) {
+        Integer lastId = null;
+        for (int i = 0; i < count; i++) {
+            Translator translator = testEntityManager.persist(Translator.builder()
+                    .firstName("John")
+                    .lastName("Doe " + i)
+                    .build());
+            Book book = testEntityManager.persist(Book.builder()
+                    .name("Book " + i)
+                    .isbn("isbn-" + System.nanoTime() + "-" + i)
+                    .noPages(100 + i)
+                    .price(10 + i)
+                    .language("romanian")
+                    .publishDate(LocalDate.of(2024, 3, 10))
+                    .translator(translator)
+                    .build());
+            lastId = book.getId();
+        }
+        return lastId;
+    }
+}
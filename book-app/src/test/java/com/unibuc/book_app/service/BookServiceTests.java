@@ -1,24 +1,31 @@
 package com.unibuc.book_app.service;
 
 import com.unibuc.book_app.dto.*;
+import com.unibuc.book_app.exception.BadRequestException;
+import com.unibuc.book_app.exception.ConflictException;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.*;
+import com.unibuc.book_app.mapper.BookMapper;
 import com.unibuc.book_app.model.*;
 import com.unibuc.book_app.repository.BookAuthorEditorRepository;
 import com.unibuc.book_app.repository.BookCategoryRepository;
 import com.unibuc.book_app.repository.BookPublisherRepository;
 import com.unibuc.book_app.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -40,16 +47,19 @@ class BookServiceTests {
     private BookPublisherRepository bookPublisherRepository;
 
     @Mock
-    private AuthorMapper authorMapper;
+    private EntityManager entityManager;
 
     @Mock
-    private EditorMapper editorMapper;
+    private Validator validator;
 
     @Mock
-    private CategoryMapper categoryMapper;
+    private SearchService searchService;
 
     @Mock
-    private PublisherMapper publisherMapper;
+    private ExistenceFilterService existenceFilterService;
+
+    @Mock
+    private BookStatsService bookStatsService;
 
     @InjectMocks
     private BookService bookService;
@@ -133,23 +143,175 @@ class BookServiceTests {
     }
 
     @Test
-    void testFindAllAuthorsByBookId_Valid() {
-        Author author1 = Author.builder()
-                .firstName("John")
-                .lastName("Doe")
-                .debutDate(LocalDate.of(1931, 2, 18))
+    void testFindBooksPage_Valid() {
+        Book book1 = Book.builder()
+                .id(3)
+                .name("Intre iadul deznadejdii si iadul smereniei")
+                .isbn("973-9344-56-9")
+                .noPages(302)
+                .price(27)
+                .language("romanian")
+                .publishDate(LocalDate.of(2024, 3, 10))
+                .build();
+        Book book2 = Book.builder()
+                .id(5)
+                .name("The Shadow of the Wind")
+                .isbn("978-0143126393")
+                .noPages(450)
+                .price(15)
+                .language("english")
+                .publishDate(LocalDate.of(2023, 11, 5))
                 .build();
-        Author author2 = Author.builder()
-                .firstName("Leo")
-                .lastName("Tolstoy")
-                .debutDate(LocalDate.of(1965, 7, 31))
+        Book book3 = Book.builder()
+                .id(8)
+                .name("Maitreyi")
+                .isbn("978-973-46-0712-1")
+                .noPages(208)
+                .price(30)
+                .language("romanian")
+                .publishDate(LocalDate.of(2019, 6, 1))
+                .build();
+        BookResponseDto dto1 = new BookResponseDto(3, "Intre iadul deznadejdii si iadul smereniei", "973-9344-56-9", 302, 27, "romanian", LocalDate.of(2024, 3, 10), null);
+        BookResponseDto dto2 = new BookResponseDto(5, "The Shadow of the Wind", "978-0143126393", 450, 15, "english", LocalDate.of(2023, 11, 5), null);
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(2, Limit.of(3))).thenReturn(List.of(book1, book2, book3));
+        when(bookMapper.toResponseDto(book1)).thenReturn(dto1);
+        when(bookMapper.toResponseDto(book2)).thenReturn(dto2);
+
+        CursorPageDto<BookResponseDto> result = bookService.findBooksPage("2", 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(dto1, result.getItems().get(0));
+        assertEquals(dto2, result.getItems().get(1));
+        assertEquals("5", result.getNextCursor());
+    }
+
+    @Test
+    void testFindBooksPage_LastPage() {
+        Book book = Book.builder()
+                .id(8)
+                .name("Maitreyi")
+                .isbn("978-973-46-0712-1")
+                .noPages(208)
+                .price(30)
+                .language("romanian")
+                .publishDate(LocalDate.of(2019, 6, 1))
                 .build();
+        BookResponseDto dto = new BookResponseDto(8, "Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), null);
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(CursorPagination.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(book));
+        when(bookMapper.toResponseDto(book)).thenReturn(dto);
+
+        CursorPageDto<BookResponseDto> result = bookService.findBooksPage(null, null);
+
+        assertEquals(List.of(dto), result.getItems());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testFindBooksPage_InvalidLimit() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> bookService.findBooksPage("0", 0));
+
+        assertEquals("limit must be between 1 and 1000", exception.getMessage());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testFindFilteredBooksPage_InvalidSort() {
+        BookFilterDto filter = BookFilterDto.builder().sort("-name").build();
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> bookService.findBooksPage(filter, null, null));
+
+        assertEquals("sort must be one of id, price, noPages, publishDate, optionally prefixed with -", exception.getMessage());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testFindFilteredBooksPage_CursorOfAnotherSort() {
+        BookFilterDto filter = BookFilterDto.builder().sort("price").build();
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> bookService.findBooksPage(filter, "17", null));
+
+        assertEquals("after must be the X-Next-Cursor of a listing sorted by price", exception.getMessage());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testFindFilteredBooksPage_InvalidRanges() {
+        BookFilterDto prices = BookFilterDto.builder().minPrice(50).maxPrice(20).build();
+        BookFilterDto dates = BookFilterDto.builder()
+                .publishedFrom(LocalDate.of(2020, 1, 1))
+                .publishedTo(LocalDate.of(2019, 1, 1))
+                .build();
+
+        assertEquals("minPrice cannot be greater than maxPrice",
+                assertThrows(BadRequestException.class, () -> bookService.findBooksPage(prices, null, null)).getMessage());
+        assertEquals("publishedFrom cannot be after publishedTo",
+                assertThrows(BadRequestException.class, () -> bookService.findBooksPage(dates, null, null)).getMessage());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testExportBooks_Valid() {
+        Book book1 = Book.builder()
+                .id(1)
+                .name("Intre iadul deznadejdii si iadul smereniei")
+                .isbn("973-9344-56-9")
+                .noPages(302)
+                .price(27)
+                .language("romanian")
+                .publishDate(LocalDate.of(2024, 3, 10))
+                .build();
+        Book book2 = Book.builder()
+                .id(2)
+                .name("The Shadow of the Wind")
+                .isbn("978-0143126393")
+                .noPages(450)
+                .price(15)
+                .language("english")
+                .publishDate(LocalDate.of(2023, 11, 5))
+                .build();
+        BookResponseDto dto1 = new BookResponseDto(1, "Intre iadul deznadejdii si iadul smereniei", "973-9344-56-9", 302, 27, "romanian", LocalDate.of(2024, 3, 10), null);
+        BookResponseDto dto2 = new BookResponseDto(2, "The Shadow of the Wind", "978-0143126393", 450, 15, "english", LocalDate.of(2023, 11, 5), null);
+
+        when(bookRepository.streamAllBooks()).thenReturn(Stream.of(book1, book2));
+        when(bookMapper.toResponseDto(book1)).thenReturn(dto1);
+        when(bookMapper.toResponseDto(book2)).thenReturn(dto2);
+
+        List<BookResponseDto> result = new ArrayList<>();
+        bookService.exportBooks(result::add);
+
+        assertEquals(List.of(dto1, dto2), result);
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void testExportBooks_ClearsPersistenceContextEveryBatch() {
+        Book book = Book.builder()
+                .id(1)
+                .name("The Shadow of the Wind")
+                .build();
+
+        when(bookRepository.streamAllBooks())
+                .thenReturn(Stream.generate(() -> book).limit(BookService.EXPORT_BATCH_SIZE * 2L + 1));
+        when(bookMapper.toResponseDto(book)).thenReturn(new BookResponseDto());
+
+        bookService.exportBooks(dto -> {
+        });
+
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void testFindAllAuthorsByBookId_Valid() {
         AuthorSummaryDto dto1 = new AuthorSummaryDto(1, "John", "Doe");
         AuthorSummaryDto dto2 = new AuthorSummaryDto(2, "Leo", "Tolstoy");
 
-        when(bookAuthorEditorRepository.findAllAuthorsByBookId(1)).thenReturn(List.of(author1, author2));
-        when(authorMapper.toSummaryDto(author1)).thenReturn(dto1);
-        when(authorMapper.toSummaryDto(author2)).thenReturn(dto2);
+        when(bookAuthorEditorRepository.findAllAuthorsByBookId(1)).thenReturn(List.of(dto1, dto2));
 
         List<AuthorSummaryDto> result = bookService.findAllAuthorsByBookId(1);
 
@@ -160,22 +322,10 @@ class BookServiceTests {
 
     @Test
     void testFindAllEditorsByBookId_Valid() {
-        Editor editor1 = Editor.builder()
-                .firstName("John")
-                .lastName("Doe")
-                .debutDate(LocalDate.of(1931, 2, 18))
-                .build();
-        Editor editor2 = Editor.builder()
-                .firstName("Leo")
-                .lastName("Tolstoy")
-                .debutDate(LocalDate.of(1965, 7, 31))
-                .build();
         EditorSummaryDto dto1 = new EditorSummaryDto(1, "John", "Doe");
         EditorSummaryDto dto2 = new EditorSummaryDto(2, "Leo", "Tolstoy");
 
-        when(bookAuthorEditorRepository.findAllEditorsByBookId(1)).thenReturn(List.of(editor1, editor2));
-        when(editorMapper.toSummaryDto(editor1)).thenReturn(dto1);
-        when(editorMapper.toSummaryDto(editor2)).thenReturn(dto2);
+        when(bookAuthorEditorRepository.findAllEditorsByBookId(1)).thenReturn(List.of(dto1, dto2));
 
         List<EditorSummaryDto> result = bookService.findAllEditorsByBookId(1);
 
@@ -186,18 +336,10 @@ class BookServiceTests {
 
     @Test
     void testFindAllCategoriesByBookId_Valid() {
-        Category category1 = Category.builder()
-                .name("Fantasy")
-                .build();
-        Category category2 = Category.builder()
-                .name("Horror")
-                .build();
         CategorySummaryDto dto1 = new CategorySummaryDto(1, "Fantasy");
         CategorySummaryDto dto2 = new CategorySummaryDto(2, "Horror");
 
-        when(bookCategoryRepository.findAllCategoriesByBookId(1)).thenReturn(List.of(category1, category2));
-        when(categoryMapper.toResponseDto(category1)).thenReturn(dto1);
-        when(categoryMapper.toResponseDto(category2)).thenReturn(dto2);
+        when(bookCategoryRepository.findAllCategoriesByBookId(1)).thenReturn(List.of(dto1, dto2));
 
         List<CategorySummaryDto> result = bookService.findAllCategoriesByBookId(1);
 
@@ -208,20 +350,10 @@ class BookServiceTests {
 
     @Test
     void testFindAllPublishersByBookId_Valid() {
-        Publisher publisher1 = Publisher.builder()
-                .name("Nemira")
-                .foundedDate(LocalDate.of(1931, 2, 18))
-                .build();
-        Publisher publisher2 = Publisher.builder()
-                .name("Sophia")
-                .foundedDate(LocalDate.of(1965, 7, 31))
-                .build();
         PublisherSummaryDto dto1 = new PublisherSummaryDto(1, "Nemira");
         PublisherSummaryDto dto2 = new PublisherSummaryDto(2, "Sophia");
 
-        when(bookPublisherRepository.findAllPublishersByBookId(1)).thenReturn(List.of(publisher1, publisher2));
-        when(publisherMapper.toSummaryDto(publisher1)).thenReturn(dto1);
-        when(publisherMapper.toSummaryDto(publisher2)).thenReturn(dto2);
+        when(bookPublisherRepository.findAllPublishersByBookId(1)).thenReturn(List.of(dto1, dto2));
 
         List<PublisherSummaryDto> result = bookService.findAllPublishersByBookId(1);
 
@@ -302,6 +434,17 @@ class BookServiceTests {
         assertEquals(dto, result);
     }
 
+    @Test
+    void testFindBookById_MissingInFilter() {
+        when(existenceFilterService.isBookMissing(1)).thenReturn(true);
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> bookService.findBookById(1));
+
+        assertEquals("Book with id 1 not found", exception.getMessage());
+        verify(bookRepository, never()).findById(any());
+    }
+
     @Test
     void testCreateBook_Valid() {
         Translator translator = Translator.builder()
@@ -360,6 +503,109 @@ class BookServiceTests {
         BookResponseDto result = bookService.createBook(createDto);
 
         assertEquals(responseDto, result);
+        verify(existenceFilterService, times(1)).addBook(savedBook);
+    }
+
+    @Test
+    void testCreateBook_DuplicateIsbn() {
+        BookCreateDto createDto = new BookCreateDto(
+                "Intre iadul deznadejdii si iadul smereniei",
+                "973-9344-56-9",
+                302,
+                27,
+                "romanian",
+                LocalDate.of(2024, 3, 10),
+                null
+        );
+
+        when(existenceFilterService.isIsbnMissing("973-9344-56-9")).thenReturn(false);
+        when(bookRepository.existsByIsbn("973-9344-56-9")).thenReturn(true);
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> bookService.createBook(createDto));
+
+        assertEquals("Book with isbn 973-9344-56-9 already exists", exception.getMessage());
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateBook_NewIsbnSkipsLookup() {
+        BookCreateDto createDto = new BookCreateDto(
+                "Intre iadul deznadejdii si iadul smereniei",
+                "973-9344-56-9",
+                302,
+                27,
+                "romanian",
+                LocalDate.of(2024, 3, 10),
+                null
+        );
+        Book book = Book.builder()
+                .isbn("973-9344-56-9")
+                .build();
+
+        when(existenceFilterService.isIsbnMissing("973-9344-56-9")).thenReturn(true);
+        when(bookMapper.toEntity(createDto)).thenReturn(book);
+        when(bookRepository.save(book)).thenReturn(book);
+
+        bookService.createBook(createDto);
+
+        verify(bookRepository, never()).existsByIsbn(any());
+        verify(bookRepository, times(1)).save(book);
+    }
+
+    @Test
+    void testCreateBooks_PerItemResults() {
+        Translator translator = Translator.builder()
+                .id(1)
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+        BookCreateDto valid = new BookCreateDto("Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), 1);
+        BookCreateDto invalid = new BookCreateDto("", "978-0143126393", 450, 15, "english", LocalDate.of(2023, 11, 5), null);
+        BookCreateDto unknownTranslator = new BookCreateDto("Noaptea de Sanziene", "978-973-46-0713-8", 500, 40, "romanian", LocalDate.of(2020, 1, 1), 7);
+        BookCreateDto takenIsbn = new BookCreateDto("Intre iadul deznadejdii si iadul smereniei", "973-9344-56-9", 302, 27, "romanian", LocalDate.of(2024, 3, 10), null);
+        BookCreateDto duplicateInRequest = new BookCreateDto("Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), null);
+        Book book = Book.builder()
+                .name("Maitreyi")
+                .isbn("978-973-46-0712-1")
+                .build();
+        BookResponseDto responseDto = new BookResponseDto(1, "Maitreyi", "978-973-46-0712-1", 208, 30, "romanian", LocalDate.of(2019, 6, 1), new TranslatorSummaryDto(1, "John", "Doe"));
+        @SuppressWarnings("unchecked")
+        ConstraintViolation<BookCreateDto> violation = mock(ConstraintViolation.class);
+
+        when(violation.getMessage()).thenReturn("name is required and cannot be blank");
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+        when(translatorService.findTranslatorEntitiesByIds(Set.of(1, 7))).thenReturn(Map.of(1, translator));
+        when(bookRepository.findAllIsbnsIn(anyCollection())).thenReturn(List.of("973-9344-56-9"));
+        when(bookMapper.toEntity(valid)).thenReturn(book);
+        when(bookRepository.save(book)).thenReturn(book);
+        when(bookMapper.toResponseDto(book)).thenReturn(responseDto);
+
+        List<BulkItemResultDto<BookResponseDto>> result = bookService.createBooks(
+                List.of(valid, invalid, unknownTranslator, takenIsbn, duplicateInRequest)
+        );
+
+        assertEquals(5, result.size());
+        assertEquals(201, result.get(0).getStatus());
+        assertEquals(responseDto, result.get(0).getData());
+        assertEquals(translator, book.getTranslator());
+        assertEquals(400, result.get(1).getStatus());
+        assertEquals("name is required and cannot be blank", result.get(1).getError());
+        assertEquals(404, result.get(2).getStatus());
+        assertEquals("Translator with id 7 not found", result.get(2).getError());
+        assertEquals(409, result.get(3).getStatus());
+        assertEquals(409, result.get(4).getStatus());
+        assertEquals(4, result.get(4).getIndex());
+        verify(bookRepository, times(1)).save(any());
+        verify(entityManager).flush();
+    }
+
+    @Test
+    void testCreateBooks_TooManyItems() {
+        List<BookCreateDto> books = Collections.nCopies(BookService.MAX_BULK_SIZE + 1, new BookCreateDto());
+
+        assertThrows(BadRequestException.class, () -> bookService.createBooks(books));
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
@@ -417,10 +663,10 @@ class BookServiceTests {
         );
         when(bookRepository.findById(1)).thenReturn(Optional.of(book));
         doNothing().when(bookMapper).updateEntityFromDto(updateDto, book);
-        when(bookRepository.save(book)).thenReturn(updatedBook);
+        when(bookRepository.saveAndFlush(book)).thenReturn(updatedBook);
         when(bookMapper.toResponseDto(updatedBook)).thenReturn(responseDto);
 
-        BookResponseDto result = bookService.updateBook(1, updateDto);
+        BookResponseDto result = bookService.updateBook(1, updateDto, null);
 
         assertEquals(responseDto, result);
     }
@@ -439,7 +685,7 @@ class BookServiceTests {
         when(bookRepository.findById(1)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> bookService.updateBook(1, updateDto));
+                () -> bookService.updateBook(1, updateDto, null));
 
         assertEquals("Book with id 1 not found", exception.getMessage());
     }
@@ -451,5 +697,8 @@ class BookServiceTests {
         bookService.deleteBook(1);
 
         verify(bookRepository, times(1)).deleteById(1);
+        verify(searchService, times(1)).removeBook(1);
+        verify(existenceFilterService, times(1)).removeBook(1);
+        verify(bookStatsService, times(1)).removeBook(1);
     }
 }
@@ -0,0 +1,88 @@
+package com.unibuc.book_app.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class CategoryMembershipIndexTests {
+    private static final int FANTASY = 1;
+    private static final int TRANSLATED = 4;
+    private static final int POETRY = 7;
+    private static final int ESSAYS = 9;
+
+    private CategoryMembershipIndex categoryMembershipIndex;
+
+    @BeforeEach
+    void setUp() {
+        categoryMembershipIndex = new CategoryMembershipIndex();
+        link(FANTASY, 1, 2, 3, 5, 8);
+        link(TRANSLATED, 2, 3, 5, 13);
+        link(POETRY, 3, 13, 21);
+        link(ESSAYS, 5, 21);
+    }
+
+    @Test
+    void testSelect_All() {
+        assertArrayEquals(new int[]{2, 3, 5}, select(List.of(FANTASY, TRANSLATED), List.of(), List.of()));
+    }
+
+    @Test
+    void testSelect_Any() {
+        assertArrayEquals(new int[]{3, 5, 13, 21}, select(List.of(), List.of(POETRY, ESSAYS), List.of()));
+    }
+
+    @Test
+    void testSelect_AllAnyAndNone() {
+        assertArrayEquals(new int[]{2, 3, 13}, select(List.of(TRANSLATED), List.of(FANTASY, POETRY), List.of(ESSAYS)));
+    }
+
+    @Test
+    void testSelect_UnknownCategoryIsEmpty() {
+        assertArrayEquals(new int[0], select(List.of(FANTASY, 99), List.of(), List.of()));
+        assertArrayEquals(new int[]{1, 2, 3, 5, 8}, select(List.of(FANTASY), List.of(), List.of(99)));
+        assertArrayEquals(new int[0], select(List.of(), List.of(), List.of(ESSAYS)));
+    }
+
+    @Test
+    void testSelect_PagesAfterCursor() {
+        assertArrayEquals(new int[]{1, 2}, categoryMembershipIndex.select(List.of(FANTASY), List.of(), List.of(), 0, 2));
+        assertArrayEquals(new int[]{3, 5}, categoryMembershipIndex.select(List.of(FANTASY), List.of(), List.of(), 2, 2));
+        assertArrayEquals(new int[]{8}, categoryMembershipIndex.select(List.of(FANTASY), List.of(), List.of(), 5, 2));
+        assertArrayEquals(new int[0], categoryMembershipIndex.select(List.of(FANTASY), List.of(), List.of(), 8, 2));
+    }
+
+    @Test
+    void testSelect_FollowsLinksAndUnlinks() {
+        categoryMembershipIndex.add(POETRY, 2);
+        categoryMembershipIndex.remove(TRANSLATED, 3);
+
+        assertArrayEquals(new int[]{2, 13}, select(List.of(TRANSLATED, POETRY), List.of(), List.of()));
+    }
+
+    @Test
+    void testSelect_LargeCategories() {
+        IntStream.range(100_000, 300_000).forEach(bookId -> categoryMembershipIndex.add(FANTASY, bookId));
+        IntStream.range(200_000, 400_000).filter(bookId -> bookId % 2 == 0)
+                .forEach(bookId -> categoryMembershipIndex.add(TRANSLATED, bookId));
+        categoryMembershipIndex.add(ESSAYS, 200_002);
+
+        assertArrayEquals(
+                new int[]{200_000, 200_004, 200_006},
+                categoryMembershipIndex.select(List.of(FANTASY, TRANSLATED), List.of(), List.of(ESSAYS), 100, 3)
+        );
+    }
+
+    private int[] select(List<Integer> all, List<Integer> any, List<Integer> none) {
+        return categoryMembershipIndex.select(all, any, none, 0, 100);
+    }
+
+    private void link(int categoryId, int... bookIds) {
+        for (int bookId : bookIds) {
+            categoryMembershipIndex.add(categoryId, bookId);
+        }
+    }
+}
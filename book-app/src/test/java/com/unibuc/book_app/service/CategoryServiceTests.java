@@ -3,25 +3,26 @@ package com.unibuc.book_app.service;
 import com.unibuc.book_app.dto.BookSummaryDto;
 import com.unibuc.book_app.dto.CategoryDto;
 import com.unibuc.book_app.dto.CategorySummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
+import com.unibuc.book_app.exception.BadRequestException;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.BookMapper;
 import com.unibuc.book_app.mapper.CategoryMapper;
-import com.unibuc.book_app.model.Book;
 import com.unibuc.book_app.model.Category;
-import com.unibuc.book_app.model.Translator;
 import com.unibuc.book_app.repository.BookCategoryRepository;
+import com.unibuc.book_app.repository.BookRepository;
 import com.unibuc.book_app.repository.CategoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -37,7 +38,16 @@ class CategoryServiceTests {
     private BookCategoryRepository bookCategoryRepository;
 
     @Mock
-    private BookMapper bookMapper;
+    private SearchService searchService;
+
+    @Mock
+    private ExistenceFilterService existenceFilterService;
+
+    @Mock
+    private CategoryMembershipService categoryMembershipService;
+
+    @Mock
+    private BookRepository bookRepository;
 
     @InjectMocks
     private CategoryService categoryService;
@@ -70,43 +80,40 @@ class CategoryServiceTests {
     }
 
     @Test
-    void testFindAllBooksByCategoryId_Valid() {
-        Book book1 = Book.builder()
-                .name("Intre iadul deznadejdii si iadul smereniei")
-                .isbn("973-9344-56-9")
-                .noPages(302)
-                .price(27)
-                .language("romanian")
-                .publishDate(LocalDate.of(2024, 3, 10))
-                .translator(
-                        Translator.builder()
-                                .id(1)
-                                .firstName("John")
-                                .lastName("Doe")
-                                .build()
-                )
+    void testFindCategoriesPage_Valid() {
+        Category category1 = Category.builder()
+                .id(3)
+                .name("Fantasy")
                 .build();
-        Book book2 = Book.builder()
-                .name("The Shadow of the Wind")
-                .isbn("978-0143126393")
-                .noPages(450)
-                .price(15)
-                .language("english")
-                .publishDate(LocalDate.of(2023, 11, 5))
-                .translator(
-                        Translator.builder()
-                                .id(2)
-                                .firstName("Leo")
-                                .lastName("Tolstoy")
-                                .build()
-                )
+        Category category2 = Category.builder()
+                .id(5)
+                .name("Horror")
+                .build();
+        Category category3 = Category.builder()
+                .id(8)
+                .name("Poetry")
                 .build();
+        CategorySummaryDto dto1 = new CategorySummaryDto(3, "Fantasy");
+        CategorySummaryDto dto2 = new CategorySummaryDto(5, "Horror");
+
+        when(categoryRepository.findByIdGreaterThanOrderByIdAsc(2, Limit.of(3))).thenReturn(List.of(category1, category2, category3));
+        when(categoryMapper.toResponseDto(category1)).thenReturn(dto1);
+        when(categoryMapper.toResponseDto(category2)).thenReturn(dto2);
+
+        CursorPageDto<CategorySummaryDto> result = categoryService.findCategoriesPage(2, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(dto1, result.getItems().get(0));
+        assertEquals(dto2, result.getItems().get(1));
+        assertEquals("5", result.getNextCursor());
+    }
+
+    @Test
+    void testFindAllBooksByCategoryId_Valid() {
         BookSummaryDto dto1 = new BookSummaryDto(1, "1984");
         BookSummaryDto dto2 = new BookSummaryDto(2, "Animal Farm");
 
-        when(bookCategoryRepository.findAllBooksByCategoryId(1)).thenReturn(List.of(book1, book2));
-        when(bookMapper.toSummaryDto(book1)).thenReturn(dto1);
-        when(bookMapper.toSummaryDto(book2)).thenReturn(dto2);
+        when(bookCategoryRepository.findAllBooksByCategoryId(1)).thenReturn(List.of(dto1, dto2));
 
         List<BookSummaryDto> result = categoryService.findAllBooksByCategoryId(1);
 
@@ -115,6 +122,39 @@ class CategoryServiceTests {
         assertEquals(dto2, result.get(1));
     }
 
+    @Test
+    void testFindBooksByCategories_Valid() {
+        BookSummaryDto dto1 = new BookSummaryDto(3, "1984");
+        BookSummaryDto dto2 = new BookSummaryDto(8, "Animal Farm");
+
+        when(categoryMembershipService.findBookIds(List.of(1, 4), List.of(7), List.of(9), 2, 3))
+                .thenReturn(List.of(3, 8, 11));
+        when(bookRepository.findAllBookSummariesByIdIn(List.of(3, 8))).thenReturn(List.of(dto1, dto2));
+
+        CursorPageDto<BookSummaryDto> result = categoryService.findBooksByCategories(List.of(1, 4), List.of(7), List.of(9), 2, 2);
+
+        assertEquals(List.of(dto1, dto2), result.getItems());
+        assertEquals("8", result.getNextCursor());
+    }
+
+    @Test
+    void testFindBooksByCategories_LastPage() {
+        when(categoryMembershipService.findBookIds(List.of(), List.of(7), List.of(), 0, CursorPagination.DEFAULT_LIMIT + 1))
+                .thenReturn(List.of());
+
+        CursorPageDto<BookSummaryDto> result = categoryService.findBooksByCategories(null, List.of(7), null, null, null);
+
+        assertEquals(List.of(), result.getItems());
+        assertNull(result.getNextCursor());
+        verify(bookRepository, never()).findAllBookSummariesByIdIn(any());
+    }
+
+    @Test
+    void testFindBooksByCategories_NoCategory() {
+        assertThrows(BadRequestException.class, () -> categoryService.findBooksByCategories(null, List.of(), List.of(9), null, null));
+        verify(categoryMembershipService, never()).findBookIds(any(), any(), any(), anyInt(), anyInt());
+    }
+
     @Test
     void testFindCategoryEntityById_Valid() {
         Category category = Category.builder()
@@ -187,10 +227,10 @@ class CategoryServiceTests {
 
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         doNothing().when(categoryMapper).updateEntityFromDto(updateDto, category);
-        when(categoryRepository.save(category)).thenReturn(updatedCategory);
+        when(categoryRepository.saveAndFlush(category)).thenReturn(updatedCategory);
         when(categoryMapper.toResponseDto(updatedCategory)).thenReturn(summaryDto);
 
-        CategorySummaryDto result = categoryService.updateCategory(1, updateDto);
+        CategorySummaryDto result = categoryService.updateCategory(1, updateDto, null);
 
         assertEquals(summaryDto, result);
     }
@@ -202,7 +242,7 @@ class CategoryServiceTests {
         when(categoryRepository.findById(1)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> categoryService.updateCategory(1, updateDto));
+                () -> categoryService.updateCategory(1, updateDto, null));
 
         assertEquals("Category with id 1 not found", exception.getMessage());
     }
@@ -214,5 +254,6 @@ class CategoryServiceTests {
         categoryService.deleteCategory(1);
 
         verify(categoryRepository, times(1)).deleteById(1);
+        verify(searchService, times(1)).removeCategory(1);
     }
 }
@@ -0,0 +1,152 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.service.CollaborationGraph.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollaborationGraphTests {
+
+    private CollaborationGraph collaborationGraph;
+
+    @BeforeEach
+    void setUp() {
+        collaborationGraph = new CollaborationGraph();
+        collaborationGraph.putAuthor(1, "Emil", "Cioran");
+        collaborationGraph.putAuthor(2, "Mircea", "Eliade");
+        collaborationGraph.putAuthor(3, "Eugen", "Ionescu");
+        collaborationGraph.putAuthor(4, "Constantin", "Noica");
+        collaborationGraph.putEditor(10, "Simona", "Boerescu");
+        collaborationGraph.putEditor(20, "Gabriel", "Liiceanu");
+    }
+
+    @Test
+    void testEditorsAndAuthors_Neighbours() {
+        collaborationGraph.link(100, 1, 10);
+        collaborationGraph.link(100, 1, 20);
+        collaborationGraph.link(101, 2, 10);
+
+        assertEquals(List.of(10, 20), ids(collaborationGraph.editorsOf(1)));
+        assertEquals(List.of(1, 2), ids(collaborationGraph.authorsOf(10)));
+        assertEquals(new Person(20, "Gabriel", "Liiceanu"), collaborationGraph.editorsOf(1).get(1));
+        assertEquals(List.of(), collaborationGraph.editorsOf(99));
+    }
+
+    @Test
+    void testUnlink_KeepsEdgeWhileAnotherRowRemains() {
+        collaborationGraph.link(100, 1, 10);
+        collaborationGraph.link(101, 1, 10);
+        collaborationGraph.link(101, 1, 10);
+
+        collaborationGraph.unlink(100, 1, 10);
+        assertEquals(List.of(10), ids(collaborationGraph.editorsOf(1)));
+
+        collaborationGraph.unlink(101, 1, 10);
+        assertEquals(List.of(), ids(collaborationGraph.editorsOf(1)));
+        assertEquals(List.of(), ids(collaborationGraph.authorsOf(10)));
+    }
+
+    @Test
+    void testCoAuthors_ShareABook() {
+        collaborationGraph.link(100, 1, 10);
+        collaborationGraph.link(100, 2, 10);
+        collaborationGraph.link(101, 1, 20);
+        collaborationGraph.link(101, 3, 20);
+        collaborationGraph.link(101, 2, 20);
+        collaborationGraph.link(102, 4, 10);
+
+        assertEquals(List.of(2, 3), ids(collaborationGraph.coAuthorsOf(1)));
+        assertEquals(List.of(), ids(collaborationGraph.coAuthorsOf(4)));
+    }
+
+    @Test
+    void testShortestPath_FewestHops() {
+        collaborationGraph.link(100, 1, 10);
+        collaborationGraph.link(100, 2, 10);
+        collaborationGraph.link(101, 2, 10);
+        collaborationGraph.link(101, 3, 10);
+        collaborationGraph.link(102, 3, 10);
+        collaborationGraph.link(102, 4, 10);
+
+        assertEquals(List.of(1, 2, 3, 4), ids(collaborationGraph.shortestPath(1, 4).orElseThrow()));
+
+        collaborationGraph.link(103, 1, 20);
+        collaborationGraph.link(103, 4, 20);
+        assertEquals(List.of(1, 4), ids(collaborationGraph.shortestPath(1, 4).orElseThrow()));
+        assertEquals(List.of(3), ids(collaborationGraph.shortestPath(3, 3).orElseThrow()));
+    }
+
+    @Test
+    void testShortestPath_NoPath() {
+        collaborationGraph.link(100, 1, 10);
+        collaborationGraph.link(101, 4, 10);
+
+        assertTrue(collaborationGraph.shortestPath(1, 4).isEmpty());
+        assertTrue(collaborationGraph.shortestPath(1, 99).isEmpty());
+    }
+
+    @Test
+    void testRemoveAuthor_NoLongerKnown() {
+        assertTrue(collaborationGraph.hasAuthor(1));
+
+        collaborationGraph.removeAuthor(1);
+
+        assertFalse(collaborationGraph.hasAuthor(1));
+        assertFalse(collaborationGraph.hasAuthor(99));
+    }
+
+    // Enough links and unlinks to rebuild the arrays several times, checked against a plain set of rows
+    @Test
+    void testLinkAndUnlink_MatchRowsAcrossRebuilds() {
+        Random random = new Random(42);
+        Set<List<Integer>> rows = new HashSet<>();
+        for (int id = 1; id <= 40; id++) {
+            collaborationGraph.putAuthor(id, "Author", Integer.toString(id));
+            collaborationGraph.putEditor(id, "Editor", Integer.toString(id));
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            List<Integer> row = List.of(random.nextInt(60), 1 + random.nextInt(40), 1 + random.nextInt(40));
+            if (random.nextInt(3) == 0) {
+                rows.remove(row);
+                collaborationGraph.unlink(row.get(0), row.get(1), row.get(2));
+            } else {
+                rows.add(row);
+                collaborationGraph.link(row.get(0), row.get(1), row.get(2));
+            }
+        }
+
+        for (int id = 1; id <= 40; id++) {
+            int authorId = id;
+            int editorId = id;
+            Set<Integer> books = new HashSet<>();
+            rows.stream().filter(row -> row.get(1) == authorId).forEach(row -> books.add(row.get(0)));
+
+            assertEquals(expected(rows, row -> row.get(1) == authorId, 2), ids(collaborationGraph.editorsOf(authorId)));
+            assertEquals(expected(rows, row -> row.get(2) == editorId, 1), ids(collaborationGraph.authorsOf(editorId)));
+            assertEquals(
+                    expected(rows, row -> books.contains(row.get(0)) && row.get(1) != authorId, 1),
+                    ids(collaborationGraph.coAuthorsOf(authorId))
+            );
+        }
+    }
+
+    private static List<Integer> expected(Set<List<Integer>> rows, Predicate<List<Integer>> filter, int column) {
+        return rows.stream()
+                .filter(filter)
+                .map(row -> row.get(column))
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static List<Integer> ids(List<Person> people) {
+        return people.stream()
+                .map(Person::id)
+                .toList();
+    }
+}
@@ -2,13 +2,8 @@ package com.unibuc.book_app.service;
 
 import com.unibuc.book_app.dto.*;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.AuthorMapper;
-import com.unibuc.book_app.mapper.BookMapper;
 import com.unibuc.book_app.mapper.EditorMapper;
-import com.unibuc.book_app.model.Author;
-import com.unibuc.book_app.model.Book;
 import com.unibuc.book_app.model.Editor;
-import com.unibuc.book_app.model.Translator;
 import com.unibuc.book_app.repository.BookAuthorEditorRepository;
 import com.unibuc.book_app.repository.EditorRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -37,10 +33,13 @@ class EditorServiceTests {
     private BookAuthorEditorRepository bookAuthorEditorRepository;
 
     @Mock
-    private BookMapper bookMapper;
+    private SearchService searchService;
 
     @Mock
-    private AuthorMapper authorMapper;
+    private ExistenceFilterService existenceFilterService;
+
+    @Mock
+    private CollaborationService collaborationService;
 
     @InjectMocks
     private EditorService editorService;
@@ -77,43 +76,46 @@ class EditorServiceTests {
     }
 
     @Test
-    void testFindAllBooksByEditorId_Valid() {
-        Book book1 = Book.builder()
-                .name("Intre iadul deznadejdii si iadul smereniei")
-                .isbn("973-9344-56-9")
-                .noPages(302)
-                .price(27)
-                .language("romanian")
-                .publishDate(LocalDate.of(2024, 3, 10))
-                .translator(
-                        Translator.builder()
-                                .id(1)
-                                .firstName("John")
-                                .lastName("Doe")
-                                .build()
-                )
+    void testFindEditorsPage_Valid() {
+        Editor editor1 = Editor.builder()
+                .id(3)
+                .firstName("John")
+                .lastName("Doe")
+                .debutDate(LocalDate.of(1931, 2, 18))
                 .build();
-        Book book2 = Book.builder()
-                .name("The Shadow of the Wind")
-                .isbn("978-0143126393")
-                .noPages(450)
-                .price(15)
-                .language("english")
-                .publishDate(LocalDate.of(2023, 11, 5))
-                .translator(
-                        Translator.builder()
-                                .id(2)
-                                .firstName("Leo")
-                                .lastName("Tolstoy")
-                                .build()
-                )
+        Editor editor2 = Editor.builder()
+                .id(5)
+                .firstName("Leo")
+                .lastName("Tolstoy")
+                .debutDate(LocalDate.of(1965, 2, 18))
+                .build();
+        Editor editor3 = Editor.builder()
+                .id(8)
+                .firstName("Mircea")
+                .lastName("Eliade")
+                .debutDate(LocalDate.of(1933, 2, 18))
                 .build();
+        EditorResponseDto dto1 = new EditorResponseDto(3, "John", "Doe", LocalDate.of(1931, 2, 18));
+        EditorResponseDto dto2 = new EditorResponseDto(5, "Leo", "Tolstoy", LocalDate.of(1965, 2, 18));
+
+        when(editorRepository.findByIdGreaterThanOrderByIdAsc(2, Limit.of(3))).thenReturn(List.of(editor1, editor2, editor3));
+        when(editorMapper.toResponseDto(editor1)).thenReturn(dto1);
+        when(editorMapper.toResponseDto(editor2)).thenReturn(dto2);
+
+        CursorPageDto<EditorResponseDto> result = editorService.findEditorsPage(2, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(dto1, result.getItems().get(0));
+        assertEquals(dto2, result.getItems().get(1));
+        assertEquals("5", result.getNextCursor());
+    }
+
+    @Test
+    void testFindAllBooksByEditorId_Valid() {
         BookSummaryDto dto1 = new BookSummaryDto(1, "1984");
         BookSummaryDto dto2 = new BookSummaryDto(2, "Animal Farm");
 
-        when(bookAuthorEditorRepository.findAllBooksByEditorId(1)).thenReturn(List.of(book1, book2));
-        when(bookMapper.toSummaryDto(book1)).thenReturn(dto1);
-        when(bookMapper.toSummaryDto(book2)).thenReturn(dto2);
+        when(bookAuthorEditorRepository.findAllBooksByEditorId(1)).thenReturn(List.of(dto1, dto2));
 
         List<BookSummaryDto> result = editorService.findAllBooksByEditorId(1);
 
@@ -124,22 +126,10 @@ class EditorServiceTests {
 
     @Test
     void testFindAllAuthorsByEditorId_Valid() {
-        Author author1 = Author.builder()
-                .firstName("John")
-                .lastName("Doe")
-                .debutDate(LocalDate.of(1931, 2, 18))
-                .build();
-        Author author2 = Author.builder()
-                .firstName("Leo")
-                .lastName("Tolstoy")
-                .debutDate(LocalDate.of(1965, 7, 31))
-                .build();
         AuthorSummaryDto dto1 = new AuthorSummaryDto(1, "John", "Doe");
         AuthorSummaryDto dto2 = new AuthorSummaryDto(2, "Leo", "Tolstoy");
 
-        when(bookAuthorEditorRepository.findAllAuthorsByEditorId(1)).thenReturn(List.of(author1, author2));
-        when(authorMapper.toSummaryDto(author1)).thenReturn(dto1);
-        when(authorMapper.toSummaryDto(author2)).thenReturn(dto2);
+        when(collaborationService.findAllAuthorsByEditorId(1)).thenReturn(List.of(dto1, dto2));
 
         List<AuthorSummaryDto> result = editorService.findAllAuthorsByEditorId(1);
 
@@ -230,10 +220,10 @@ class EditorServiceTests {
 
         when(editorRepository.findById(1)).thenReturn(Optional.of(editor));
         doNothing().when(editorMapper).updateEntityFromDto(updateDto, editor);
-        when(editorRepository.save(editor)).thenReturn(updatedEditor);
+        when(editorRepository.saveAndFlush(editor)).thenReturn(updatedEditor);
         when(editorMapper.toResponseDto(updatedEditor)).thenReturn(responseDto);
 
-        EditorResponseDto result = editorService.updateEditor(1, updateDto);
+        EditorResponseDto result = editorService.updateEditor(1, updateDto, null);
 
         assertEquals(responseDto, result);
     }
@@ -245,7 +235,7 @@ class EditorServiceTests {
         when(editorRepository.findById(1)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> editorService.updateEditor(1, updateDto));
+                () -> editorService.updateEditor(1, updateDto, null));
 
         assertEquals("Editor with id 1 not found", exception.getMessage());
     }
@@ -257,5 +247,7 @@ class EditorServiceTests {
         editorService.deleteEditor(1);
 
         verify(editorRepository, times(1)).deleteById(1);
+        verify(searchService, times(1)).removeEditor(1);
+        verify(collaborationService, times(1)).removeEditor(1);
     }
 }
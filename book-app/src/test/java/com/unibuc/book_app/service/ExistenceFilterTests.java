@@ -0,0 +1,131 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class ExistenceFilterTests {
+
+    @Test
+    void testIsMissing_NoFalseNegatives() {
+        List<Integer> ids = IntStream.rangeClosed(1, 10_000).boxed().toList();
+        ExistenceFilter<Integer> filter = new ExistenceFilter<>("books", () -> ids, BloomFilter::hash, Comparator.naturalOrder());
+        filter.rebuild();
+
+        ids.forEach(id -> assertFalse(filter.isMissing(id)));
+    }
+
+    @Test
+    void testIsMissing_FalsePositiveRate() {
+        List<Integer> ids = IntStream.rangeClosed(1, 10_000).map(id -> 20 * id).boxed().toList();
+        ExistenceFilter<Integer> filter = new ExistenceFilter<>("books", () -> ids, BloomFilter::hash, Comparator.naturalOrder());
+        filter.rebuild();
+
+        long falsePositives = IntStream.rangeClosed(1, 200_000)
+                .filter(id -> id % 20 != 0)
+                .filter(id -> !filter.isMissing(id))
+                .count();
+
+        assertTrue(falsePositives < 3_800, falsePositives + " false positives out of 190000");
+    }
+
+    @Test
+    void testIsMissing_KeysAboveLastLoadFallThrough() {
+        ExistenceFilter<Integer> filter = new ExistenceFilter<>("books", () -> List.of(10, 20), BloomFilter::hash, Comparator.naturalOrder());
+        ExistenceFilter<Integer> empty = new ExistenceFilter<>("books", List::of, BloomFilter::hash, Comparator.<Integer>naturalOrder());
+        filter.rebuild();
+        empty.rebuild();
+
+        assertTrue(filter.isMissing(15));
+        // Written by another instance since the load
+        assertFalse(filter.isMissing(21));
+        assertFalse(empty.isMissing(1));
+    }
+
+    @Test
+    void testIsMissing_NothingIsMissingBeforeLoad() {
+        ExistenceFilter<Integer> filter = new ExistenceFilter<>("books", List::of, BloomFilter::hash, Comparator.<Integer>naturalOrder());
+
+        assertFalse(filter.isMissing(1));
+    }
+
+    @Test
+    void testIsMissing_FailedLoadFallsThrough() {
+        ExistenceFilter<Integer> filter = new ExistenceFilter<>("books", () -> {
+            throw new IllegalStateException("database unavailable");
+        }, BloomFilter::hash, Comparator.<Integer>naturalOrder());
+        filter.rebuild();
+
+        assertFalse(filter.isMissing(1));
+    }
+
+    @Test
+    void testAdd_AfterLoad() {
+        ExistenceFilter<String> filter = new ExistenceFilter<>("isbns", List::of, BloomFilter::hash, null);
+        filter.rebuild();
+
+        assertTrue(filter.isMissing("973-9344-56-9"));
+        filter.add("973-9344-56-9");
+        assertFalse(filter.isMissing("973-9344-56-9"));
+    }
+
+    @Test
+    void testAdd_DuringRebuildIsKept() {
+        List<ExistenceFilter<Integer>> self = new ArrayList<>();
+        ExistenceFilter<Integer> filter = new ExistenceFilter<>("books", () -> {
+            // A row committed after the table was read
+            self.getFirst().add(2);
+            return List.of(1);
+        }, BloomFilter::hash, Comparator.naturalOrder());
+        self.add(filter);
+
+        filter.rebuild();
+
+        assertFalse(filter.isMissing(1));
+        assertFalse(filter.isMissing(2));
+    }
+
+    @Test
+    void testAdd_CapacityCrossedInsideTransactionKeepsKeys() {
+        List<Integer> committed = new CopyOnWriteArrayList<>();
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(bookRepository.findAllIds()).thenAnswer(invocation -> List.copyOf(committed));
+        ExistenceFilterService existenceFilterService = new ExistenceFilterService(
+                bookRepository,
+                mock(AuthorRepository.class),
+                mock(EditorRepository.class),
+                mock(PublisherRepository.class),
+                mock(CategoryRepository.class),
+                mock(TranslatorRepository.class),
+                true
+        );
+        existenceFilterService.buildFilters();
+        List<Integer> ids = IntStream.rangeClosed(1, 1500).boxed().toList();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ids.forEach(id -> existenceFilterService.addBook(Book.builder().id(id).isbn("isbn-" + id).build()));
+            // Nothing reaches the filter, so nothing outgrows it and no rebuild reads the uncommitted rows
+            verify(bookRepository, times(1)).findAllIds();
+            committed.addAll(ids);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(bookRepository, timeout(5_000).times(2)).findAllIds();
+        ids.forEach(id -> assertFalse(existenceFilterService.isBookMissing(id)));
+    }
+}
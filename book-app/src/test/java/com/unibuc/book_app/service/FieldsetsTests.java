@@ -0,0 +1,55 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.AuthorResponseDto;
+import com.unibuc.book_app.dto.BookResponseDto;
+import com.unibuc.book_app.dto.CursorPageDto;
+import com.unibuc.book_app.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldsetsTests {
+
+    @Test
+    void testParse_KeepsDeclarationOrderAndId() {
+        assertEquals(List.of("id", "name", "price"), Fieldsets.parse("price, name,price", BookResponseDto.class));
+        assertEquals(List.of("id"), Fieldsets.parse("id", AuthorResponseDto.class));
+    }
+
+    @Test
+    void testParse_ExpandsNestedDto() {
+        assertEquals(
+                List.of("id", "language", "translator.id", "translator.firstName", "translator.lastName"),
+                Fieldsets.parse("translator,language", BookResponseDto.class)
+        );
+    }
+
+    @Test
+    void testParse_Invalid() {
+        BadRequestException unknown = assertThrows(BadRequestException.class,
+                () -> Fieldsets.parse("name,version", AuthorResponseDto.class));
+        BadRequestException blank = assertThrows(BadRequestException.class,
+                () -> Fieldsets.parse(" ", AuthorResponseDto.class));
+
+        assertEquals("Unknown field name, fields must be a comma-separated list of id, firstName, lastName, debutDate",
+                unknown.getMessage());
+        assertEquals("fields cannot be blank", blank.getMessage());
+    }
+
+    @Test
+    void testPage_CursorIsLastId() {
+        List<Map<String, Object>> rows = List.of(Map.of("id", 2), Map.of("id", 5), Map.of("id", 9));
+
+        CursorPageDto<Map<String, Object>> page = Fieldsets.page(rows, 2);
+        CursorPageDto<Map<String, Object>> lastPage = Fieldsets.page(rows, 3);
+
+        assertEquals(rows.subList(0, 2), page.getItems());
+        assertEquals("5", page.getNextCursor());
+        assertNull(lastPage.getNextCursor());
+    }
+}
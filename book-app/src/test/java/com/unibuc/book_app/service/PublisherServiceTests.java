@@ -1,15 +1,13 @@
 package com.unibuc.book_app.service;
 
 import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
 import com.unibuc.book_app.dto.PublisherCreateDto;
 import com.unibuc.book_app.dto.PublisherResponseDto;
 import com.unibuc.book_app.dto.PublisherUpdateDto;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.BookMapper;
 import com.unibuc.book_app.mapper.PublisherMapper;
-import com.unibuc.book_app.model.Book;
 import com.unibuc.book_app.model.Publisher;
-import com.unibuc.book_app.model.Translator;
 import com.unibuc.book_app.repository.BookPublisherRepository;
 import com.unibuc.book_app.repository.PublisherRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -38,7 +37,10 @@ class PublisherServiceTests {
     private BookPublisherRepository bookPublisherRepository;
 
     @Mock
-    private BookMapper bookMapper;
+    private SearchService searchService;
+
+    @Mock
+    private ExistenceFilterService existenceFilterService;
 
     @InjectMocks
     private PublisherService publisherService;
@@ -73,43 +75,43 @@ class PublisherServiceTests {
     }
 
     @Test
-    void testFindAllBooksByPublisherId_Valid() {
-        Book book1 = Book.builder()
-                .name("Intre iadul deznadejdii si iadul smereniei")
-                .isbn("973-9344-56-9")
-                .noPages(302)
-                .price(27)
-                .language("romanian")
-                .publishDate(LocalDate.of(2024, 3, 10))
-                .translator(
-                        Translator.builder()
-                                .id(1)
-                                .firstName("John")
-                                .lastName("Doe")
-                                .build()
-                )
+    void testFindPublishersPage_Valid() {
+        Publisher publisher1 = Publisher.builder()
+                .id(3)
+                .name("Nemira")
+                .foundedDate(LocalDate.of(1931, 2, 18))
+                .build();
+        Publisher publisher2 = Publisher.builder()
+                .id(5)
+                .name("Sophia")
+                .foundedDate(LocalDate.of(1965, 2, 18))
                 .build();
-        Book book2 = Book.builder()
-                .name("The Shadow of the Wind")
-                .isbn("978-0143126393")
-                .noPages(450)
-                .price(15)
-                .language("english")
-                .publishDate(LocalDate.of(2023, 11, 5))
-                .translator(
-                        Translator.builder()
-                                .id(2)
-                                .firstName("Leo")
-                                .lastName("Tolstoy")
-                                .build()
-                )
+        Publisher publisher3 = Publisher.builder()
+                .id(8)
+                .name("Polirom")
+                .foundedDate(LocalDate.of(1995, 2, 18))
                 .build();
+        PublisherResponseDto dto1 = new PublisherResponseDto(3, "Nemira", LocalDate.of(1931, 2, 18));
+        PublisherResponseDto dto2 = new PublisherResponseDto(5, "Sophia", LocalDate.of(1965, 2, 18));
+
+        when(publisherRepository.findByIdGreaterThanOrderByIdAsc(2, Limit.of(3))).thenReturn(List.of(publisher1, publisher2, publisher3));
+        when(publisherMapper.toResponseDto(publisher1)).thenReturn(dto1);
+        when(publisherMapper.toResponseDto(publisher2)).thenReturn(dto2);
+
+        CursorPageDto<PublisherResponseDto> result = publisherService.findPublishersPage(2, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(dto1, result.getItems().get(0));
+        assertEquals(dto2, result.getItems().get(1));
+        assertEquals("5", result.getNextCursor());
+    }
+
+    @Test
+    void testFindAllBooksByPublisherId_Valid() {
         BookSummaryDto dto1 = new BookSummaryDto(1, "1984");
         BookSummaryDto dto2 = new BookSummaryDto(2, "Animal Farm");
 
-        when(bookPublisherRepository.findAllBooksByPublisherId(1)).thenReturn(List.of(book1, book2));
-        when(bookMapper.toSummaryDto(book1)).thenReturn(dto1);
-        when(bookMapper.toSummaryDto(book2)).thenReturn(dto2);
+        when(bookPublisherRepository.findAllBooksByPublisherId(1)).thenReturn(List.of(dto1, dto2));
 
         List<BookSummaryDto> result = publisherService.findAllBooksByPublisherId(1);
 
@@ -196,10 +198,10 @@ class PublisherServiceTests {
 
         when(publisherRepository.findById(1)).thenReturn(Optional.of(publisher));
         doNothing().when(publisherMapper).updateEntityFromDto(updateDto, publisher);
-        when(publisherRepository.save(publisher)).thenReturn(updatedPublisher);
+        when(publisherRepository.saveAndFlush(publisher)).thenReturn(updatedPublisher);
         when(publisherMapper.toResponseDto(updatedPublisher)).thenReturn(responseDto);
 
-        PublisherResponseDto result = publisherService.updatePublisher(1, updateDto);
+        PublisherResponseDto result = publisherService.updatePublisher(1, updateDto, null);
 
         assertEquals(responseDto, result);
     }
@@ -211,7 +213,7 @@ class PublisherServiceTests {
         when(publisherRepository.findById(1)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> publisherService.updatePublisher(1, updateDto));
+                () -> publisherService.updatePublisher(1, updateDto, null));
 
         assertEquals("Publisher with id 1 not found", exception.getMessage());
     }
@@ -223,5 +225,6 @@ class PublisherServiceTests {
         publisherService.deletePublisher(1);
 
         verify(publisherRepository, times(1)).deleteById(1);
+        verify(searchService, times(1)).removePublisher(1);
     }
 }
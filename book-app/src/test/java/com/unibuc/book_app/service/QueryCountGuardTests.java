@@ -0,0 +1,293 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.BookFilterDto;
+import com.unibuc.book_app.dto.CursorPageDto;
+import com.unibuc.book_app.mapper.*;
+import com.unibuc.book_app.model.*;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs every list and relationship read of the services against datasets of growing size and asserts
+// the statement count stays under its bound and does not grow with the data. The second-level and
+// query caches are off, so each call is measured as a cold read.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "book-app.existence-filter.enabled=false"
+})
+@Import({
+        AuthorService.class,
+        BookAuthorEditorService.class,
+        BookCategoryService.class,
+        BookPublisherService.class,
+        BookService.class,
+        CategoryService.class,
+        CategoryMembershipService.class,
+        CollaborationService.class,
+        EditorService.class,
+        PublisherService.class,
+        TranslatorService.class,
+        BookStatsService.class,
+        SparseFieldsetRepository.class,
+        SearchService.class,
+        ExistenceFilterService.class,
+        AuthorMapper.class,
+        BookAuthorEditorMapper.class,
+        BookCategoryMapper.class,
+        BookPublisherMapper.class,
+        BookMapper.class,
+        CategoryMapper.class,
+        EditorMapper.class,
+        PublisherMapper.class,
+        TranslatorMapper.class,
+        LocalValidatorFactoryBean.class
+})
+class QueryCountGuardTests {
+    private static final int[] DATASET_SIZES = {5, 50};
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookAuthorEditorService bookAuthorEditorService;
+
+    @Autowired
+    private BookCategoryService bookCategoryService;
+
+    @Autowired
+    private BookPublisherService bookPublisherService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookStatsService bookStatsService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryMembershipService categoryMembershipService;
+
+    @Autowired
+    private CollaborationService collaborationService;
+
+    @Autowired
+    private EditorService editorService;
+
+    @Autowired
+    private PublisherService publisherService;
+
+    @Autowired
+    private TranslatorService translatorService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+
+    @BeforeEach
+    void setUp() {
+        queryCounter = new QueryCounter(testEntityManager, entityManagerFactory);
+    }
+
+    @FunctionalInterface
+    interface ServiceCall {
+        Object run(QueryCountGuardTests tests, Dataset dataset);
+    }
+
+    static Stream<Arguments> listAndRelationshipMethods() {
+        return Stream.of(
+                call("AuthorService.findAllAuthors", 1, (t, d) -> t.authorService.findAllAuthors()),
+                call("AuthorService.findAuthorsPage", 1, (t, d) -> t.authorService.findAuthorsPage(null, null)),
+                call("AuthorService.findAllAuthors(fields)", 1, (t, d) -> t.authorService.findAllAuthors("lastName")),
+                call("AuthorService.findAuthorsPage(fields)", 1, (t, d) -> t.authorService.findAuthorsPage("lastName", null, null)),
+                call("AuthorService.findAllBooksByAuthorId", 1, (t, d) -> t.authorService.findAllBooksByAuthorId(d.authorId())),
+                call("AuthorService.findAllEditorsByAuthorId", 0, (t, d) -> t.authorService.findAllEditorsByAuthorId(d.authorId())),
+                call("BookAuthorEditorService.findAllBookAuthorEditors", 1, (t, d) -> t.bookAuthorEditorService.findAllBookAuthorEditors()),
+                call("BookCategoryService.findAllBookCategories", 1, (t, d) -> t.bookCategoryService.findAllBookCategories()),
+                call("BookPublisherService.findAllBookPublishers", 1, (t, d) -> t.bookPublisherService.findAllBookPublishers()),
+                call("BookService.findAllBooks", 1, (t, d) -> t.bookService.findAllBooks()),
+                call("BookService.findBooksPage", 1, (t, d) -> t.bookService.findBooksPage(null, null)),
+                call("BookService.findAllBooks(fields)", 1, (t, d) -> t.bookService.findAllBooks("name,translator")),
+                call("BookService.findBooksPage(fields)", 1, (t, d) -> t.bookService.findBooksPage(
+                        BookFilterDto.builder().translatorId(d.translatorId()).build(), "price,translator", null, null)),
+                call("BookService.findBooksPage(filter)", 1, (t, d) -> t.bookService.findBooksPage(
+                        BookFilterDto.builder().translatorId(d.translatorId()).sort("-price").build(), null, null)),
+                call("BookService.findAllAuthorsByBookId", 1, (t, d) -> t.bookService.findAllAuthorsByBookId(d.bookId())),
+                call("BookService.findAllEditorsByBookId", 1, (t, d) -> t.bookService.findAllEditorsByBookId(d.bookId())),
+                call("BookService.findAllCategoriesByBookId", 1, (t, d) -> t.bookService.findAllCategoriesByBookId(d.bookId())),
+                call("BookService.findAllPublishersByBookId", 1, (t, d) -> t.bookService.findAllPublishersByBookId(d.bookId())),
+                call("BookStatsService.findPublisherStats", 1, (t, d) -> t.bookStatsService.findPublisherStats()),
+                call("CategoryService.findAllCategories", 1, (t, d) -> t.categoryService.findAllCategories()),
+                call("CategoryService.findCategoriesPage", 1, (t, d) -> t.categoryService.findCategoriesPage(null, null)),
+                call("CategoryService.findAllBooksByCategoryId", 1, (t, d) -> t.categoryService.findAllBooksByCategoryId(d.categoryId())),
+                call("CategoryService.findBooksByCategories", 1, (t, d) -> t.categoryService.findBooksByCategories(null, List.of(d.categoryId()), null, null, null)),
+                call("EditorService.findAllEditors", 1, (t, d) -> t.editorService.findAllEditors()),
+                call("EditorService.findEditorsPage", 1, (t, d) -> t.editorService.findEditorsPage(null, null)),
+                call("EditorService.findAllEditors(fields)", 1, (t, d) -> t.editorService.findAllEditors("firstName,debutDate")),
+                call("EditorService.findEditorsPage(fields)", 1, (t, d) -> t.editorService.findEditorsPage("firstName,debutDate", null, null)),
+                call("EditorService.findAllBooksByEditorId", 1, (t, d) -> t.editorService.findAllBooksByEditorId(d.editorId())),
+                call("EditorService.findAllAuthorsByEditorId", 0, (t, d) -> t.editorService.findAllAuthorsByEditorId(d.editorId())),
+                call("PublisherService.findAllPublishers", 1, (t, d) -> t.publisherService.findAllPublishers()),
+                call("PublisherService.findPublishersPage", 1, (t, d) -> t.publisherService.findPublishersPage(null, null)),
+                call("PublisherService.findAllPublishers(fields)", 1, (t, d) -> t.publisherService.findAllPublishers("name")),
+                call("PublisherService.findPublishersPage(fields)", 1, (t, d) -> t.publisherService.findPublishersPage("name", null, null)),
+                call("PublisherService.findAllBooksByPublisherId", 1, (t, d) -> t.publisherService.findAllBooksByPublisherId(d.publisherId())),
+                call("TranslatorService.findAllTranslators", 1, (t, d) -> t.translatorService.findAllTranslators()),
+                call("TranslatorService.findTranslatorsPage", 1, (t, d) -> t.translatorService.findTranslatorsPage(null, null)),
+                call("TranslatorService.findAllTranslators(fields)", 1, (t, d) -> t.translatorService.findAllTranslators("lastName")),
+                call("TranslatorService.findTranslatorsPage(fields)", 1, (t, d) -> t.translatorService.findTranslatorsPage("lastName", null, null)),
+                call("TranslatorService.findAllBooksByTranslatorId", 2, (t, d) -> t.translatorService.findAllBooksByTranslatorId(d.translatorId()))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("listAndRelationshipMethods")
+    void testStatementCount_IndependentOfDatasetSize(String method, long maxStatements, ServiceCall call) {
+        List<Long> statements = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int size : DATASET_SIZES) {
+            Dataset dataset = seed(size);
+            int[] returned = new int[1];
+            statements.add(queryCounter.count(() -> returned[0] = rows(call.run(this, dataset))));
+            rows.add(returned[0]);
+        }
+
+        assertTrue(rows.getLast() > rows.getFirst(), method + " returned " + rows + " rows, the seed does not reach it");
+        assertTrue(statements.getFirst() <= maxStatements, method + " issued " + statements.getFirst() + " statements");
+        assertEquals(statements.getFirst(), statements.getLast(),
+                method + " issued " + statements + " statements for " + rows + " rows");
+    }
+
+    private static Arguments call(String method, long maxStatements, ServiceCall call) {
+        return Arguments.of(method, maxStatements, call);
+    }
+
+    private static int rows(Object result) {
+        return switch (result) {
+            case Collection<?> collection -> collection.size();
+            case CursorPageDto<?> page -> page.getItems().size();
+            default -> throw new IllegalArgumentException("Not a list: " + result);
+        };
+    }
+
+    record Dataset(Integer bookId, Integer authorId, Integer editorId, Integer publisherId,
+                   Integer categoryId, Integer translatorId) {
+    }
+
+    // Seeds size rows per table and links the first row of each table to every row it can relate to,
+    // so both the listings and the relationship reads of the first rows grow with the size. The
+    // collaboration graph, the category bitmaps and the book columns are rebuilt from the seeded rows, as they
+    // would be at startup.
+    private Dataset seed(int size) {
+        String run = Long.toString(System.nanoTime(), 36);
+        List<Translator> translators = persist(size, i -> Translator.builder()
+                .firstName("Translator " + i)
+                .lastName(run)
+                .build());
+        List<Book> books = persist(size, i -> Book.builder()
+                .name("Book " + i)
+                .isbn("isbn-" + run + "-" + i)
+                .noPages(100 + i)
+                .price(10 + i)
+                .language("romanian")
+                .publishDate(LocalDate.of(2024, 3, 10))
+                .translator(translators.getFirst())
+                .build());
+        List<Author> authors = persist(size, i -> Author.builder()
+                .firstName("Author " + i)
+                .lastName(run)
+                .debutDate(LocalDate.of(2000, 1, 1))
+                .build());
+        List<Editor> editors = persist(size, i -> Editor.builder()
+                .firstName("Editor " + i)
+                .lastName(run)
+                .debutDate(LocalDate.of(2000, 1, 1))
+                .build());
+        List<Publisher> publishers = persist(size, i -> Publisher.builder()
+                .name("Publisher " + i)
+                .foundedDate(LocalDate.of(1990, 1, 1))
+                .build());
+        List<Category> categories = persist(size, i -> Category.builder()
+                .name("Category " + i)
+                .build());
+
+        for (int i = 0; i < size; i++) {
+            link(books.get(i), authors.get(i), editors.getFirst());
+            link(books.get(i), authors.getFirst(), editors.get(i));
+            link(books.getFirst(), authors.get(i), editors.get(i));
+            link(books.get(i), categories.getFirst());
+            link(books.get(i), publishers.getFirst());
+            if (i > 0) {
+                link(books.getFirst(), categories.get(i));
+                link(books.getFirst(), publishers.get(i));
+            }
+        }
+        collaborationService.buildGraph();
+        categoryMembershipService.buildIndex();
+        bookStatsService.buildColumns();
+        return new Dataset(books.getFirst().getId(), authors.getFirst().getId(), editors.getFirst().getId(),
+                publishers.getFirst().getId(), categories.getFirst().getId(), translators.getFirst().getId());
+    }
+
+    private <T> List<T> persist(int size, IntFunction<T> factory) {
+        List<T> entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entities.add(testEntityManager.persist(factory.apply(i)));
+        }
+        return entities;
+    }
+
+    private void link(Book book, Author author, Editor editor) {
+        BookAuthorEditor.BookAuthorEditorId id = new BookAuthorEditor.BookAuthorEditorId(book.getId(), author.getId(), editor.getId());
+        if (testEntityManager.find(BookAuthorEditor.class, id) == null) {
+            testEntityManager.persist(BookAuthorEditor.builder()
+                    .bookAuthorEditorId(id)
+                    .book(book)
+                    .author(author)
+                    .editor(editor)
+                    .build());
+        }
+    }
+
+    private void link(Book book, Category category) {
+        testEntityManager.persist(BookCategory.builder()
+                .bookCategoryId(new BookCategory.BookCategoryId(book.getId(), category.getId()))
+                .book(book)
+                .category(category)
+                .build());
+    }
+
+    private void link(Book book, Publisher publisher) {
+        testEntityManager.persist(BookPublisher.builder()
+                .bookPublisherId(new BookPublisher.BookPublisherId(book.getId(), publisher.getId()))
+                .book(book)
+                .publisher(publisher)
+                .build());
+    }
+}
@@ -0,0 +1,35 @@
+package com.unibuc.book_app.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a piece of work runs.
+ * <p>
+ * The persistence context is flushed and cleared first, so pending seed inserts are not
+ * counted and every entity the work touches has to be read from the database. Needs
+ * spring.jpa.properties.hibernate.generate_statistics=true.
+ */
+final class QueryCounter {
+    private final TestEntityManager testEntityManager;
+    private final Statistics statistics;
+
+    QueryCounter(TestEntityManager testEntityManager, EntityManagerFactory entityManagerFactory) {
+        this.testEntityManager = testEntityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    long count(Runnable action) {
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    Statistics statistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,118 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.service.SearchIndex.Hit;
+import com.unibuc.book_app.service.SearchIndex.RefType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTests {
+
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new SearchIndex();
+        searchIndex.putBook(1, "Pe culmile disperării", "973-9344-56-9");
+        searchIndex.putBook(2, "Lacrimi și sfinți", "973-9344-57-7");
+        searchIndex.putBook(3, "Amurgul gândurilor", "973-9344-58-5");
+        searchIndex.putRef(RefType.AUTHOR, 10, "Emil Cioran");
+        searchIndex.putRef(RefType.EDITOR, 20, "Simona Boerescu");
+        searchIndex.putRef(RefType.CATEGORY, 30, "Philosophy");
+    }
+
+    @Test
+    void testSearch_MatchesBookNameIgnoringCaseAndDiacritics() {
+        List<Hit> hits = searchIndex.search("DISPERARII", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(1, hits.getFirst().bookId());
+        assertEquals("Pe culmile disperării", hits.getFirst().name());
+    }
+
+    @Test
+    void testSearch_MatchesWholeIsbn() {
+        assertEquals(List.of(2), ids(searchIndex.search("973-9344-57-7", 10)));
+        assertEquals(List.of(2), ids(searchIndex.search("9739344577", 10)));
+    }
+
+    @Test
+    void testSearch_RanksBooksMatchingMoreTermsFirst() {
+        searchIndex.link(1, RefType.AUTHOR, 10, 1);
+        searchIndex.link(2, RefType.AUTHOR, 10, 2);
+
+        List<Hit> hits = searchIndex.search("cioran lacrimi", 10);
+
+        assertEquals(List.of(2, 1), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void testSearch_FollowsRenamesAndUnlinks() {
+        searchIndex.link(3, RefType.CATEGORY, 30, 30);
+        assertEquals(List.of(3), ids(searchIndex.search("philosophy", 10)));
+
+        searchIndex.putRef(RefType.CATEGORY, 30, "Essays");
+        assertEquals(List.of(), ids(searchIndex.search("philosophy", 10)));
+        assertEquals(List.of(3), ids(searchIndex.search("essays", 10)));
+
+        searchIndex.unlink(3, RefType.CATEGORY, 30, 30);
+        assertEquals(List.of(), ids(searchIndex.search("essays", 10)));
+    }
+
+    @Test
+    void testSearch_KeepsReferenceWhileAnotherLinkRemains() {
+        searchIndex.link(1, RefType.EDITOR, 20, "first");
+        searchIndex.link(1, RefType.EDITOR, 20, "second");
+
+        searchIndex.unlink(1, RefType.EDITOR, 20, "first");
+        assertEquals(List.of(1), ids(searchIndex.search("boerescu", 10)));
+
+        searchIndex.unlink(1, RefType.EDITOR, 20, "second");
+        assertEquals(List.of(), ids(searchIndex.search("boerescu", 10)));
+    }
+
+    @Test
+    void testSearch_RemovedBookIsNotReturned() {
+        searchIndex.removeBook(1);
+
+        assertEquals(List.of(), ids(searchIndex.search("culmile", 10)));
+        assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    void testSearch_LinkedBeforeBookIsIndexed() {
+        searchIndex.link(4, RefType.AUTHOR, 10, 4);
+        assertEquals(List.of(), ids(searchIndex.search("cioran", 10)));
+
+        searchIndex.putBook(4, "Tratat de descompunere", "973-9344-59-3");
+
+        assertEquals(List.of(4), ids(searchIndex.search("cioran", 10)));
+        assertEquals(List.of(4), ids(searchIndex.search("descompunere", 10)));
+    }
+
+    @Test
+    void testSearch_SharedTermFollowsRemovalsAndReindexing() {
+        for (int bookId = 100; bookId > 10; bookId--) {
+            searchIndex.putBook(bookId, "Essays", "isbn-" + bookId);
+        }
+        for (int bookId = 11; bookId <= 100; bookId += 2) {
+            searchIndex.removeBook(bookId);
+        }
+        searchIndex.putBook(12, "Essays", "isbn-12");
+        searchIndex.putBook(14, "Letters", "isbn-14");
+
+        List<Integer> hits = ids(searchIndex.search("essays", 100)).stream().sorted().toList();
+
+        assertEquals(IntStream.rangeClosed(6, 50).map(i -> 2 * i).filter(bookId -> bookId != 14).boxed().toList(), hits);
+    }
+
+    private List<Integer> ids(List<Hit> hits) {
+        return hits.stream().map(Hit::bookId).toList();
+    }
+}
@@ -0,0 +1,143 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.dto.CategoryDto;
+import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.mapper.CategoryMapper;
+import com.unibuc.book_app.mapper.TranslatorMapper;
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.model.BookCategory;
+import com.unibuc.book_app.model.Category;
+import com.unibuc.book_app.repository.BookCategoryRepository;
+import com.unibuc.book_app.repository.BookRepository;
+import com.unibuc.book_app.repository.CategoryRepository;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Every write has to commit before the cache sees it, so the tests run outside a transaction.
+// The JCache manager is shared by all contexts in the JVM, the region prefix keeps this one apart.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.region_prefix=second-level-cache-tests",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "book-app.existence-filter.enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        BookService.class,
+        CategoryService.class,
+        CategoryMembershipService.class,
+        TranslatorService.class,
+        BookStatsService.class,
+        SparseFieldsetRepository.class,
+        SearchService.class,
+        ExistenceFilterService.class,
+        BookMapper.class,
+        CategoryMapper.class,
+        TranslatorMapper.class,
+        LocalValidatorFactoryBean.class
+})
+class SecondLevelCacheTests {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private BookCategoryRepository bookCategoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookCategoryRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testFindCategoryById_SecondLoadServedFromCache() {
+        Category category = categoryRepository.save(Category.builder().name("Philosophy").build());
+        categoryService.findCategoryById(category.getId());
+        statistics.clear();
+
+        assertEquals("Philosophy", categoryService.findCategoryById(category.getId()).getName());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void testUpdateCategory_CacheSeesTheUpdate() {
+        Category category = categoryRepository.save(Category.builder().name("Philosophy").build());
+
+        categoryService.updateCategory(category.getId(), new CategoryDto("Ethics"), null);
+        statistics.clear();
+
+        assertEquals("Ethics", categoryService.findCategoryById(category.getId()).getName());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    // Relationship lookups are cached by the Spring cache around the service (see ServiceCacheTests), not here
+    @Test
+    void testFindAllCategoriesByBookId_NotInQueryCache() {
+        Book book = seedBook();
+        link(book, categoryRepository.save(Category.builder().name("Philosophy").build()));
+        statistics.clear();
+
+        assertEquals(1, bookService.findAllCategoriesByBookId(book.getId()).size());
+        assertEquals(1, bookService.findAllCategoriesByBookId(book.getId()).size());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getQueryCachePutCount());
+    }
+
+    private Book seedBook() {
+        return bookRepository.save(Book.builder()
+                .name("Book")
+                .isbn("isbn-" + System.nanoTime())
+                .noPages(100)
+                .price(10)
+                .language("romanian")
+                .publishDate(LocalDate.of(2024, 3, 10))
+                .build());
+    }
+
+    private void link(Book book, Category category) {
+        bookCategoryRepository.save(BookCategory.builder()
+                .bookCategoryId(new BookCategory.BookCategoryId(book.getId(), category.getId()))
+                .book(book)
+                .category(category)
+                .build());
+    }
+}
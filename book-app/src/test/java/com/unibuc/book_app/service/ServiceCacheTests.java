@@ -0,0 +1,162 @@
+package com.unibuc.book_app.service;
+
+import com.unibuc.book_app.configuration.CacheConfig;
+import com.unibuc.book_app.dto.BookResponseDto;
+import com.unibuc.book_app.dto.BookUpdateDto;
+import com.unibuc.book_app.dto.CategorySummaryDto;
+import com.unibuc.book_app.dto.PublisherSummaryDto;
+import com.unibuc.book_app.mapper.BookCategoryMapper;
+import com.unibuc.book_app.mapper.BookMapper;
+import com.unibuc.book_app.model.Book;
+import com.unibuc.book_app.repository.BookAuthorEditorRepository;
+import com.unibuc.book_app.repository.BookCategoryRepository;
+import com.unibuc.book_app.repository.BookPublisherRepository;
+import com.unibuc.book_app.repository.BookRepository;
+import com.unibuc.book_app.repository.SparseFieldsetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.cache.autoconfigure.CacheAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, BookService.class, BookCategoryService.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.caffeine.spec=maximumSize=100,recordStats"
+})
+class ServiceCacheTests {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookCategoryService bookCategoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private BookRepository bookRepository;
+
+    @MockitoBean
+    private BookMapper bookMapper;
+
+    @MockitoBean
+    private TranslatorService translatorService;
+
+    @MockitoBean
+    private Validator validator;
+
+    @MockitoBean
+    private ExistenceFilterService existenceFilterService;
+
+    @MockitoBean
+    private BookAuthorEditorRepository bookAuthorEditorRepository;
+
+    @MockitoBean
+    private BookCategoryRepository bookCategoryRepository;
+
+    @MockitoBean
+    private BookPublisherRepository bookPublisherRepository;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private BookCategoryMapper bookCategoryMapper;
+
+    @MockitoBean
+    private CategoryService categoryService;
+
+    @MockitoBean
+    private SearchService searchService;
+
+    @MockitoBean
+    private CategoryMembershipService categoryMembershipService;
+
+    @MockitoBean
+    private BookStatsService bookStatsService;
+
+    @MockitoBean
+    private SparseFieldsetRepository sparseFieldsetRepository;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testFindBookById_CachedUntilUpdate() {
+        Book book = Book.builder()
+                .id(1)
+                .name("The Shadow of the Wind")
+                .build();
+        BookResponseDto dto = new BookResponseDto();
+        dto.setId(1);
+        dto.setName("The Shadow of the Wind");
+
+        when(bookRepository.findById(1)).thenReturn(Optional.of(book));
+        when(bookRepository.saveAndFlush(book)).thenReturn(book);
+        when(bookMapper.toResponseDto(book)).thenReturn(dto);
+
+        assertEquals(dto, bookService.findBookById(1));
+        assertEquals(dto, bookService.findBookById(1));
+        verify(bookRepository, times(1)).findById(1);
+
+        bookService.updateBook(1, new BookUpdateDto(), null);
+        bookService.findBookById(1);
+        verify(bookRepository, times(3)).findById(1);
+
+        CaffeineCache books = (CaffeineCache) cacheManager.getCache(CacheConfig.BOOKS);
+        assertEquals(1, books.getNativeCache().stats().hitCount());
+        assertEquals(2, books.getNativeCache().stats().missCount());
+    }
+
+    @Test
+    void testFindAllCategoriesByBookId_EvictedByLinkDelete() {
+        when(bookCategoryRepository.findAllCategoriesByBookId(1))
+                .thenReturn(List.of(new CategorySummaryDto(1, "Fantasy")));
+
+        bookService.findAllCategoriesByBookId(1);
+        bookService.findAllCategoriesByBookId(1);
+        verify(bookCategoryRepository, times(1)).findAllCategoriesByBookId(1);
+
+        bookCategoryService.deleteBookCategory(1, 1);
+        bookService.findAllCategoriesByBookId(1);
+        verify(bookCategoryRepository, times(2)).findAllCategoriesByBookId(1);
+        verify(bookCategoryRepository).deleteById(any());
+
+        CaffeineCache bookCategories = (CaffeineCache) cacheManager.getCache(CacheConfig.BOOK_CATEGORIES);
+        assertEquals(1, bookCategories.getNativeCache().stats().hitCount());
+        assertEquals(2, bookCategories.getNativeCache().stats().missCount());
+    }
+
+    @Test
+    void testFindAllPublishersByBookId_Cached() {
+        when(bookPublisherRepository.findAllPublishersByBookId(1))
+                .thenReturn(List.of(new PublisherSummaryDto(1, "Humanitas")));
+
+        bookService.findAllPublishersByBookId(1);
+        bookService.findAllPublishersByBookId(1);
+        verify(bookPublisherRepository, times(1)).findAllPublishersByBookId(1);
+
+        CaffeineCache bookPublishers = (CaffeineCache) cacheManager.getCache(CacheConfig.BOOK_PUBLISHERS);
+        assertEquals(1, bookPublishers.getNativeCache().stats().hitCount());
+        assertEquals(1, bookPublishers.getNativeCache().stats().missCount());
+    }
+}
@@ -1,22 +1,22 @@
 package com.unibuc.book_app.service;
 
 import com.unibuc.book_app.dto.BookSummaryDto;
+import com.unibuc.book_app.dto.CursorPageDto;
 import com.unibuc.book_app.dto.TranslatorCreateDto;
 import com.unibuc.book_app.dto.TranslatorResponseDto;
 import com.unibuc.book_app.dto.TranslatorUpdateDto;
 import com.unibuc.book_app.exception.NotFoundException;
-import com.unibuc.book_app.mapper.BookMapper;
 import com.unibuc.book_app.mapper.TranslatorMapper;
-import com.unibuc.book_app.model.Book;
 import com.unibuc.book_app.model.Translator;
+import com.unibuc.book_app.repository.BookRepository;
 import com.unibuc.book_app.repository.TranslatorRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,7 +33,11 @@ class TranslatorServiceTests {
     private TranslatorMapper translatorMapper;
 
     @Mock
-    private BookMapper bookMapper;
+    private BookRepository bookRepository;
+
+    @Mock
+    private ExistenceFilterService existenceFilterService;
+
     @InjectMocks
     private TranslatorService translatorService;
 
@@ -67,47 +71,44 @@ class TranslatorServiceTests {
     }
 
     @Test
-    void testFindAllBooksByTranslatorId_Valid() {
-        Book book1 = Book.builder()
-                .name("Intre iadul deznadejdii si iadul smereniei")
-                .isbn("973-9344-56-9")
-                .noPages(302)
-                .price(27)
-                .language("romanian")
-                .publishDate(LocalDate.of(2024, 3, 10))
-                .translator(
-                        Translator.builder()
-                                .firstName("John")
-                                .lastName("Doe")
-                                .build()
-                )
+    void testFindTranslatorsPage_Valid() {
+        Translator translator1 = Translator.builder()
+                .id(3)
+                .firstName("John")
+                .lastName("Doe")
                 .build();
-        Book book2 = Book.builder()
-                .name("The Shadow of the Wind")
-                .isbn("978-0143126393")
-                .noPages(450)
-                .price(15)
-                .language("english")
-                .publishDate(LocalDate.of(2023, 11, 5))
-                .translator(
-                        Translator.builder()
-                                .firstName("Leo")
-                                .lastName("Tolstoy")
-                                .build()
-                )
+        Translator translator2 = Translator.builder()
+                .id(5)
+                .firstName("Leo")
+                .lastName("Tolstoy")
+                .build();
+        Translator translator3 = Translator.builder()
+                .id(8)
+                .firstName("Mircea")
+                .lastName("Eliade")
                 .build();
+        TranslatorResponseDto dto1 = new TranslatorResponseDto(3, "John", "Doe");
+        TranslatorResponseDto dto2 = new TranslatorResponseDto(5, "Leo", "Tolstoy");
+
+        when(translatorRepository.findByIdGreaterThanOrderByIdAsc(2, Limit.of(3))).thenReturn(List.of(translator1, translator2, translator3));
+        when(translatorMapper.toResponseDto(translator1)).thenReturn(dto1);
+        when(translatorMapper.toResponseDto(translator2)).thenReturn(dto2);
+
+        CursorPageDto<TranslatorResponseDto> result = translatorService.findTranslatorsPage(2, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(dto1, result.getItems().get(0));
+        assertEquals(dto2, result.getItems().get(1));
+        assertEquals("5", result.getNextCursor());
+    }
+
+    @Test
+    void testFindAllBooksByTranslatorId_Valid() {
         BookSummaryDto dto1 = new BookSummaryDto(1, "1984");
         BookSummaryDto dto2 = new BookSummaryDto(2, "Animal Farm");
-        Translator translator = Translator.builder()
-                .id(1)
-                .firstName("John")
-                .lastName("Doe")
-                .books(List.of(book1, book2))
-                .build();
 
-        when(translatorRepository.findById(1)).thenReturn(Optional.of(translator));
-        when(bookMapper.toSummaryDto(book1)).thenReturn(dto1);
-        when(bookMapper.toSummaryDto(book2)).thenReturn(dto2);
+        when(translatorRepository.existsById(1)).thenReturn(true);
+        when(bookRepository.findAllBooksByTranslatorId(1)).thenReturn(List.of(dto1, dto2));
 
         List<BookSummaryDto> result = translatorService.findAllBooksByTranslatorId(1);
 
@@ -116,6 +117,17 @@ class TranslatorServiceTests {
         assertEquals(dto2, result.get(1));
     }
 
+    @Test
+    void testFindAllBooksByTranslatorId_Invalid() {
+        when(translatorRepository.existsById(1)).thenReturn(false);
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> translatorService.findAllBooksByTranslatorId(1));
+
+        assertEquals("Translator with id 1 not found", exception.getMessage());
+        verifyNoInteractions(bookRepository);
+    }
+
     @Test
     void testFindTranslatorEntityById_Valid() {
         Translator translator = Translator.builder()
@@ -194,10 +206,10 @@ class TranslatorServiceTests {
 
         when(translatorRepository.findById(1)).thenReturn(Optional.of(translator));
         doNothing().when(translatorMapper).updateEntityFromDto(updateDto, translator);
-        when(translatorRepository.save(translator)).thenReturn(updatedTranslator);
+        when(translatorRepository.saveAndFlush(translator)).thenReturn(updatedTranslator);
         when(translatorMapper.toResponseDto(updatedTranslator)).thenReturn(responseDto);
 
-        TranslatorResponseDto result = translatorService.updateTranslator(1, updateDto);
+        TranslatorResponseDto result = translatorService.updateTranslator(1, updateDto, null);
 
         assertEquals(responseDto, result);
     }
@@ -209,7 +221,7 @@ class TranslatorServiceTests {
         when(translatorRepository.findById(1)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> translatorService.updateTranslator(1, updateDto));
+                () -> translatorService.updateTranslator(1, updateDto, null));
 
         assertEquals("Translator with id 1 not found", exception.getMessage());
     }
@@ -0,0 +1,120 @@
+package com.unibuc.book_app.singleflight;
+
+import com.unibuc.book_app.exception.NotFoundException;
+import com.unibuc.book_app.singleflight.SingleFlightGroup.Role;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightGroupTests {
+    private static final int CALLERS = 50;
+
+    private final Map<Role, AtomicInteger> roles = new ConcurrentHashMap<>();
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneExecution() throws Exception {
+        SingleFlightGroup group = new SingleFlightGroup(Duration.ZERO);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Future<Object>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> callFromTask(group, 1, () -> {
+                    executions.incrementAndGet();
+                    release.await();
+                    return result;
+                })));
+            }
+            awaitJoined(CALLERS);
+            release.countDown();
+            for (Future<Object> future : futures) {
+                assertSame(result, future.get());
+            }
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(1, count(Role.LEADER));
+        assertEquals(CALLERS - 1, count(Role.COALESCED));
+        assertEquals(0, group.size());
+    }
+
+    @Test
+    void testExecute_DifferentKeysRunSeparately() throws Throwable {
+        SingleFlightGroup group = new SingleFlightGroup(Duration.ofMinutes(1));
+
+        assertEquals(1, call(group, 1, () -> 1));
+        assertEquals(2, call(group, 2, () -> 2));
+
+        assertEquals(2, count(Role.LEADER));
+    }
+
+    @Test
+    void testExecute_ResultLingers() throws Throwable {
+        SingleFlightGroup group = new SingleFlightGroup(Duration.ofMinutes(1));
+
+        assertEquals("first", call(group, 1, () -> "first"));
+        assertEquals("first", call(group, 1, () -> "second"));
+
+        assertEquals(1, count(Role.LEADER));
+        assertEquals(1, count(Role.LINGERED));
+    }
+
+    @Test
+    void testExecute_FailureIsNotLingered() throws Throwable {
+        SingleFlightGroup group = new SingleFlightGroup(Duration.ofMinutes(1));
+
+        assertThrows(NotFoundException.class, () -> call(group, 1, () -> {
+            throw new NotFoundException("Book with id 1 not found");
+        }));
+
+        assertEquals("found", call(group, 1, () -> "found"));
+        assertEquals(2, count(Role.LEADER));
+    }
+
+    @Test
+    void testForget_DropsLingeringResults() throws Throwable {
+        SingleFlightGroup group = new SingleFlightGroup(Duration.ofMinutes(1));
+
+        call(group, 1, () -> "before");
+        group.forget();
+
+        assertEquals("after", call(group, 1, () -> "after"));
+        assertEquals(2, count(Role.LEADER));
+    }
+
+    private Object call(SingleFlightGroup group, Object key, SingleFlightGroup.Execution execution) throws Throwable {
+        return group.execute(key, execution, role -> roles.computeIfAbsent(role, r -> new AtomicInteger()).incrementAndGet());
+    }
+
+    private Object callFromTask(SingleFlightGroup group, Object key, SingleFlightGroup.Execution execution) throws Exception {
+        try {
+            return call(group, key, execution);
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private int count(Role role) {
+        return roles.getOrDefault(role, new AtomicInteger()).get();
+    }
+
+    private void awaitJoined(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count(Role.LEADER) + count(Role.COALESCED) < callers && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
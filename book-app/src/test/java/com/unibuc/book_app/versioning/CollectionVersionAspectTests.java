@@ -0,0 +1,89 @@
+package com.unibuc.book_app.versioning;
+
+import com.unibuc.book_app.dto.CategoryDto;
+import com.unibuc.book_app.mapper.CategoryMapper;
+import com.unibuc.book_app.model.Category;
+import com.unibuc.book_app.repository.BookCategoryRepository;
+import com.unibuc.book_app.repository.BookRepository;
+import com.unibuc.book_app.repository.CategoryRepository;
+import com.unibuc.book_app.service.CategoryMembershipService;
+import com.unibuc.book_app.service.CategoryService;
+import com.unibuc.book_app.service.ExistenceFilterService;
+import com.unibuc.book_app.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CollectionVersionAspectTests {
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final CategoryMapper categoryMapper = mock(CategoryMapper.class);
+    private final CollectionVersions collectionVersions = new CollectionVersions();
+    private final List<Object> events = new ArrayList<>();
+    private CategoryService categoryService;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new CategoryService(
+                categoryRepository,
+                categoryMapper,
+                mock(BookCategoryRepository.class),
+                mock(SearchService.class),
+                mock(ExistenceFilterService.class),
+                mock(CategoryMembershipService.class),
+                mock(BookRepository.class)
+        ));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CollectionVersionAspect(collectionVersions, events::add));
+        categoryService = factory.getProxy();
+    }
+
+    @Test
+    void testWriteBumpsItsTable() {
+        Category category = Category.builder().id(1).name("Poetry").build();
+        when(categoryMapper.toEntity(any())).thenReturn(category);
+        when(categoryRepository.save(category)).thenReturn(category);
+        String categories = collectionVersions.etag(Table.CATEGORY);
+        String books = collectionVersions.etag(Table.BOOK);
+
+        categoryService.createCategory(new CategoryDto("Poetry"));
+
+        assertNotEquals(categories, collectionVersions.etag(Table.CATEGORY));
+        assertEquals(books, collectionVersions.etag(Table.BOOK));
+        assertEquals(List.of(new TableModifiedEvent(Table.CATEGORY)), events);
+    }
+
+    @Test
+    void testReadLeavesVersionsAlone() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        String categories = collectionVersions.etag(Table.CATEGORY);
+
+        categoryService.findAllCategories();
+
+        assertEquals(categories, collectionVersions.etag(Table.CATEGORY));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testFailedWriteStillBumps() {
+        String categories = collectionVersions.etag(Table.CATEGORY);
+        when(categoryMapper.toEntity(any())).thenThrow(new IllegalStateException("database unavailable"));
+
+        try {
+            categoryService.createCategory(new CategoryDto("Poetry"));
+        } catch (IllegalStateException ignored) {
+            // the bump happens regardless
+        }
+
+        assertNotEquals(categories, collectionVersions.etag(Table.CATEGORY));
+    }
+}